@@ -0,0 +1,36 @@
+package ru.practicum.shareit.batch;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.batch.dto.BatchResponseDto;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/batch")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Validated
+public class BatchController {
+
+    BatchProcessor batchProcessor;
+
+    @PostMapping
+    public CompletableFuture<List<BatchResponseDto>> batch(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                                           @RequestBody List<@Valid BatchRequestDto> requests) {
+        if (requests.isEmpty() || requests.size() > batchProcessor.getMaxRequests()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A batch takes 1 to " + batchProcessor.getMaxRequests() + " requests");
+        }
+        return batchProcessor.process(requests, userId);
+    }
+}
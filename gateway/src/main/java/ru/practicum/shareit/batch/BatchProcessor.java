@@ -0,0 +1,238 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.batch.dto.BatchResponseDto;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.dto.BookingCategory;
+import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.ratelimit.RateLimitGroup;
+import ru.practicum.shareit.ratelimit.RateLimits;
+import ru.practicum.shareit.request.RequestClient;
+import ru.practicum.shareit.user.UserClient;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+// Runs the GET sub-requests of a batch side by side, each through the client for its path. Every sub-request is rate
+// limited, cached and coalesced exactly as the same GET sent on its own would be, and one failing or timing out
+// only affects its own entry
+@Slf4j
+@Component
+public class BatchProcessor {
+
+    private static final Pattern PATH = Pattern.compile("/(users|items|bookings|requests)(/[A-Za-z0-9_-]+)*");
+    private static final Pattern QUERY_NAME = Pattern.compile("[A-Za-z0-9_-]+");
+    // Second path segments that name a route rather than an id, and the one route allowed below an id
+    private static final Map<String, Set<String>> NAMED_ROUTES = Map.of(
+            "items", Set.of("search"),
+            "bookings", Set.of("owner"),
+            "requests", Set.of("all")
+    );
+    private static final Map<String, String> NESTED_ROUTES = Map.of(
+            "items", "comments",
+            "requests", "suggestions"
+    );
+    private static final Set<String> POSITIVE_PARAMETERS = Set.of("after", "size");
+
+    private final Map<String, BaseClient> clients;
+    private final RateLimits rateLimits;
+    private final ObjectMapper objectMapper;
+    private final int maxRequests;
+    private final Duration timeout;
+
+    public BatchProcessor(UserClient userClient, ItemClient itemClient, BookingClient bookingClient,
+                          RequestClient requestClient, RateLimits rateLimits, ObjectMapper objectMapper,
+                          @Value("${shareit-gateway.batch.max-requests:20}") int maxRequests,
+                          @Value("${shareit-gateway.batch.timeout:10s}") Duration timeout) {
+        this.clients = Map.of(
+                "users", userClient,
+                "items", itemClient,
+                "bookings", bookingClient,
+                "requests", requestClient
+        );
+        this.rateLimits = rateLimits;
+        this.objectMapper = objectMapper;
+        this.maxRequests = maxRequests;
+        this.timeout = timeout;
+    }
+
+    public int getMaxRequests() {
+        return maxRequests;
+    }
+
+    public CompletableFuture<List<BatchResponseDto>> process(List<BatchRequestDto> requests, Long userId) {
+        List<CompletableFuture<BatchResponseDto>> responses = new ArrayList<>(requests.size());
+        for (BatchRequestDto request : requests) {
+            responses.add(process(request, userId)
+                    .exceptionally(e -> {
+                        Throwable cause = (e instanceof CompletionException && e.getCause() != null) ? e.getCause() : e;
+                        if (cause instanceof TimeoutException) {
+                            return error(request, HttpStatus.GATEWAY_TIMEOUT, "Request timed out");
+                        }
+                        log.debug("Batch sub-request {} failed: {}", request.getPath(), cause.getMessage());
+                        return error(request, HttpStatus.INTERNAL_SERVER_ERROR, "Request failed");
+                    }));
+        }
+        return CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new))
+                .thenApply(done -> responses.stream().map(CompletableFuture::join).toList());
+    }
+
+    private CompletableFuture<BatchResponseDto> process(BatchRequestDto request, Long userId) {
+        if (request.getMethod() != null && !HttpMethod.GET.matches(request.getMethod())) {
+            return CompletableFuture.completedFuture(
+                    error(request, HttpStatus.METHOD_NOT_ALLOWED, "Only GET requests can be batched"));
+        }
+
+        UriComponents uri = UriComponentsBuilder.fromUriString(request.getPath()).build();
+        String path = uri.getPath();
+        if (path == null || !PATH.matcher(path).matches() || path.startsWith("/requests/stream")
+                || !uri.getQueryParams().keySet().stream().allMatch(name -> QUERY_NAME.matcher(name).matches())) {
+            return CompletableFuture.completedFuture(error(request, HttpStatus.BAD_REQUEST, "Unsupported path"));
+        }
+
+        MultiValueMap<String, String> query = new LinkedMultiValueMap<>();
+        try {
+            uri.getQueryParams().forEach((name, values) -> values.forEach(value ->
+                    query.add(name, (value == null) ? "" : UriUtils.decode(value, StandardCharsets.UTF_8))));
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(error(request, HttpStatus.BAD_REQUEST, "Unsupported query"));
+        }
+        String invalid = validate(path, query);
+        if (invalid != null) {
+            return CompletableFuture.completedFuture(error(request, HttpStatus.BAD_REQUEST, invalid));
+        }
+
+        RateLimitGroup group = RateLimitGroup.of(HttpMethod.GET.name(), path);
+        if (group != null) {
+            long waitNanos = rateLimits.tryAcquire(group, userId);
+            if (waitNanos > 0) {
+                BatchResponseDto limited = error(request, HttpStatus.TOO_MANY_REQUESTS, "Too many requests");
+                limited.getHeaders().put(HttpHeaders.RETRY_AFTER,
+                        String.valueOf(RateLimits.retryAfterSeconds(waitNanos)));
+                return CompletableFuture.completedFuture(limited);
+            }
+        }
+
+        int prefixEnd = path.indexOf('/', 1);
+        BaseClient client = clients.get((prefixEnd < 0) ? path.substring(1) : path.substring(1, prefixEnd));
+        String relativePath = (prefixEnd < 0) ? "" : path.substring(prefixEnd);
+
+        // A sub-request that times out is abandoned rather than left running for nobody
+        CompletableFuture<ResponseEntity<Object>> forwarded;
+        try {
+            forwarded = client.forward(relativePath, query, userId, request.getIfNoneMatch());
+        } catch (RuntimeException e) {
+            forwarded = CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<ResponseEntity<Object>> call = forwarded;
+        return forwarded.thenApply(answer -> toResponse(request, answer))
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((answer, error) -> {
+                    if (error != null) {
+                        call.cancel(true);
+                    }
+                });
+    }
+
+    // Applies the checks the controller for the same GET would, since forwarding skips it: ids in the path and the
+    // paging values must be positive and a booking category must be known. The category is passed on in the
+    // upper case the server parses
+    @Nullable
+    private static String validate(String path, MultiValueMap<String, String> query) {
+        String[] segments = path.substring(1).split("/");
+        String resource = segments[0];
+        if (segments.length > 1) {
+            boolean named = NAMED_ROUTES.getOrDefault(resource, Set.of()).contains(segments[1]);
+            if (!named && !isPositive(segments[1])) {
+                return "Invalid id: " + segments[1];
+            }
+            if (segments.length > 3 || (segments.length == 3 && (named
+                    || !segments[2].equals(NESTED_ROUTES.get(resource))))) {
+                return "Unsupported path";
+            }
+        }
+        for (String name : POSITIVE_PARAMETERS) {
+            for (String value : query.getOrDefault(name, List.of())) {
+                if (!isPositive(value)) {
+                    return "Invalid " + name;
+                }
+            }
+        }
+        if (resource.equals("bookings") && query.containsKey("category")) {
+            List<String> categories = new ArrayList<>();
+            for (String value : query.get("category")) {
+                Optional<BookingCategory> category = BookingCategory.from(value);
+                if (category.isEmpty()) {
+                    return "Unknown category";
+                }
+                categories.add(category.get().name());
+            }
+            query.put("category", categories);
+        }
+        return null;
+    }
+
+    private static boolean isPositive(String value) {
+        try {
+            return Long.parseLong(value) > 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private BatchResponseDto toResponse(BatchRequestDto request, ResponseEntity<Object> response) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        response.getHeaders().forEach((name, values) -> headers.put(name, String.join(", ", values)));
+        return new BatchResponseDto(request.getId(), response.getStatusCode().value(), headers,
+                body(response.getHeaders().getContentType(), response.getBody()));
+    }
+
+    private String body(MediaType contentType, Object body) {
+        if (!(body instanceof byte[] bytes) || bytes.length == 0) {
+            return null;
+        }
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        if (contentType != null && contentType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+            return text;
+        }
+        try {
+            return objectMapper.writeValueAsString(text);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private static BatchResponseDto error(BatchRequestDto request, HttpStatus status, String message) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        return new BatchResponseDto(request.getId(), status.value(), headers, "{\"error\":\"" + message + "\"}");
+    }
+}
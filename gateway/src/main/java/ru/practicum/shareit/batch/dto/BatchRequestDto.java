@@ -0,0 +1,23 @@
+package ru.practicum.shareit.batch.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BatchRequestDto {
+
+    // Echoed back so callers can match responses without relying on their order
+    String id;
+
+    String method;
+
+    @NotBlank
+    String path;
+
+    String ifNoneMatch;
+}
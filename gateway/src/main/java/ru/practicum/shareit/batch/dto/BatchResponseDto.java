@@ -0,0 +1,25 @@
+package ru.practicum.shareit.batch.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BatchResponseDto {
+
+    String id;
+
+    int status;
+
+    Map<String, String> headers;
+
+    // The server's JSON as it came, embedded without being parsed and serialized again
+    @JsonRawValue
+    String body;
+}
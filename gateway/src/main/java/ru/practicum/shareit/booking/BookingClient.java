@@ -1,55 +1,67 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientContext;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory,
+                         ClientContext clientContext) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                clientContext
         );
     }
 
-    public ResponseEntity<Object> post(Long userId, BookingDto bookingData) {
+    public CompletableFuture<ResponseEntity<Object>> post(Long userId, BookingDto bookingData) {
         return post("", userId, bookingData);
     }
 
-    public ResponseEntity<Object> patch(Long bookingId, Long userId, Boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> patch(Long bookingId, Long userId, Boolean approved) {
         Map<String, Object> parameters = Map.of(
                 "approved", approved
         );
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> get(Long bookingId, Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> get(Long bookingId, Long userId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> get(Long userId, String category, boolean items) {
+    public CompletableFuture<ResponseEntity<Object>> get(Long userId, String category, boolean items) {
         Map<String, Object> parameters = Map.of(
                 "category", category
         );
         return get((!items) ? "?category={category}" : "/owner?category={category}", userId, parameters);
     }
 
-    public ResponseEntity<Object> get(Long userId, String category) {
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> getStreamed(Long userId, String category) {
+        Map<String, Object> parameters = Map.of(
+                "category", category
+        );
+        return getStreamed("?category={category}", userId, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> get(Long userId, String category) {
         Map<String, Object> parameters = Map.of(
                 "category", category
         );
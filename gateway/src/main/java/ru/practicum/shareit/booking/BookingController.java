@@ -5,8 +5,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/bookings")
 @RequiredArgsConstructor
@@ -16,30 +19,30 @@ public class BookingController {
     BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> addBooking(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestBody BookingDto bookingData) {
+    public CompletableFuture<ResponseEntity<Object>> addBooking(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestBody BookingDto bookingData) {
         return bookingClient.post(userId, bookingData);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> processBooking(@PathVariable Long bookingId,
+    public CompletableFuture<ResponseEntity<Object>> processBooking(@PathVariable Long bookingId,
                                         @RequestHeader("X-Sharer-User-Id") Long userId,
                                         @RequestParam(name = "approved") String approved) {
         return bookingClient.patch(bookingId, userId, Boolean.valueOf(approved));
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@PathVariable Long bookingId, @RequestHeader("X-Sharer-User-Id") Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getBooking(@PathVariable Long bookingId, @RequestHeader("X-Sharer-User-Id") Long userId) {
         return bookingClient.get(bookingId, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                @RequestParam(name = "category", defaultValue = "ALL") String category) {
-        return bookingClient.get(userId, category, false);
+        return bookingClient.getStreamed(userId, category);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getUserItemsBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public CompletableFuture<ResponseEntity<Object>> getUserItemsBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                     @RequestParam(name = "category", defaultValue = "ALL") String category) {
         return bookingClient.get(userId, category, true);
     }
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+// Hands the request to the async client's I/O reactor and returns at once; the future completes on an I/O thread
+// when the response has been read, so a slow server costs a pending future rather than a blocked thread
+class AsyncServerExchange implements ServerExchange {
+
+    private final CloseableHttpAsyncClient client;
+    private final ObjectMapper objectMapper;
+
+    AsyncServerExchange(CloseableHttpAsyncClient client, ObjectMapper objectMapper) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(URI uri, HttpMethod method, HttpHeaders headers,
+                                                              @Nullable Object body) {
+        SimpleRequestBuilder request = SimpleRequestBuilder.create(method.name()).setUri(uri);
+        headers.forEach((name, values) -> {
+            // the content type goes with the body below
+            if (!HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+                values.forEach(value -> request.addHeader(name, value));
+            }
+        });
+        if (body != null) {
+            try {
+                request.setBody(objectMapper.writeValueAsBytes(body), ContentType.APPLICATION_JSON);
+            } catch (JsonProcessingException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        CompletableFuture<ResponseEntity<byte[]>> result = new CompletableFuture<>();
+        Future<SimpleHttpResponse> call = client.execute(request.build(), new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                result.complete(toResponseEntity(response));
+            }
+
+            @Override
+            public void failed(Exception e) {
+                IOException cause = (e instanceof IOException io) ? io : new IOException(e);
+                result.completeExceptionally(new ResourceAccessException(
+                        "I/O error on " + method + " request for \"" + uri + "\": " + e.getMessage(), cause
+                ));
+            }
+
+            @Override
+            public void cancelled() {
+                result.cancel(false);
+            }
+        });
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                call.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private static ResponseEntity<byte[]> toResponseEntity(SimpleHttpResponse response) {
+        HttpHeaders headers = new HttpHeaders();
+        for (Header header : response.getHeaders()) {
+            headers.add(header.getName(), header.getValue());
+        }
+        return ResponseEntity.status(HttpStatusCode.valueOf(response.getCode()))
+                .headers(headers)
+                .body(response.getBodyBytes());
+    }
+}
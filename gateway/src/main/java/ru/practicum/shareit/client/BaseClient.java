@@ -1,121 +1,691 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
-import org.springframework.http.HttpEntity;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 public class BaseClient {
+    // Hop-by-hop headers and Content-Length belong to the upstream connection
+    private static final List<String> RELAYED_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.ETAG, HttpHeaders.CACHE_CONTROL, HttpHeaders.LAST_MODIFIED,
+            HttpHeaders.LOCATION, HttpHeaders.RETRY_AFTER
+    );
+
     protected final RestTemplate rest;
+    private final ServerExchange exchange;
+    private final ResponseCache cache;
+    private final SingleFlight<ResponseEntity<byte[]>> singleFlight;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final ServerNodes serverNodes;
+    private final DeadlineBudgets deadlineBudgets;
+    @Nullable
+    private final Hedging hedging;
+    private final CloseableHttpClient httpClient;
+    private final Duration streamStartTimeout;
+    private final CloseableHttpClient feedHttpClient;
+    private final Bulkhead feedSubscribers;
 
-    public BaseClient(RestTemplate rest) {
+    public BaseClient(RestTemplate rest, ClientContext context) {
         this.rest = rest;
+        this.exchange = context.createExchange(rest);
+        this.cache = context.createCache(getClass().getSimpleName());
+        this.singleFlight = context.createSingleFlight(getClass().getSimpleName());
+        this.circuitBreaker = context.createCircuitBreaker(getClass().getSimpleName());
+        this.bulkhead = context.createBulkhead(getClass().getSimpleName());
+        this.serverNodes = context.getServerNodes();
+        this.deadlineBudgets = context.getDeadlineBudgets();
+        this.hedging = context.createHedging(getClass().getSimpleName());
+        this.httpClient = context.getHttpClient();
+        this.streamStartTimeout = context.getStreamStartTimeout();
+        this.feedHttpClient = context.getFeedHttpClient();
+        this.feedSubscribers = context.getFeedSubscribers();
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, Long userId,
+                                                            @Nullable Map<String, Object> parameters) {
+        return get(path, userId, parameters, null);
+    }
+
+    // Entries are per user; the flight key carries the generation, so a GET after a write never joins an older call
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, Long userId,
+                                                            @Nullable Map<String, Object> parameters,
+                                                            @Nullable String ifNoneMatch) {
+        return get(path, userId, parameters, ifNoneMatch, false);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    private CompletableFuture<ResponseEntity<Object>> get(String path, Long userId,
+                                                          @Nullable Map<String, Object> parameters,
+                                                          @Nullable String ifNoneMatch, boolean detached) {
+        URI uri = expand(path, parameters);
+        String key = uri + "|" + userId;
+        String route = CacheGenerations.route(uri);
+        long now = System.nanoTime();
+
+        CachedResponse cached = cache.get(key, route);
+        if (cached != null && cached.isFresh(now)) {
+            cache.recordHit();
+            return CompletableFuture.completedFuture(respond(cached, ifNoneMatch));
+        }
+
+        long generation = cache.generation(route);
+        boolean revalidating = cached != null && cached.eTag() != null;
+        HttpHeaders headers = defaultHeaders(userId, uri);
+        String condition = revalidating ? cached.eTag() : ifNoneMatch;
+        if (condition != null) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, condition);
+        }
+
+        CompletableFuture<ResponseEntity<byte[]>> shared = singleFlight.execute(
+                key + "|" + condition + "|" + generation,
+                () -> (hedging != null)
+                        ? hedgedGet(uri, headers)
+                        : call(uri, HttpMethod.GET, headers, null, serverNodes.select(now), detached)
+        );
+        CompletableFuture<ResponseEntity<Object>> result = shared.thenApply(shareitServerResponse -> {
+            if (revalidating && shareitServerResponse.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                cache.recordRevalidation();
+                Long ttl = cache.ttlNanos(cached.headers(), cached.body().length);
+                CachedResponse refreshed = cached.withExpiresAt(now + ((ttl != null) ? ttl : 0));
+                cache.put(key, route, refreshed, generation);
+                return respond(refreshed, ifNoneMatch);
+            }
+
+            cache.recordMiss();
+            if (!shareitServerResponse.getStatusCode().isSameCodeAs(HttpStatus.OK)) {
+                return relay(shareitServerResponse.getStatusCode(), shareitServerResponse.getHeaders(),
+                        shareitServerResponse.getBody());
+            }
+
+            byte[] body = (shareitServerResponse.getBody() != null) ? shareitServerResponse.getBody() : new byte[0];
+            HttpHeaders responseHeaders = relayedHeaders(shareitServerResponse.getHeaders());
+            Long ttl = cache.ttlNanos(responseHeaders, body.length);
+            CachedResponse fetched = new CachedResponse(
+                    shareitServerResponse.getStatusCode(), responseHeaders, body, now + ((ttl != null) ? ttl : 0)
+            );
+            if (ttl != null) {
+                cache.put(key, route, fetched, generation);
+            }
+            return respond(fetched, ifNoneMatch);
+        });
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                shared.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    // Query values go in as template variables, so none of them is ever taken for a template
+    public CompletableFuture<ResponseEntity<Object>> forward(String path, MultiValueMap<String, String> query,
+                                                             Long userId, @Nullable String ifNoneMatch) {
+        StringBuilder template = new StringBuilder(path);
+        Map<String, Object> parameters = new HashMap<>();
+        query.forEach((name, values) -> values.forEach(value -> {
+            String variable = "p" + parameters.size();
+            template.append(parameters.isEmpty() ? '?' : '&').append(name).append("={").append(variable).append('}');
+            parameters.put(variable, value);
+        }));
+        return get(template.toString(), userId, parameters, ifNoneMatch, true);
+    }
+
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    // Relays a text/event-stream from the server chunk by chunk, with the status the server answered it with.
+    // Subscribers use the feed's own connection pool and count towards their node's load until they close; past the
+    // feed's subscriber cap, or while the breaker is open, they are refused with 503 at once
+    protected CompletableFuture<ResponseEntity<ResponseBodyEmitter>> stream(String path, Long userId,
+                                                                            long timeoutMillis) {
+        long now = System.nanoTime();
+        CircuitBreaker.Permit permit = circuitBreaker.tryAcquire(now);
+        if (permit == null) {
+            return CompletableFuture.completedFuture(
+                    emitted(unavailable("Server calls are suspended", circuitBreaker.retryAfterNanos(now)))
+            );
+        }
+        if (!feedSubscribers.tryAcquire()) {
+            permit.cancel();
+            return CompletableFuture.completedFuture(emitted(unavailable("Too many feed subscribers", 0)));
+        }
+
+        ServerNode node = serverNodes.select(now);
+        serverNodes.start(node);
+        URI uri = node.resolve(expand(path, null));
+        HttpGet request = new HttpGet(uri);
+        request.addHeader(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE);
+        if (userId != null) {
+            request.addHeader("X-Sharer-User-Id", String.valueOf(userId));
+        }
+
+        CompletableFuture<ResponseEntity<ResponseBodyEmitter>> result = new CompletableFuture<>();
+        Thread.ofVirtual().name("gateway-stream").start(() -> {
+            ClassicHttpResponse response;
+            try {
+                response = feedHttpClient.executeOpen(null, request, null);
+            } catch (IOException e) {
+                serverNodes.finish(node, true, System.nanoTime());
+                permit.complete(true, System.nanoTime());
+                feedSubscribers.release();
+                result.completeExceptionally(new ResourceAccessException(
+                        "I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e
+                ));
+                return;
+            }
 
-        ResponseEntity<Object> shareitServerResponse;
+            HttpStatusCode status = HttpStatusCode.valueOf(response.getCode());
+            permit.complete(status.is5xxServerError(), System.nanoTime());
+            HttpHeaders responseHeaders = relayedHeaders(headersOf(response));
+            ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeoutMillis);
+            AtomicBoolean closed = new AtomicBoolean();
+            Runnable close = () -> {
+                if (closed.compareAndSet(false, true)) {
+                    request.cancel();
+                    closeQuietly(response);
+                    serverNodes.finish(node, isNodeFailure(status), System.nanoTime());
+                    feedSubscribers.release();
+                }
+            };
+            emitter.onCompletion(close);
+            if (!result.complete(ResponseEntity.status(status).headers(responseHeaders).body(emitter))) {
+                close.run();
+                return;
+            }
+
+            MediaType contentType = (responseHeaders.getContentType() != null)
+                    ? responseHeaders.getContentType()
+                    : MediaType.TEXT_EVENT_STREAM;
+            byte[] buffer = new byte[8192];
+            try {
+                InputStream body = (response.getEntity() != null)
+                        ? response.getEntity().getContent()
+                        : InputStream.nullInputStream();
+                int read;
+                while ((read = body.read(buffer)) != -1) {
+                    emitter.send(Arrays.copyOf(buffer, read), contentType);
+                }
+                emitter.complete();
+            } catch (Exception e) {
+                emitter.completeWithError(e);
+            } finally {
+                close.run();
+            }
+        });
+        return result;
+    }
+
+    // Only the headers count towards the breaker and the node; the bulkhead slot is held until the body is relayed,
+    // or until the call is cancelled or its body is not started within the stream start timeout
+    protected CompletableFuture<ResponseEntity<StreamingResponseBody>> getStreamed(String path, Long userId,
+                                                                                @Nullable Map<String, Object> parameters) {
+        URI uri = expand(path, parameters);
+        HttpHeaders headers = defaultHeaders(userId, uri);
+        long now = System.nanoTime();
+        CircuitBreaker.Permit permit = circuitBreaker.tryAcquire(now);
+        if (permit == null) {
+            return CompletableFuture.completedFuture(
+                    buffered(unavailable("Server calls are suspended", circuitBreaker.retryAfterNanos(now)))
+            );
+        }
+        if (!bulkhead.tryAcquire()) {
+            permit.cancel();
+            return CompletableFuture.completedFuture(buffered(unavailable("Too many concurrent requests", 0)));
+        }
+
+        ServerNode node = serverNodes.select(now);
+        serverNodes.start(node);
+        HttpGet request = new HttpGet(node.resolve(uri));
+        headers.forEach((name, values) -> values.forEach(value -> request.addHeader(name, value)));
+        AtomicReference<ClassicHttpResponse> opened = new AtomicReference<>();
+        AtomicBoolean claimed = new AtomicBoolean();
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                ClassicHttpResponse response = opened.get();
+                if (response != null) {
+                    closeQuietly(response);
+                }
+                bulkhead.release();
+            }
+        };
+        Runnable abandon = () -> {
+            if (claimed.compareAndSet(false, true)) {
+                request.cancel();
+                release.run();
+            }
+        };
+
+        CompletableFuture<ResponseEntity<StreamingResponseBody>> result = new CompletableFuture<>();
+        Thread.ofVirtual().name("gateway-relay").start(() -> {
+            ClassicHttpResponse response;
+            try {
+                response = httpClient.executeOpen(null, request, null);
+            } catch (IOException e) {
+                if (claimed.get()) {
+                    serverNodes.cancel(node);
+                    permit.cancel();
+                } else {
+                    serverNodes.finish(node, true, System.nanoTime());
+                    permit.complete(true, System.nanoTime());
+                }
+                release.run();
+                result.completeExceptionally(new ResourceAccessException(
+                        "I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e
+                ));
+                return;
+            }
+            opened.set(response);
+
+            HttpStatusCode status = HttpStatusCode.valueOf(response.getCode());
+            serverNodes.finish(node, isNodeFailure(status), System.nanoTime());
+            permit.complete(status.is5xxServerError(), System.nanoTime());
+            if (released.get()) {
+                closeQuietly(response);
+            }
+            ResponseEntity<StreamingResponseBody> relayed = ResponseEntity.status(status)
+                    .headers(relayedHeaders(headersOf(response)))
+                    .body(outputStream -> {
+                        if (!claimed.compareAndSet(false, true)) {
+                            throw new IOException("The server response was abandoned before it was relayed");
+                        }
+                        boolean relayedAll = false;
+                        try {
+                            HttpEntity body = response.getEntity();
+                            if (body != null) {
+                                body.writeTo(outputStream);
+                            }
+                            relayedAll = true;
+                        } finally {
+                            if (!relayedAll) {
+                                request.cancel();
+                            }
+                            release.run();
+                        }
+                    });
+            if (result.complete(relayed)) {
+                CompletableFuture.delayedExecutor(streamStartTimeout.toNanos(), TimeUnit.NANOSECONDS).execute(abandon);
+            } else {
+                abandon.run();
+            }
+        });
+        result.whenComplete((relayed, error) -> {
+            if (result.isCancelled()) {
+                abandon.run();
+            }
+        });
+        return result;
+    }
+
+    // Any write, whether it succeeded or not, drops the cached responses of its route and of the routes embedding it
+    private <T> CompletableFuture<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        URI uri = expand(path, parameters);
+        return call(uri, method, defaultHeaders(userId, uri), body)
+                .whenComplete((shareitServerResponse, error) -> cache.invalidate(CacheGenerations.route(uri)))
+                .thenApply(shareitServerResponse -> relay(shareitServerResponse.getStatusCode(),
+                        shareitServerResponse.getHeaders(), shareitServerResponse.getBody()));
+    }
+
+    // Breaker, then bulkhead; a refusal from either is answered with 503 right away
+    private CompletableFuture<ResponseEntity<byte[]>> call(URI uri, HttpMethod method, HttpHeaders headers,
+                                                           @Nullable Object body) {
+        return call(uri, method, headers, body, serverNodes.select(System.nanoTime()), false);
+    }
+
+    private CompletableFuture<ResponseEntity<byte[]>> call(URI uri, HttpMethod method, HttpHeaders headers,
+                                                           @Nullable Object body, ServerNode node,
+                                                           boolean detached) {
+        long now = System.nanoTime();
+        CircuitBreaker.Permit permit = circuitBreaker.tryAcquire(now);
+        if (permit == null) {
+            return CompletableFuture.completedFuture(
+                    unavailable("Server calls are suspended", circuitBreaker.retryAfterNanos(now))
+            );
+        }
+        if (!bulkhead.tryAcquire()) {
+            permit.cancel();
+            return CompletableFuture.completedFuture(unavailable("Too many concurrent requests", 0));
+        }
+        return send(permit, uri, method, headers, body, node, detached);
+    }
+
+    // Cancelling the result abandons the call without counting it for the breaker or the node
+    private CompletableFuture<ResponseEntity<byte[]>> send(CircuitBreaker.Permit permit, URI uri, HttpMethod method,
+                                                           HttpHeaders headers, @Nullable Object body,
+                                                           ServerNode node, boolean detached) {
+        serverNodes.start(node);
+        CompletableFuture<ResponseEntity<byte[]>> response;
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+            response = detached
+                    ? exchange.exchangeDetached(node.resolve(uri), method, headers, body)
+                    : exchange.exchange(node.resolve(uri), method, headers, body);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        // Not derived from the response, so cancelling it cannot skip the release of the slot
+        CompletableFuture<ResponseEntity<byte[]>> result = new CompletableFuture<>();
+        response.whenComplete((shareitServerResponse, error) -> {
+            bulkhead.release();
+            if (error instanceof CancellationException) {
+                serverNodes.cancel(node);
+                permit.cancel();
+                result.completeExceptionally(error);
+                return;
+            }
+            serverNodes.finish(node, error != null || isNodeFailure(shareitServerResponse.getStatusCode()),
+                    System.nanoTime());
+            permit.complete(error != null || shareitServerResponse.getStatusCode().is5xxServerError(),
+                    System.nanoTime());
+            if (error != null) {
+                result.completeExceptionally(error);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                result.complete(shareitServerResponse);
             }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        });
+        CompletableFuture<ResponseEntity<byte[]>> source = response;
+        result.whenComplete((shareitServerResponse, error) -> {
+            if (result.isCancelled()) {
+                source.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    // The first healthy answer wins and the other call is cancelled; a failure counts once neither call can answer
+    private CompletableFuture<ResponseEntity<byte[]>> hedgedGet(URI uri, HttpHeaders headers) {
+        long now = System.nanoTime();
+        ServerNode node = serverNodes.select(now);
+        long delayNanos = hedging.delayNanos(now);
+        CompletableFuture<ResponseEntity<byte[]>> primary =
+                timed(call(uri, HttpMethod.GET, headers, null, node, true));
+        if (delayNanos < 0) {
+            return primary;
         }
-        return prepareGatewayResponse(shareitServerResponse);
+
+        CompletableFuture<ResponseEntity<byte[]>> result = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<ResponseEntity<byte[]>>> hedge = new AtomicReference<>();
+        primary.whenComplete((shareitServerResponse, error) -> {
+            if (isHealthy(shareitServerResponse, error)) {
+                result.complete(shareitServerResponse);
+            } else if (hedge.get() == null || hedge.get().isDone()) {
+                settle(result, shareitServerResponse, error);
+            }
+        });
+        CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS).execute(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            long hedgedAt = System.nanoTime();
+            HttpHeaders hedgeHeaders = remainingBudget(headers, hedgedAt - now, delayNanos);
+            ServerNode other = serverNodes.selectOther(node, hedgedAt);
+            if (hedgeHeaders == null || other == null || circuitBreaker.getState() != CircuitBreaker.State.CLOSED) {
+                return;
+            }
+            CircuitBreaker.Permit permit = circuitBreaker.tryAcquire(hedgedAt);
+            if (permit == null) {
+                return;
+            }
+            if (!bulkhead.tryAcquire()) {
+                permit.cancel();
+                return;
+            }
+            if (!hedging.tryHedge()) {
+                bulkhead.release();
+                permit.cancel();
+                return;
+            }
+            CompletableFuture<ResponseEntity<byte[]>> attempt = timed(
+                    send(permit, uri, HttpMethod.GET, hedgeHeaders, null, other, true)
+            );
+            hedge.set(attempt);
+            attempt.whenComplete((shareitServerResponse, error) -> {
+                if (isHealthy(shareitServerResponse, error)) {
+                    if (result.complete(shareitServerResponse)) {
+                        hedging.recordWon();
+                    }
+                } else if (primary.isDone()) {
+                    settle(result, shareitServerResponse, error);
+                }
+            });
+            if (result.isDone()) {
+                attempt.cancel(true);
+            }
+        });
+        result.whenComplete((shareitServerResponse, error) -> {
+            primary.cancel(true);
+            CompletableFuture<ResponseEntity<byte[]>> attempt = hedge.get();
+            if (attempt != null) {
+                attempt.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private static boolean isHealthy(@Nullable ResponseEntity<byte[]> response, @Nullable Throwable error) {
+        return error == null && !isNodeFailure(response.getStatusCode());
+    }
+
+    private static <T> void settle(CompletableFuture<T> result, @Nullable T response, @Nullable Throwable error) {
+        if (error != null) {
+            result.completeExceptionally(error);
+        } else {
+            result.complete(response);
+        }
+    }
+
+    // A hedge gives the server only what is left of the caller's budget, and is not sent with less than the delay
+    @Nullable
+    private static HttpHeaders remainingBudget(HttpHeaders headers, long elapsedNanos, long delayNanos) {
+        String budget = headers.getFirst(DeadlineBudgets.HEADER);
+        if (budget == null) {
+            return headers;
+        }
+        long remaining = Long.parseLong(budget) - TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        if (remaining <= 0 || remaining < TimeUnit.NANOSECONDS.toMillis(delayNanos)) {
+            return null;
+        }
+        HttpHeaders copy = new HttpHeaders();
+        copy.putAll(headers);
+        copy.set(DeadlineBudgets.HEADER, String.valueOf(remaining));
+        return copy;
+    }
+
+    // Calls that finish count towards the latency hedging waits for; abandoned ones do not
+    private CompletableFuture<ResponseEntity<byte[]>> timed(CompletableFuture<ResponseEntity<byte[]>> call) {
+        long start = System.nanoTime();
+        call.whenComplete((shareitServerResponse, error) -> {
+            if (!(error instanceof CancellationException)) {
+                long now = System.nanoTime();
+                hedging.record(now - start, now);
+            }
+        });
+        return call;
+    }
+
+    private static boolean isNodeFailure(HttpStatusCode status) {
+        return status.isSameCodeAs(HttpStatus.BAD_GATEWAY) || status.isSameCodeAs(HttpStatus.SERVICE_UNAVAILABLE)
+                || status.isSameCodeAs(HttpStatus.GATEWAY_TIMEOUT);
+    }
+
+    private static ResponseEntity<byte[]> unavailable(String reason, long retryAfterNanos) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (retryAfterNanos > 0) {
+            builder.header(HttpHeaders.RETRY_AFTER,
+                    String.valueOf(TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+        }
+        return builder.body(("{\"error\":\"" + reason + "\"}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> buffered(ResponseEntity<byte[]> response) {
+        byte[] body = response.getBody();
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .body(outputStream -> outputStream.write((body != null) ? body : new byte[0]));
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
+    private static ResponseEntity<ResponseBodyEmitter> emitted(ResponseEntity<byte[]> response) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        try {
+            emitter.send((response.getBody() != null) ? response.getBody() : new byte[0],
+                    response.getHeaders().getContentType());
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return ResponseEntity.status(response.getStatusCode()).headers(response.getHeaders()).body(emitter);
+    }
+
+    private static HttpHeaders headersOf(ClassicHttpResponse response) {
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
-        if (userId != null) {
-            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        for (Header header : response.getHeaders()) {
+            headers.add(header.getName(), header.getValue());
         }
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    // Closing an unread response reads the rest of it first, unless its request was cancelled beforehand
+    private static void closeQuietly(ClassicHttpResponse response) {
+        try {
+            response.close();
+        } catch (IOException ignored) {
+            // the connection is dropped either way
         }
+    }
+
+    private URI expand(String path, @Nullable Map<String, Object> parameters) {
+        return (parameters != null)
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+    }
+
+    // Server responses are read as bytes and written back as they are, never parsed into maps and serialized again
+    private static ResponseEntity<Object> relay(HttpStatusCode status, @Nullable HttpHeaders headers,
+                                                @Nullable byte[] body) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(status).headers(relayedHeaders(headers));
+        return (body == null || body.length == 0) ? builder.build() : builder.body(body);
+    }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    private static HttpHeaders relayedHeaders(@Nullable HttpHeaders headers) {
+        HttpHeaders relayed = new HttpHeaders();
+        if (headers == null) {
+            return relayed;
+        }
+        RELAYED_HEADERS.forEach(name -> {
+            List<String> values = headers.get(name);
+            if (values != null) {
+                relayed.put(name, values);
+            }
+        });
+        return relayed;
+    }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    private static ResponseEntity<Object> respond(CachedResponse response, @Nullable String ifNoneMatch) {
+        if (ifNoneMatch != null && response.eTag() != null && matches(ifNoneMatch, response.eTag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(response.eTag()).build();
         }
+        return response.toResponseEntity();
+    }
 
-        return responseBuilder.build();
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .anyMatch(candidate -> candidate.equals("*") || candidate.equals(eTag));
+    }
+
+    // The server gives up on a call once its budget has passed, as the caller will have by then
+    private HttpHeaders defaultHeaders(Long userId, URI uri) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        if (userId != null) {
+            headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        }
+        Duration budget = deadlineBudgets.budget(uri);
+        if (budget != null) {
+            headers.set(DeadlineBudgets.HEADER, String.valueOf(budget.toMillis()));
+        }
+        return headers;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+// Runs the request on the calling thread and hands back an already completed future
+class BlockingServerExchange implements ServerExchange {
+
+    private final RestTemplate rest;
+
+    BlockingServerExchange(RestTemplate rest) {
+        this.rest = rest;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(URI uri, HttpMethod method, HttpHeaders headers,
+                                                              @Nullable Object body) {
+        try {
+            return CompletableFuture.completedFuture(
+                    rest.exchange(uri, method, new HttpEntity<>(body, headers), byte[].class)
+            );
+        } catch (HttpStatusCodeException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(e.getStatusCode())
+                    .headers(e.getResponseHeaders())
+                    .body(e.getResponseBodyAsByteArray()));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // Interrupting a virtual thread blocked on a socket closes it, so a half-read connection never returns to the pool
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchangeDetached(URI uri, HttpMethod method, HttpHeaders headers,
+                                                                      @Nullable Object body) {
+        CompletableFuture<ResponseEntity<byte[]>> result = new CompletableFuture<>();
+        Thread thread = Thread.ofVirtual().name("gateway-exchange").unstarted(() ->
+                exchange(uri, method, headers, body).whenComplete((response, error) -> {
+                    if (error != null) {
+                        result.completeExceptionally(error);
+                    } else {
+                        result.complete(response);
+                    }
+                }));
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                thread.interrupt();
+            }
+        });
+        thread.start();
+        return result;
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.Semaphore;
+
+// Caps the calls one client has in flight; calls beyond the cap are refused at once, not queued
+public class Bulkhead {
+
+    private final int maxConcurrent;
+    private final Semaphore permits;
+    private final Counter rejected;
+
+    public Bulkhead(String client, int maxConcurrent, MeterRegistry meterRegistry) {
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(maxConcurrent);
+        this.rejected = Counter.builder("shareit.gateway.bulkhead.rejected")
+                .tag("client", client)
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.bulkhead.in-use", this, Bulkhead::inUse)
+                .tag("client", client)
+                .register(meterRegistry);
+    }
+
+    public boolean tryAcquire() {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    private double inUse() {
+        return maxConcurrent - permits.availablePermits();
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.client;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// One generation per first segment of the path, shared by the caches of all clients. A write moves the generation
+// of its own route and of the routes whose responses embed what it wrote
+public class CacheGenerations {
+
+    // Bookings carry their item and booker, items their bookings and comment authors, requests their requestor and items
+    private static final Map<String, Set<String>> EMBEDDED_IN = Map.of(
+            "users", Set.of("items", "bookings", "requests"),
+            "items", Set.of("bookings", "requests"),
+            "bookings", Set.of("items")
+    );
+
+    private final ConcurrentMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public long current(String route) {
+        return generation(route).get();
+    }
+
+    public void advance(String route) {
+        generation(route).incrementAndGet();
+        EMBEDDED_IN.getOrDefault(route, Set.of()).forEach(embedding -> generation(embedding).incrementAndGet());
+    }
+
+    public static String route(URI uri) {
+        String path = uri.getPath();
+        int start = path.startsWith("/") ? 1 : 0;
+        int end = path.indexOf('/', start);
+        return path.substring(start, (end < 0) ? path.length() : end);
+    }
+
+    private AtomicLong generation(String route) {
+        return generations.computeIfAbsent(route, r -> new AtomicLong());
+    }
+}
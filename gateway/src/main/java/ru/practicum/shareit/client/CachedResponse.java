@@ -0,0 +1,25 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+
+// Raw server response as it went over the wire, replayed without being parsed again
+public record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, long expiresAt) {
+
+    public boolean isFresh(long now) {
+        return now - expiresAt < 0;
+    }
+
+    public String eTag() {
+        return headers.getETag();
+    }
+
+    public CachedResponse withExpiresAt(long expiresAt) {
+        return new CachedResponse(status, headers, body, expiresAt);
+    }
+
+    public ResponseEntity<Object> toResponseEntity() {
+        return ResponseEntity.status(status).headers(headers).body(body);
+    }
+}
@@ -0,0 +1,158 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+
+// Opens once too many of a client's last calls failed or were slow; after the open period a few probes decide
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final boolean enabled;
+    private final boolean[] window;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenProbes;
+
+    private final Counter rejected;
+
+    private State state = State.CLOSED;
+    // Results of calls admitted before a state change are ignored
+    private long epoch;
+    private int windowIndex;
+    private int calls;
+    private int failures;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    public CircuitBreaker(String client, boolean enabled, int windowSize, int minimumCalls,
+                          double failureRateThreshold, Duration slowCallThreshold, Duration openDuration,
+                          int halfOpenProbes, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallNanos = slowCallThreshold.toNanos();
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenProbes = halfOpenProbes;
+
+        this.rejected = Counter.builder("shareit.gateway.circuit.rejected")
+                .tag("client", client)
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.circuit.state", this, breaker -> breaker.getState().ordinal())
+                .tag("client", client)
+                .description("0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+    }
+
+    // Returns null when the call is refused; otherwise the caller must complete or cancel the permit
+    @Nullable
+    public synchronized Permit tryAcquire(long now) {
+        if (!enabled || state == State.CLOSED) {
+            return new Permit(epoch, false, now);
+        }
+        if (state == State.OPEN && now - openedAt >= openNanos) {
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN && probesStarted < halfOpenProbes) {
+            probesStarted++;
+            return new Permit(epoch, true, now);
+        }
+        rejected.increment();
+        return null;
+    }
+
+    // How long a refused caller should wait before trying again
+    public synchronized long retryAfterNanos(long now) {
+        return (state == State.OPEN) ? Math.max(0, openNanos - (now - openedAt)) : 0;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    // A call that took longer than the slow-call threshold counts as failed even if it succeeded in the end
+    private synchronized void complete(Permit permit, boolean failed, long now) {
+        if (!enabled || permit.epoch != epoch) {
+            return;
+        }
+        failed |= now - permit.startedAt > slowCallNanos;
+        if (state == State.HALF_OPEN) {
+            if (failed) {
+                open(now);
+            } else if (++probesSucceeded >= halfOpenProbes) {
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        if (state != State.CLOSED) {
+            return;
+        }
+
+        if (calls == window.length) {
+            failures -= window[windowIndex] ? 1 : 0;
+        } else {
+            calls++;
+        }
+        window[windowIndex] = failed;
+        failures += failed ? 1 : 0;
+        windowIndex = (windowIndex + 1) % window.length;
+        if (calls >= minimumCalls && failures >= failureRateThreshold * calls) {
+            open(now);
+        }
+    }
+
+    private synchronized void cancel(Permit permit) {
+        if (permit.epoch == epoch && permit.probe) {
+            probesStarted--;
+        }
+    }
+
+    private void open(long now) {
+        transition(State.OPEN);
+        openedAt = now;
+    }
+
+    private void transition(State next) {
+        state = next;
+        epoch++;
+        windowIndex = 0;
+        calls = 0;
+        failures = 0;
+        probesStarted = 0;
+        probesSucceeded = 0;
+    }
+
+    public final class Permit {
+
+        private final long epoch;
+        private final boolean probe;
+        private final long startedAt;
+
+        private Permit(long epoch, boolean probe, long startedAt) {
+            this.epoch = epoch;
+            this.probe = probe;
+            this.startedAt = startedAt;
+        }
+
+        public void complete(boolean failed, long now) {
+            CircuitBreaker.this.complete(this, failed, now);
+        }
+
+        // The call was never made, e.g. because the bulkhead turned it away, or was abandoned before it finished
+        public void cancel() {
+            CircuitBreaker.this.cancel(this);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class CircuitBreakerFactory {
+
+    private final boolean enabled;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final Duration slowCallThreshold;
+    private final Duration openDuration;
+    private final int halfOpenProbes;
+    private final MeterRegistry meterRegistry;
+
+    public CircuitBreakerFactory(@Value("${shareit-gateway.circuit-breaker.enabled:true}") boolean enabled,
+                                 @Value("${shareit-gateway.circuit-breaker.window-size:20}") int windowSize,
+                                 @Value("${shareit-gateway.circuit-breaker.minimum-calls:10}") int minimumCalls,
+                                 @Value("${shareit-gateway.circuit-breaker.failure-rate:0.5}") double failureRateThreshold,
+                                 @Value("${shareit-gateway.circuit-breaker.slow-call-threshold:5s}") Duration slowCallThreshold,
+                                 @Value("${shareit-gateway.circuit-breaker.open-duration:10s}") Duration openDuration,
+                                 @Value("${shareit-gateway.circuit-breaker.half-open-probes:3}") int halfOpenProbes,
+                                 MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallThreshold = slowCallThreshold;
+        this.openDuration = openDuration;
+        this.halfOpenProbes = halfOpenProbes;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public CircuitBreaker create(String client) {
+        return new CircuitBreaker(client, enabled, windowSize, minimumCalls, failureRateThreshold,
+                slowCallThreshold, openDuration, halfOpenProbes, meterRegistry);
+    }
+}
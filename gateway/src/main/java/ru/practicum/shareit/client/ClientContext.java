@@ -0,0 +1,112 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+// Everything a BaseClient needs besides its RestTemplate, so adding a client-side feature does not change the
+// constructor of every client
+@Component
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ClientContext {
+
+    ResponseCacheFactory responseCacheFactory;
+    CircuitBreakerFactory circuitBreakerFactory;
+    HedgingFactory hedgingFactory;
+    ServerNodes serverNodes;
+    DeadlineBudgets deadlineBudgets;
+    MeterRegistry meterRegistry;
+    ObjectMapper objectMapper;
+    boolean coalescingEnabled;
+    boolean smileEnabled;
+    int bulkheadMaxConcurrent;
+    @Nullable
+    CloseableHttpAsyncClient asyncHttpClient;
+    CloseableHttpClient httpClient;
+    Duration streamStartTimeout;
+    CloseableHttpClient feedHttpClient;
+    Bulkhead feedSubscribers;
+
+    public ClientContext(ResponseCacheFactory responseCacheFactory,
+                         CircuitBreakerFactory circuitBreakerFactory,
+                         HedgingFactory hedgingFactory,
+                         ServerNodes serverNodes,
+                         DeadlineBudgets deadlineBudgets,
+                         MeterRegistry meterRegistry,
+                         ObjectMapper objectMapper,
+                         @Value("${shareit-gateway.coalescing.enabled:true}") boolean coalescingEnabled,
+                         @Value("${shareit-gateway.wire-format.smile.enabled:false}") boolean smileEnabled,
+                         @Value("${shareit-gateway.bulkhead.max-concurrent:0}") int bulkheadMaxConcurrent,
+                         @Value("${shareit-gateway.http.max-total:200}") int maxTotal,
+                         @Value("${shareit-gateway.http.async.max-total:2000}") int asyncMaxTotal,
+                         ObjectProvider<CloseableHttpAsyncClient> asyncHttpClient,
+                         CloseableHttpClient shareitServerHttpClient,
+                         @Value("${shareit-gateway.streaming.start-timeout:${spring.mvc.async.request-timeout:3m}}")
+                         Duration streamStartTimeout,
+                         @Qualifier("shareitServerFeedHttpClient") CloseableHttpClient feedHttpClient,
+                         @Value("${shareit-gateway.feed.max-subscribers:100}") int feedMaxSubscribers) {
+        this.responseCacheFactory = responseCacheFactory;
+        this.circuitBreakerFactory = circuitBreakerFactory;
+        this.hedgingFactory = hedgingFactory;
+        this.serverNodes = serverNodes;
+        this.deadlineBudgets = deadlineBudgets;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        this.coalescingEnabled = coalescingEnabled;
+        this.smileEnabled = smileEnabled;
+        this.asyncHttpClient = asyncHttpClient.getIfAvailable();
+        this.bulkheadMaxConcurrent = (bulkheadMaxConcurrent > 0)
+                ? bulkheadMaxConcurrent
+                : (this.asyncHttpClient != null) ? asyncMaxTotal : maxTotal;
+        this.httpClient = shareitServerHttpClient;
+        this.streamStartTimeout = streamStartTimeout;
+        this.feedHttpClient = feedHttpClient;
+        this.feedSubscribers = new Bulkhead("feed", feedMaxSubscribers, meterRegistry);
+    }
+
+    // The async client only exists when shareit-gateway.http.async.enabled is set; otherwise requests go through
+    // the client's RestTemplate on the calling thread. Either way, responses can come from the server in Smile
+    ServerExchange createExchange(RestTemplate rest) {
+        ServerExchange exchange = (asyncHttpClient != null)
+                ? new AsyncServerExchange(asyncHttpClient, objectMapper)
+                : new BlockingServerExchange(rest);
+        return smileEnabled ? new SmileServerExchange(exchange, objectMapper.getFactory()) : exchange;
+    }
+
+    public ResponseCache createCache(String client) {
+        return responseCacheFactory.create(client);
+    }
+
+    public SingleFlight<ResponseEntity<byte[]>> createSingleFlight(String client) {
+        return new SingleFlight<>(client, coalescingEnabled, meterRegistry);
+    }
+
+    public CircuitBreaker createCircuitBreaker(String client) {
+        return circuitBreakerFactory.create(client);
+    }
+
+    @Nullable
+    public Hedging createHedging(String client) {
+        return hedgingFactory.create(client);
+    }
+
+    // Unless set, each client may hold as many calls as the active connection pool has connections: in async mode
+    // that is the large pool the non-blocking path exists for, not the blocking one's
+    public Bulkhead createBulkhead(String client) {
+        return new Bulkhead(client, bulkheadMaxConcurrent, meterRegistry);
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+
+// How long the server may work on a call before nobody is waiting for its answer, by the first segment of the path,
+// e.g. shareit-gateway.deadline.budget.items=3s; other paths get the default budget. The budget travels as a
+// relative timeout rather than an instant, so gateway and server clocks need not agree
+@Component
+public class DeadlineBudgets {
+
+    public static final String HEADER = "X-Request-Timeout-Ms";
+
+    private final boolean enabled;
+    private final Duration defaultBudget;
+    private final Map<String, Duration> budgets;
+
+    public DeadlineBudgets(@Value("${shareit-gateway.deadline.enabled:true}") boolean enabled,
+                           @Value("${shareit-gateway.deadline.default-budget:5s}") Duration defaultBudget,
+                           Environment environment) {
+        this.enabled = enabled;
+        this.defaultBudget = defaultBudget;
+        this.budgets = Binder.get(environment)
+                .bind("shareit-gateway.deadline.budget", Bindable.mapOf(String.class, Duration.class))
+                .orElse(Map.of());
+    }
+
+    @Nullable
+    public Duration budget(URI uri) {
+        if (!enabled) {
+            return null;
+        }
+        return budgets.getOrDefault(CacheGenerations.route(uri), defaultBudget);
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// A GET slower than the given percentile of recent calls is sent again while hedges stay within their budget
+public class Hedging {
+
+    // Budget is kept in thousandths of a hedge
+    private static final long HEDGE_COST = 1000;
+    private static final int MIN_SAMPLES = 100;
+
+    private final double percentile;
+    private final long minDelayNanos;
+    private final long budgetPerCall;
+    private final long maxBudget;
+    private final LatencyTracker latencies;
+    private final AtomicLong budget = new AtomicLong();
+    private final Counter sent;
+    private final Counter won;
+    private final Counter throttled;
+
+    public Hedging(String client, double percentile, double budgetRatio, long minDelayNanos, long windowNanos,
+                   MeterRegistry meterRegistry) {
+        this.percentile = percentile;
+        this.minDelayNanos = minDelayNanos;
+        this.budgetPerCall = Math.round(budgetRatio * HEDGE_COST);
+        this.maxBudget = 10 * HEDGE_COST;
+        this.latencies = new LatencyTracker(windowNanos, System.nanoTime());
+        this.sent = Counter.builder("shareit.gateway.hedge.sent")
+                .tag("client", client)
+                .register(meterRegistry);
+        this.won = Counter.builder("shareit.gateway.hedge.won")
+                .tag("client", client)
+                .register(meterRegistry);
+        this.throttled = Counter.builder("shareit.gateway.hedge.throttled")
+                .tag("client", client)
+                .register(meterRegistry);
+    }
+
+    // How long to wait for a GET before hedging it, or -1 until enough calls have been seen to tell
+    public long delayNanos(long now) {
+        budget.getAndUpdate(current -> Math.min(maxBudget, current + budgetPerCall));
+        long delay = latencies.percentile(percentile, MIN_SAMPLES, now);
+        return (delay < 0) ? -1 : Math.max(minDelayNanos, delay);
+    }
+
+    public void record(long latencyNanos, long now) {
+        latencies.record(latencyNanos, now);
+    }
+
+    public boolean tryHedge() {
+        long current;
+        do {
+            current = budget.get();
+            if (current < HEDGE_COST) {
+                throttled.increment();
+                return false;
+            }
+        } while (!budget.compareAndSet(current, current - HEDGE_COST));
+        sent.increment();
+        return true;
+    }
+
+    public void recordWon() {
+        won.increment();
+    }
+}
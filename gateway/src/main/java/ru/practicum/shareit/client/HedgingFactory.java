@@ -0,0 +1,41 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+public class HedgingFactory {
+
+    private final boolean enabled;
+    private final double percentile;
+    private final double budget;
+    private final Duration minDelay;
+    private final Duration window;
+    private final MeterRegistry meterRegistry;
+
+    public HedgingFactory(@Value("${shareit-gateway.hedging.enabled:false}") boolean enabled,
+                          @Value("${shareit-gateway.hedging.percentile:0.95}") double percentile,
+                          @Value("${shareit-gateway.hedging.budget:0.05}") double budget,
+                          @Value("${shareit-gateway.hedging.min-delay:10ms}") Duration minDelay,
+                          @Value("${shareit-gateway.hedging.window:30s}") Duration window,
+                          MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.budget = budget;
+        this.minDelay = minDelay;
+        this.window = window;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Without hedging, GETs take the same path as every other call
+    @Nullable
+    public Hedging create(String client) {
+        return enabled
+                ? new Hedging(client, percentile, budget, minDelay.toNanos(), window.toNanos(), meterRegistry)
+                : null;
+    }
+}
@@ -0,0 +1,156 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.ConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.time.Duration;
+import java.util.function.ToDoubleFunction;
+
+// One connection pool for every client: they all talk to the same server, so separate pools only split the
+// connections between them. Feed subscriptions are the exception: each holds a connection for as long as it lasts,
+// so they get a pool of their own and cannot starve ordinary calls
+@Configuration
+public class HttpClientConfig {
+
+    @Bean
+    public PoolingHttpClientConnectionManager shareitServerConnectionManager(
+            @Value("${shareit-gateway.http.max-total:200}") int maxTotal,
+            @Value("${shareit-gateway.http.max-per-route:200}") int maxPerRoute,
+            @Value("${shareit-gateway.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${shareit-gateway.http.validate-after-inactivity:2s}") Duration validateAfterInactivity,
+            MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setValidateAfterInactivity(TimeValue.of(validateAfterInactivity))
+                        .build())
+                .build();
+
+        poolGauge(meterRegistry, "classic", connectionManager, "leased", PoolStats::getLeased);
+        poolGauge(meterRegistry, "classic", connectionManager, "pending", PoolStats::getPending);
+        poolGauge(meterRegistry, "classic", connectionManager, "available", PoolStats::getAvailable);
+        poolGauge(meterRegistry, "classic", connectionManager, "max", PoolStats::getMax);
+        return connectionManager;
+    }
+
+    // Connections are reused for the keep-alive period unless the server asks for less, and idle ones are closed
+    // in the background so a quiet gateway does not hold sockets the server has already given up on
+    @Bean(destroyMethod = "close")
+    @Primary
+    public CloseableHttpClient shareitServerHttpClient(
+            PoolingHttpClientConnectionManager shareitServerConnectionManager,
+            @Value("${shareit-gateway.http.keep-alive:30s}") Duration keepAlive,
+            @Value("${shareit-gateway.http.evict-idle-after:30s}") Duration evictIdleAfter) {
+        return HttpClients.custom()
+                .setConnectionManager(shareitServerConnectionManager)
+                .setKeepAliveStrategy(cappedKeepAlive(keepAlive))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(evictIdleAfter))
+                .build();
+    }
+
+    // Sized to shareit-gateway.feed.max-subscribers, which refuses subscribers beyond it, so nobody waits for a lease
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient shareitServerFeedHttpClient(
+            @Value("${shareit-gateway.feed.max-subscribers:100}") int maxSubscribers,
+            @Value("${shareit-gateway.http.connect-timeout:2s}") Duration connectTimeout,
+            MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxSubscribers)
+                .setMaxConnPerRoute(maxSubscribers)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .build())
+                .build();
+
+        poolGauge(meterRegistry, "feed", connectionManager, "leased", PoolStats::getLeased);
+        poolGauge(meterRegistry, "feed", connectionManager, "max", PoolStats::getMax);
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .build();
+    }
+
+    // The non-blocking path: a few I/O threads multiplex every connection, and requests beyond the pool size wait
+    // for a connection as pending futures rather than as blocked threads, so the pool can be made much larger
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "shareit-gateway.http.async.enabled", havingValue = "true")
+    public CloseableHttpAsyncClient shareitServerAsyncHttpClient(
+            @Value("${shareit-gateway.http.async.max-total:2000}") int maxTotal,
+            @Value("${shareit-gateway.http.async.io-threads:2}") int ioThreads,
+            @Value("${shareit-gateway.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${shareit-gateway.http.validate-after-inactivity:2s}") Duration validateAfterInactivity,
+            @Value("${shareit-gateway.http.keep-alive:30s}") Duration keepAlive,
+            @Value("${shareit-gateway.http.evict-idle-after:30s}") Duration evictIdleAfter,
+            MeterRegistry meterRegistry) {
+        PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxTotal)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setValidateAfterInactivity(TimeValue.of(validateAfterInactivity))
+                        .build())
+                .build();
+
+        poolGauge(meterRegistry, "async", connectionManager, "leased", PoolStats::getLeased);
+        poolGauge(meterRegistry, "async", connectionManager, "pending", PoolStats::getPending);
+        poolGauge(meterRegistry, "async", connectionManager, "available", PoolStats::getAvailable);
+        poolGauge(meterRegistry, "async", connectionManager, "max", PoolStats::getMax);
+
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setIOReactorConfig(IOReactorConfig.custom().setIoThreadCount(ioThreads).build())
+                .setKeepAliveStrategy(cappedKeepAlive(keepAlive))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(evictIdleAfter))
+                .build();
+        client.start();
+        return client;
+    }
+
+    @Bean
+    public ClientHttpRequestFactory shareitServerRequestFactory(CloseableHttpClient shareitServerHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(shareitServerHttpClient);
+    }
+
+    private static ConnectionKeepAliveStrategy cappedKeepAlive(Duration keepAlive) {
+        TimeValue maxKeepAlive = TimeValue.of(keepAlive);
+        return (response, context) -> {
+            TimeValue requested = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return (requested.compareTo(maxKeepAlive) < 0) ? requested : maxKeepAlive;
+        };
+    }
+
+    private static void poolGauge(MeterRegistry meterRegistry, String pool, ConnPoolControl<?> connectionManager,
+                                  String state, ToDoubleFunction<PoolStats> value) {
+        Gauge.builder("shareit.gateway.http.pool.connections", connectionManager,
+                        manager -> value.applyAsDouble(manager.getTotalStats()))
+                .tag("pool", pool)
+                .tag("state", state)
+                .register(meterRegistry);
+    }
+}
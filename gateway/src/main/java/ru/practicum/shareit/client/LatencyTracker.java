@@ -0,0 +1,79 @@
+package ru.practicum.shareit.client;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Recent latencies in buckets a quarter wider than the one before, over the current and the previous window
+class LatencyTracker {
+
+    private static final int BUCKETS = 64;
+    private static final long BASE_NANOS = 100_000;
+    private static final double GROWTH = 1.25;
+
+    private final long windowNanos;
+    private volatile AtomicLongArray current = new AtomicLongArray(BUCKETS);
+    private volatile AtomicLongArray previous = new AtomicLongArray(BUCKETS);
+    private volatile long windowStart;
+
+    LatencyTracker(long windowNanos, long now) {
+        this.windowNanos = windowNanos;
+        this.windowStart = now;
+    }
+
+    void record(long latencyNanos, long now) {
+        rotate(now);
+        current.incrementAndGet(bucket(latencyNanos));
+    }
+
+    // The upper bound of the bucket holding the given percentile, or -1 with fewer than minSamples calls counted
+    long percentile(double percentile, int minSamples, long now) {
+        rotate(now);
+        AtomicLongArray recent = current;
+        AtomicLongArray older = previous;
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = recent.get(i) + older.get(i);
+            total += counts[i];
+        }
+        if (total < minSamples) {
+            return -1;
+        }
+
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    private void rotate(long now) {
+        if (now - windowStart < windowNanos) {
+            return;
+        }
+        synchronized (this) {
+            if (now - windowStart < windowNanos) {
+                return;
+            }
+            // A whole window without calls leaves nothing worth keeping
+            previous = (now - windowStart < 2 * windowNanos) ? current : new AtomicLongArray(BUCKETS);
+            current = new AtomicLongArray(BUCKETS);
+            windowStart = now;
+        }
+    }
+
+    private static int bucket(long latencyNanos) {
+        if (latencyNanos <= BASE_NANOS) {
+            return 0;
+        }
+        int bucket = (int) Math.ceil(Math.log((double) latencyNanos / BASE_NANOS) / Math.log(GROWTH));
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    private static long upperBound(int bucket) {
+        return (long) (BASE_NANOS * Math.pow(GROWTH, bucket));
+    }
+}
@@ -0,0 +1,147 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+// GET responses of one client, oldest evicted first; a write through any client hides the older entries of the routes
+// it touches
+public class ResponseCache {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final long maxBodySize;
+    private final CacheGenerations generations;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter revalidations;
+
+    public ResponseCache(String client, int maxEntries, Duration ttl, long maxBodySize, CacheGenerations generations,
+                         MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.maxBodySize = maxBodySize;
+        this.generations = generations;
+
+        this.hits = counter(meterRegistry, client, "hit");
+        this.misses = counter(meterRegistry, client, "miss");
+        this.revalidations = counter(meterRegistry, client, "revalidated");
+        Gauge.builder("shareit.gateway.cache.hit.ratio", this, ResponseCache::hitRatio)
+                .tag("client", client)
+                .register(meterRegistry);
+        Gauge.builder("shareit.gateway.cache.size", this, ResponseCache::size)
+                .tag("client", client)
+                .register(meterRegistry);
+    }
+
+    public CachedResponse get(String key, String route) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.generation() != generations.current(route)) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.response();
+    }
+
+    public long generation(String route) {
+        return generations.current(route);
+    }
+
+    // An invalidation racing with this put leaves an entry of the old generation, which get never returns
+    public void put(String key, String route, CachedResponse response, long fetchedAt) {
+        if (maxEntries == 0 || fetchedAt != generations.current(route)) {
+            return;
+        }
+        if (entries.put(key, new Entry(fetchedAt, response)) == null) {
+            insertionOrder.add(key);
+        }
+        while (entries.size() > maxEntries) {
+            String eldest = insertionOrder.poll();
+            if (eldest == null) {
+                break;
+            }
+            entries.remove(eldest);
+        }
+    }
+
+    // Entries of other routes stay; hidden ones are dropped when next looked up or evicted
+    public void invalidate(String route) {
+        generations.advance(route);
+    }
+
+    // Null when the response must not be stored. Only a max-age, capped by the configured TTL, makes an entry fresh;
+    // without one the entry is kept only with an ETag, to revalidate, since answers like the current bookings change
+    // as time passes without any write to invalidate them
+    public Long ttlNanos(HttpHeaders headers, int bodySize) {
+        if (bodySize > maxBodySize) {
+            return null;
+        }
+
+        long ttl = 0;
+        boolean noCache = false;
+        for (String directive : headers.getCacheControl() == null ? new String[0] : headers.getCacheControl().split(",")) {
+            String value = directive.trim().toLowerCase(Locale.ROOT);
+            if (value.equals("no-store")) {
+                return null;
+            } else if (value.equals("no-cache")) {
+                noCache = true;
+            } else if (value.startsWith("max-age=")) {
+                try {
+                    ttl = Math.min(ttlNanos, Duration.ofSeconds(Long.parseLong(value.substring("max-age=".length()))).toNanos());
+                } catch (NumberFormatException e) {
+                    ttl = 0;
+                }
+            }
+        }
+        if (noCache) {
+            ttl = 0;
+        }
+        return (ttl <= 0 && headers.getETag() == null) ? null : Math.max(ttl, 0);
+    }
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public void recordRevalidation() {
+        revalidations.increment();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private double hitRatio() {
+        double served = hits.count() + revalidations.count();
+        double total = served + misses.count();
+        return (total == 0) ? 0 : served / total;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String client, String result) {
+        return Counter.builder("shareit.gateway.cache.requests")
+                .tag("client", client)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Entry(long generation, CachedResponse response) {
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Component
+public class ResponseCacheFactory {
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final Duration ttl;
+    private final DataSize maxBodySize;
+    private final MeterRegistry meterRegistry;
+    private final CacheGenerations generations = new CacheGenerations();
+
+    public ResponseCacheFactory(@Value("${shareit-gateway.cache.enabled:true}") boolean enabled,
+                                @Value("${shareit-gateway.cache.max-entries:10000}") int maxEntries,
+                                @Value("${shareit-gateway.cache.ttl:5s}") Duration ttl,
+                                @Value("${shareit-gateway.cache.max-body-size:256KB}") DataSize maxBodySize,
+                                MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.maxBodySize = maxBodySize;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Responses of one client embed the resources of others, so all clients share the generations
+    public ResponseCache create(String client) {
+        return new ResponseCache(client, enabled ? maxEntries : 0, ttl, maxBodySize.toBytes(), generations,
+                meterRegistry);
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+// Sends one request to the server. Every response comes back as a value, error statuses included; only failing
+// to get a response at all completes the future exceptionally
+interface ServerExchange {
+
+    CompletableFuture<ResponseEntity<byte[]>> exchange(URI uri, HttpMethod method, HttpHeaders headers,
+                                                       @Nullable Object body);
+
+    // Like exchange, but never holds up the calling thread, and cancelling the future abandons the request
+    default CompletableFuture<ResponseEntity<byte[]>> exchangeDetached(URI uri, HttpMethod method,
+                                                                       HttpHeaders headers, @Nullable Object body) {
+        return exchange(uri, method, headers, body);
+    }
+}
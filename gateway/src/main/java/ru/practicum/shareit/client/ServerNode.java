@@ -0,0 +1,70 @@
+package ru.practicum.shareit.client;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// One server instance: its calls in flight, its last health check and whether it is ejected
+public class ServerNode {
+
+    private final String baseUrl;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile boolean healthy = true;
+    private volatile boolean ejected;
+    private volatile long ejectedUntil;
+
+    public ServerNode(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    // Clients expand their paths without a host; the node supplies it
+    public URI resolve(URI relative) {
+        return URI.create(baseUrl + relative);
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    public boolean isAvailable(long now) {
+        return healthy && (!ejected || now - ejectedUntil >= 0);
+    }
+
+    void start() {
+        outstanding.incrementAndGet();
+    }
+
+    // The call was abandoned, e.g. because a hedge answered first, and says nothing about the node
+    void cancel() {
+        outstanding.decrementAndGet();
+    }
+
+    // Returns true when this failure got the node ejected
+    boolean finish(boolean failed, int maxConsecutiveFailures, long ejectionNanos, long now) {
+        outstanding.decrementAndGet();
+        if (!failed) {
+            consecutiveFailures.set(0);
+            ejected = false;
+            return false;
+        }
+        if (consecutiveFailures.incrementAndGet() < maxConsecutiveFailures) {
+            return false;
+        }
+        consecutiveFailures.set(0);
+        ejectedUntil = now + ejectionNanos;
+        ejected = true;
+        return true;
+    }
+
+    void setHealthy(boolean healthy) {
+        this.healthy = healthy;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+}
@@ -0,0 +1,165 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// The server instances listed in shareit-server.url. Each call goes to the less busy of two randomly picked
+// available nodes (power of two choices), which keeps load even without the herding of always picking the least
+// busy one. A node is left out while its health check fails or after too many failed calls in a row; if no node is
+// available, calls are spread over all of them rather than refused
+@Slf4j
+@Component
+public class ServerNodes {
+
+    private final List<ServerNode> nodes = new ArrayList<>();
+    private final int maxConsecutiveFailures;
+    private final long ejectionNanos;
+    private final Counter ejections;
+    private final ScheduledExecutorService healthChecks;
+
+    public ServerNodes(@Value("${shareit-server.url}") List<String> urls,
+                       @Value("${shareit-gateway.nodes.outlier.consecutive-failures:5}") int maxConsecutiveFailures,
+                       @Value("${shareit-gateway.nodes.outlier.ejection-time:30s}") Duration ejectionTime,
+                       @Value("${shareit-gateway.nodes.health-check.path:/actuator/health}") String healthPath,
+                       @Value("${shareit-gateway.nodes.health-check.interval:5s}") Duration healthCheckInterval,
+                       @Value("${shareit-gateway.nodes.health-check.timeout:1s}") Duration healthCheckTimeout,
+                       RestTemplateBuilder restTemplateBuilder,
+                       MeterRegistry meterRegistry) {
+        urls.stream().map(String::trim).filter(url -> !url.isEmpty()).map(ServerNode::new).forEach(nodes::add);
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("shareit-server.url lists no server");
+        }
+        this.maxConsecutiveFailures = maxConsecutiveFailures;
+        this.ejectionNanos = ejectionTime.toNanos();
+        this.ejections = Counter.builder("shareit.gateway.node.ejections").register(meterRegistry);
+        for (ServerNode node : nodes) {
+            Gauge.builder("shareit.gateway.node.outstanding", node, ServerNode::getOutstanding)
+                    .tag("node", node.getBaseUrl())
+                    .register(meterRegistry);
+            Gauge.builder("shareit.gateway.node.available", node,
+                            serverNode -> serverNode.isAvailable(System.nanoTime()) ? 1 : 0)
+                    .tag("node", node.getBaseUrl())
+                    .register(meterRegistry);
+        }
+
+        // With a single node there is nothing to route around, so it is not checked
+        if (nodes.size() > 1) {
+            RestTemplate healthClient = restTemplateBuilder
+                    .setConnectTimeout(healthCheckTimeout)
+                    .setReadTimeout(healthCheckTimeout)
+                    .build();
+            this.healthChecks = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().daemon().name("server-health-check").factory());
+            long intervalMillis = healthCheckInterval.toMillis();
+            healthChecks.scheduleWithFixedDelay(() -> checkHealth(healthClient, healthPath),
+                    0, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.healthChecks = null;
+        }
+    }
+
+    public List<ServerNode> getNodes() {
+        return nodes;
+    }
+
+    public ServerNode select(long now) {
+        List<ServerNode> candidates = nodes;
+        if (nodes.size() > 1) {
+            List<ServerNode> available = new ArrayList<>(nodes.size());
+            for (ServerNode node : nodes) {
+                if (node.isAvailable(now)) {
+                    available.add(node);
+                }
+            }
+            if (!available.isEmpty()) {
+                candidates = available;
+            }
+        }
+        return leastOutstandingOfTwo(candidates);
+    }
+
+    // Another available node than the one given, for a second try at the same call; null if there is none
+    @Nullable
+    public ServerNode selectOther(ServerNode node, long now) {
+        List<ServerNode> others = new ArrayList<>(nodes.size());
+        for (ServerNode other : nodes) {
+            if (other != node && other.isAvailable(now)) {
+                others.add(other);
+            }
+        }
+        return others.isEmpty() ? null : leastOutstandingOfTwo(others);
+    }
+
+    public void start(ServerNode node) {
+        node.start();
+    }
+
+    public void finish(ServerNode node, boolean failed, long now) {
+        if (node.finish(failed, maxConsecutiveFailures, ejectionNanos, now)) {
+            ejections.increment();
+            log.warn("Ejected server node {} after {} failed calls in a row", node.getBaseUrl(),
+                    maxConsecutiveFailures);
+        }
+    }
+
+    public void cancel(ServerNode node) {
+        node.cancel();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (healthChecks != null) {
+            healthChecks.shutdownNow();
+        }
+    }
+
+    private void checkHealth(RestTemplate healthClient, String healthPath) {
+        for (ServerNode node : nodes) {
+            boolean healthy;
+            try {
+                ResponseEntity<String> response = healthClient.getForEntity(node.getBaseUrl() + healthPath,
+                        String.class);
+                healthy = response.getStatusCode().is2xxSuccessful();
+            } catch (RestClientException e) {
+                healthy = false;
+            }
+            if (healthy != node.isHealthy()) {
+                log.info("Server node {} is {}", node.getBaseUrl(), healthy ? "healthy again" : "unhealthy");
+            }
+            node.setHealthy(healthy);
+        }
+    }
+
+    private static ServerNode leastOutstandingOfTwo(List<ServerNode> candidates) {
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServerNode a = candidates.get(first);
+        ServerNode b = candidates.get(second);
+        return (b.getOutstanding() < a.getOutstanding()) ? b : a;
+    }
+}
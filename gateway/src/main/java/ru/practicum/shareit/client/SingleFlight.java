@@ -0,0 +1,115 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+// Concurrent calls with the same key share one execution: the first caller starts it and the rest wait for its result
+// or its exception without holding a thread. A key is only shared while the call is in flight, nothing is remembered
+// afterwards. The call is cancelled once every caller waiting for it has cancelled
+public class SingleFlight<T> {
+
+    private final boolean enabled;
+    private final ConcurrentMap<String, Flight<T>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter leaders;
+    private final Counter followers;
+
+    public SingleFlight(String client, boolean enabled, MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.leaders = counter(meterRegistry, client, "leader");
+        this.followers = counter(meterRegistry, client, "follower");
+        Gauge.builder("shareit.gateway.coalescing.ratio", this, SingleFlight::coalescingRatio)
+                .tag("client", client)
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<T> execute(String key, Supplier<CompletableFuture<T>> call) {
+        if (!enabled) {
+            leaders.increment();
+            return start(call);
+        }
+
+        Flight<T> created = new Flight<>();
+        Flight<T> flight = inFlight.compute(key, (k, existing) -> {
+            Flight<T> joined = (existing != null) ? existing : created;
+            joined.waiters++;
+            return joined;
+        });
+        // every caller gets a copy, so that nothing one of them does to its future reaches the others
+        CompletableFuture<T> waiter = flight.result.copy();
+        waiter.whenComplete((result, error) -> {
+            if (waiter.isCancelled()) {
+                leave(key, flight);
+            }
+        });
+        if (flight != created) {
+            followers.increment();
+            return waiter;
+        }
+
+        leaders.increment();
+        flight.call = start(call);
+        flight.call.whenComplete((result, error) -> {
+            inFlight.remove(key, flight);
+            if (error != null) {
+                flight.result.completeExceptionally(unwrap(error));
+            } else {
+                flight.result.complete(result);
+            }
+        });
+        return waiter;
+    }
+
+    private void leave(String key, Flight<T> flight) {
+        boolean[] abandoned = {false};
+        inFlight.computeIfPresent(key, (k, current) -> {
+            if (current != flight || --current.waiters > 0) {
+                return current;
+            }
+            abandoned[0] = true;
+            return null;
+        });
+        if (abandoned[0]) {
+            flight.call.cancel(true);
+        }
+    }
+
+    private static <T> CompletableFuture<T> start(Supplier<CompletableFuture<T>> call) {
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return (error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error;
+    }
+
+    private double coalescingRatio() {
+        double total = leaders.count() + followers.count();
+        return (total == 0) ? 0 : followers.count() / total;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String client, String role) {
+        return Counter.builder("shareit.gateway.coalescing.requests")
+                .tag("client", client)
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+
+    // waiters is only read and written inside compute calls on the flight's key
+    private static final class Flight<T> {
+
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        volatile CompletableFuture<T> call;
+        int waiters;
+    }
+}
@@ -1,17 +1,20 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientContext;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
@@ -19,43 +22,57 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory,
+                      ClientContext clientContext) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                clientContext
         );
     }
 
-    public ResponseEntity<Object> get(Long itemId, Long userId) {
-        return get("/" + itemId, userId);
+    public CompletableFuture<ResponseEntity<Object>> get(Long itemId, Long userId, String ifNoneMatch) {
+        return get("/" + itemId, userId, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> get(Long userId) {
-        return get("", userId);
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> getStreamed(Long userId) {
+        return getStreamed("", userId, null);
     }
 
-    public ResponseEntity<Object> get(String text) {
+    public CompletableFuture<ResponseEntity<Object>> get(String text) {
         Map<String, Object> parameters = Map.of(
                 "text", text
         );
         return get("/search?text={text}", null, parameters);
     }
 
-    public ResponseEntity<Object> post(Long userId, ItemDto itemData) {
+    public CompletableFuture<ResponseEntity<Object>> post(Long userId, ItemDto itemData) {
         return post("", userId, itemData);
     }
 
-    public ResponseEntity<Object> patch(Long itemId, Long userId, ItemDto itemData) {
+    public CompletableFuture<ResponseEntity<Object>> patch(Long itemId, Long userId, ItemDto itemData) {
         return patch("/" + itemId, userId, itemData);
     }
 
-    public ResponseEntity<Object> delete(Long itemId, Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> delete(Long itemId, Long userId) {
         return delete("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> post(Long itemId, Long userId, CommentDto commentData) {
+    public CompletableFuture<ResponseEntity<Object>> post(Long itemId, Long userId, CommentDto commentData) {
         return post("/" + itemId + "/comment", userId, commentData);
     }
+
+    public CompletableFuture<ResponseEntity<Object>> getComments(Long itemId, Long userId, Long after, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("size", size);
+        String path = "/" + itemId + "/comments?size={size}";
+        if (after != null) {
+            parameters.put("after", after);
+            path += "&after={after}";
+        }
+        return get(path, userId, parameters);
+    }
 }
@@ -4,14 +4,18 @@ import jakarta.validation.constraints.Positive;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.validation.group.CreateGroup;
 import ru.practicum.shareit.validation.group.UpdateGroup;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
@@ -22,45 +26,54 @@ public class ItemController {
     ItemClient itemClient;
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@PathVariable @Positive Long itemId,
-                                      @RequestHeader("X-Sharer-User-Id") @Positive Long userId) {
-        return itemClient.get(itemId, userId);
+    public CompletableFuture<ResponseEntity<Object>> getItemById(@PathVariable @Positive Long itemId,
+                                      @RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return itemClient.get(itemId, userId, ifNoneMatch);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUserItems(@RequestHeader("X-Sharer-User-Id") @Positive Long userId) {
-        return itemClient.get(userId);
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> getUserItems(@RequestHeader("X-Sharer-User-Id") @Positive Long userId) {
+        return itemClient.getStreamed(userId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> getItemsMatchingText(@RequestParam(name = "text", defaultValue = "") String text,
+    public CompletableFuture<ResponseEntity<Object>> getItemsMatchingText(@RequestParam(name = "text", defaultValue = "") String text,
                                                        @RequestHeader("X-Sharer-User-Id") @Positive Long userId) {
         return itemClient.get(text);
     }
 
     @PostMapping
-    public ResponseEntity<Object> addItem(@RequestBody @Validated(value = CreateGroup.class) ItemDto itemData,
+    public CompletableFuture<ResponseEntity<Object>> addItem(@RequestBody @Validated(value = CreateGroup.class) ItemDto itemData,
                            @RequestHeader("X-Sharer-User-Id") @Positive Long userId) {
         return itemClient.post(userId, itemData);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@PathVariable @Positive Long itemId,
+    public CompletableFuture<ResponseEntity<Object>> updateItem(@PathVariable @Positive Long itemId,
                               @RequestBody @Validated(value = UpdateGroup.class) ItemDto itemData,
                               @RequestHeader("X-Sharer-User-Id") @Positive Long userId) {
         return itemClient.patch(itemId, userId, itemData);
     }
 
     @DeleteMapping("/{itemId}")
-    public ResponseEntity<Object> deleteItem(@PathVariable @Positive Long itemId,
+    public CompletableFuture<ResponseEntity<Object>> deleteItem(@PathVariable @Positive Long itemId,
                               @RequestHeader("X-Sharer-User-Id") @Positive Long userId) {
         return itemClient.delete(itemId, userId);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> postComment(@PathVariable @Positive Long itemId,
+    public CompletableFuture<ResponseEntity<Object>> postComment(@PathVariable @Positive Long itemId,
                                   @RequestHeader("X-Sharer-User-Id") @Positive Long userId,
                                   @RequestBody CommentDto commentData) {
         return itemClient.post(itemId, userId, commentData);
     }
+
+    @GetMapping("/{itemId}/comments")
+    public CompletableFuture<ResponseEntity<Object>> getItemComments(@PathVariable @Positive Long itemId,
+                                                  @RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                                  @RequestParam(name = "after", required = false) @Positive Long after,
+                                                  @RequestParam(name = "size", defaultValue = "20") @Positive Integer size) {
+        return itemClient.getComments(itemId, userId, after, size);
+    }
 }
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.springframework.http.HttpMethod;
+
+// Endpoint groups limited separately, so a user hammering search still gets to create a booking
+public enum RateLimitGroup {
+    SEARCH,
+    BOOKINGS,
+    WRITES;
+
+    // A batch is not limited as a whole; each of its sub-requests takes a token from its own group
+    public static RateLimitGroup of(String method, String path) {
+        if (path.equals("/batch")) {
+            return null;
+        }
+        if (!HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)) {
+            return WRITES;
+        }
+        if (path.startsWith("/items/search")) {
+            return SEARCH;
+        }
+        if (path.startsWith("/bookings")) {
+            return BOOKINGS;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Buckets per user for one endpoint group. Users are spread over stripes, each a small LRU map behind its own lock,
+// so the lock is held only for the lookup and is rarely contended; the bucket itself is taken outside of it.
+// A full bucket behaves exactly like a new one, so those are dropped first when a stripe runs out of room
+public class RateLimiter {
+
+    private static final int STRIPES = 32;
+
+    private final long intervalNanos;
+    private final int burst;
+    private final int maxPerStripe;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public RateLimiter(double ratePerSecond, int burst, int maxUsers) {
+        this.intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.burst = burst;
+        this.maxPerStripe = Math.max(1, maxUsers / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    // Returns 0 when the request may go ahead, otherwise the nanoseconds until the user has a token again
+    public long tryAcquire(long userId, long now) {
+        Stripe stripe = stripes[Math.floorMod(Long.hashCode(userId), STRIPES)];
+        TokenBucket bucket;
+        synchronized (stripe) {
+            bucket = stripe.buckets.get(userId);
+            if (bucket == null) {
+                stripe.makeRoom(now);
+                bucket = new TokenBucket(intervalNanos, burst, now);
+                stripe.buckets.put(userId, bucket);
+            }
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.buckets.size();
+            }
+        }
+        return size;
+    }
+
+    private final class Stripe {
+
+        final Map<Long, TokenBucket> buckets = new LinkedHashMap<>(16, 0.75f, true);
+
+        // Called under the stripe lock. Idle users are swept from the least recently used end; if the stripe is
+        // still full, the least recently used user loses its bucket and starts again with a full one
+        void makeRoom(long now) {
+            if (buckets.size() < maxPerStripe) {
+                return;
+            }
+            Iterator<TokenBucket> eldest = buckets.values().iterator();
+            while (eldest.hasNext()) {
+                if (!eldest.next().isFull(now)) {
+                    break;
+                }
+                eldest.remove();
+            }
+            if (buckets.size() >= maxPerStripe) {
+                eldest = buckets.values().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+}
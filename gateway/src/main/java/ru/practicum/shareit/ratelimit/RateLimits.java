@@ -0,0 +1,61 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// The per-user limiters of every endpoint group, shared by the filter and by the batch endpoint, which takes a
+// token for each of its sub-requests
+@Component
+public class RateLimits {
+
+    private final boolean enabled;
+    private final Map<RateLimitGroup, RateLimiter> limiters = new EnumMap<>(RateLimitGroup.class);
+    private final Map<RateLimitGroup, Counter> rejections = new EnumMap<>(RateLimitGroup.class);
+
+    // Every group reads shareit-gateway.rate-limit.<group>.rate (requests per second) and .burst
+    public RateLimits(@Value("${shareit-gateway.rate-limit.enabled:true}") boolean enabled,
+                      @Value("${shareit-gateway.rate-limit.max-users:100000}") int maxUsers,
+                      Environment environment,
+                      MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        for (RateLimitGroup group : RateLimitGroup.values()) {
+            String prefix = "shareit-gateway.rate-limit." + group.name().toLowerCase(Locale.ROOT);
+            limiters.put(group, new RateLimiter(
+                    environment.getProperty(prefix + ".rate", Double.class, 20.0),
+                    environment.getProperty(prefix + ".burst", Integer.class, 40),
+                    maxUsers
+            ));
+            rejections.put(group, Counter.builder("shareit.gateway.rate-limit.rejected")
+                    .tag("group", group.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Returns 0 when the request may go ahead, otherwise the nanoseconds until the user has a token again
+    public long tryAcquire(RateLimitGroup group, long userId) {
+        if (!enabled) {
+            return 0;
+        }
+        long waitNanos = limiters.get(group).tryAcquire(userId, System.nanoTime());
+        if (waitNanos > 0) {
+            rejections.get(group).increment();
+        }
+        return waitNanos;
+    }
+
+    public static long retryAfterSeconds(long waitNanos) {
+        return (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+}
@@ -1,13 +1,20 @@
 package ru.practicum.shareit.request;
 
+import jakarta.validation.constraints.Positive;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/requests")
 @RequiredArgsConstructor
@@ -18,24 +25,40 @@ public class ItemRequestController {
     RequestClient requestClient;
 
     @PostMapping
-    public ResponseEntity<Object> addItemRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public CompletableFuture<ResponseEntity<Object>> addItemRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
                                          @RequestBody ItemRequestDto itemRequestDto) {
         return requestClient.post(userId, itemRequestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUserItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        return requestClient.get(userId, false);
+    public CompletableFuture<ResponseEntity<Object>> getUserItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                      @RequestParam(name = "after", required = false) @Positive Long after,
+                                                      @RequestParam(name = "size", required = false) @Positive Integer size) {
+        return requestClient.get(userId, false, after, size);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@RequestHeader(value = "X-Sharer-User-Id") Long userId) {
-        return requestClient.get(userId, true);
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> getAllRequests(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
+                                                 @RequestParam(name = "after", required = false) @Positive Long after,
+                                                 @RequestParam(name = "size", required = false) @Positive Integer size) {
+        return requestClient.getAllStreamed(userId, after, size);
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public CompletableFuture<ResponseEntity<ResponseBodyEmitter>> streamRequests(@RequestHeader(value = "X-Sharer-User-Id") Long userId) {
+        return requestClient.stream(userId);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getItemRequest(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
-                                         @PathVariable Long requestId) {
-        return requestClient.get(requestId, userId);
+    public CompletableFuture<ResponseEntity<Object>> getItemRequest(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
+                                         @PathVariable Long requestId,
+                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return requestClient.get(requestId, userId, ifNoneMatch);
+    }
+
+    @GetMapping("/{requestId}/suggestions")
+    public CompletableFuture<ResponseEntity<Object>> getRequestSuggestions(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
+                                                        @PathVariable Long requestId) {
+        return requestClient.getSuggestions(requestId, userId);
     }
 }
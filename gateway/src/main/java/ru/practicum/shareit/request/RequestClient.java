@@ -4,36 +4,82 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientContext;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class RequestClient extends BaseClient {
 
     private static final String API_PREFIX = "/requests";
 
+    private final Duration streamTimeout;
+
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public RequestClient(@Value("${shareit-gateway.requests.stream.timeout:30m}") Duration streamTimeout,
+                         RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory,
+                         ClientContext clientContext) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                clientContext
         );
+        this.streamTimeout = streamTimeout;
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> get(Long userId, Boolean all, Long after, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        String path = ((all == true) ? "/all" : "") + page(parameters, after, size);
+        return get(path, userId, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> getAllStreamed(Long userId, Long after,
+                                                                                  Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        String path = "/all" + page(parameters, after, size);
+        return getStreamed(path, userId, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> get(Long requestId, Long userId, String ifNoneMatch) {
+        return get("/" + requestId, userId, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> get(Long userId, Boolean all) {
-        return get((all == true) ? "/all" : "", userId);
+    public CompletableFuture<ResponseEntity<Object>> getSuggestions(Long requestId, Long userId) {
+        return get("/" + requestId + "/suggestions", userId);
     }
 
-    public ResponseEntity<Object> get(Long requestId, Long userId) {
-        return get("/" + requestId, userId);
+    public CompletableFuture<ResponseEntity<ResponseBodyEmitter>> stream(Long userId) {
+        return stream("/stream", userId, streamTimeout.toMillis());
     }
 
-    public ResponseEntity<Object> post(Long userId, ItemRequestDto itemRequestData) {
+    public CompletableFuture<ResponseEntity<Object>> post(Long userId, ItemRequestDto itemRequestData) {
         return post("", userId, itemRequestData);
     }
+
+    // Only the given parameters are forwarded, so the server returns the whole list when neither is set
+    private static String page(Map<String, Object> parameters, Long after, Integer size) {
+        StringBuilder query = new StringBuilder();
+        if (size != null) {
+            parameters.put("size", size);
+            query.append("&size={size}");
+        }
+        if (after != null) {
+            parameters.put("after", after);
+            query.append("&after={after}");
+        }
+        return query.isEmpty() ? "" : "?" + query.substring(1);
+    }
 }
@@ -1,47 +1,52 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientContext;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class UserClient extends BaseClient {
 
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory,
+                      ClientContext clientContext) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                clientContext
         );
     }
 
-    public ResponseEntity<Object> get() {
+    public CompletableFuture<ResponseEntity<Object>> get() {
         return get("");
     }
 
-    public ResponseEntity<Object> get(Long userId) {
-        return get("/" + userId, userId);
+    public CompletableFuture<ResponseEntity<Object>> get(Long userId, String ifNoneMatch) {
+        return get("/" + userId, userId, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> post(UserDto userData) {
+    public CompletableFuture<ResponseEntity<Object>> post(UserDto userData) {
         return post("", userData);
     }
 
-    public ResponseEntity<Object> patch(Long userId, UserDto userData) {
+    public CompletableFuture<ResponseEntity<Object>> patch(Long userId, UserDto userData) {
         return patch("/" + userId, userId, userData);
     }
 
-    public ResponseEntity<Object> delete(Long userId) {
-        return get("/" + userId, userId);
+    public CompletableFuture<ResponseEntity<Object>> delete(Long userId) {
+        return delete("/" + userId, userId);
     }
 }
@@ -4,6 +4,7 @@ import jakarta.validation.constraints.Positive;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -11,6 +12,8 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.validation.group.CreateGroup;
 import ru.practicum.shareit.validation.group.UpdateGroup;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping(path = "/users")
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
@@ -21,28 +24,29 @@ public class UserController {
     UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
+    public CompletableFuture<ResponseEntity<Object>> getAllUsers() {
         return userClient.get();
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUserById(@PathVariable @Positive Long userId) {
-        return userClient.get(userId);
+    public CompletableFuture<ResponseEntity<Object>> getUserById(@PathVariable @Positive Long userId,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return userClient.get(userId, ifNoneMatch);
     }
 
     @PostMapping
-    public ResponseEntity<Object> addUser(@RequestBody @Validated(value = CreateGroup.class) UserDto userData) {
+    public CompletableFuture<ResponseEntity<Object>> addUser(@RequestBody @Validated(value = CreateGroup.class) UserDto userData) {
         return userClient.post(userData);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@PathVariable @Positive Long userId,
+    public CompletableFuture<ResponseEntity<Object>> updateUser(@PathVariable @Positive Long userId,
                               @RequestBody @Validated(value = UpdateGroup.class) UserDto userData) {
         return userClient.patch(userId, userData);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteUser(@PathVariable @Positive Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> deleteUser(@PathVariable @Positive Long userId) {
         return userClient.delete(userId);
     }
 }
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.batch;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.batch.dto.BatchResponseDto;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs batches against a local stub of the server that echoes the query it received and never answers /users/99
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "shareit-gateway.rate-limit.enabled=false",
+        "shareit-gateway.cache.enabled=false",
+        "shareit-gateway.bulkhead.max-concurrent=1",
+        "shareit-gateway.batch.timeout=300ms"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BatchProcessorTest {
+
+    private static HttpServer server;
+
+    @Autowired
+    private BatchProcessor batchProcessor;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) throws IOException {
+        if (server == null) {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.createContext("/items", exchange ->
+                    respond(exchange, "{\"query\":\"" + exchange.getRequestURI().getQuery() + "\"}"));
+            server.createContext("/bookings", exchange ->
+                    respond(exchange, "{\"query\":\"" + exchange.getRequestURI().getQuery() + "\"}"));
+            server.createContext("/users", exchange -> {
+                if (exchange.getRequestURI().getPath().equals("/users/99")) {
+                    try {
+                        Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                respond(exchange, "{\"id\":1}");
+            });
+            server.start();
+        }
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void process_ShouldDecodeQueryWithoutTurningPlusIntoSpace() {
+        BatchResponseDto response = process(new BatchRequestDto("1", "GET", "/items/search?text=a+b%20c", null));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("{\"query\":\"text=a+b c\"}", response.getBody());
+    }
+
+    @Test
+    void process_WhenSubRequestTimesOut_ShouldAnswer504AndAbandonTheCall() {
+        BatchResponseDto timedOut = process(new BatchRequestDto("1", "GET", "/users/99", null));
+        BatchResponseDto next = process(new BatchRequestDto("2", "GET", "/users/1", null));
+
+        assertEquals(504, timedOut.getStatus());
+        assertEquals(200, next.getStatus(), next.getBody());
+    }
+
+    @Test
+    void process_WithUnsupportedRequest_ShouldAnswerWithoutCallingServer() {
+        List<BatchResponseDto> responses = batchProcessor.process(List.of(
+                new BatchRequestDto("1", "POST", "/items", null),
+                new BatchRequestDto("2", "GET", "/items/search?text=%zz", null),
+                new BatchRequestDto("3", "GET", "/items/../users", null)
+        ), 1L).join();
+
+        assertEquals(List.of(405, 400, 400), responses.stream().map(BatchResponseDto::getStatus).toList());
+    }
+
+    @Test
+    void process_WithRequestItsControllerWouldReject_ShouldAnswer400WithoutCallingServer() {
+        List<BatchResponseDto> responses = batchProcessor.process(List.of(
+                new BatchRequestDto("1", "GET", "/items/0", null),
+                new BatchRequestDto("2", "GET", "/users/abc", null),
+                new BatchRequestDto("3", "GET", "/requests/all?size=0", null),
+                new BatchRequestDto("4", "GET", "/items/1/comments?after=-1", null),
+                new BatchRequestDto("5", "GET", "/bookings?category=SOMETIME", null),
+                new BatchRequestDto("6", "GET", "/bookings/owner/1", null),
+                new BatchRequestDto("7", "GET", "/items/1/suggestions", null)
+        ), 1L).join();
+
+        assertEquals(List.of(400, 400, 400, 400, 400, 400, 400),
+                responses.stream().map(BatchResponseDto::getStatus).toList());
+        assertEquals("{\"error\":\"Invalid id: 0\"}", responses.getFirst().getBody());
+        assertEquals("{\"error\":\"Unknown category\"}", responses.get(4).getBody());
+    }
+
+    @Test
+    void process_WithLowerCaseCategory_ShouldForwardItAsServerParsesIt() {
+        BatchResponseDto response = process(new BatchRequestDto("1", "GET", "/bookings/owner?category=current", null));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("{\"query\":\"category=CURRENT\"}", response.getBody());
+    }
+
+    private BatchResponseDto process(BatchRequestDto request) {
+        return batchProcessor.process(List.of(request), 1L).join().getFirst();
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
@@ -0,0 +1,206 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.client.ResourceAccessException;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the non-blocking exchange against a local stub of the server that records what it was sent
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "shareit-gateway.http.async.enabled=true",
+        "shareit-gateway.cache.enabled=false"
+})
+class AsyncServerExchangeTest {
+
+    private static final AtomicReference<HttpHeaders> received = new AtomicReference<>();
+    private static final AtomicReference<String> receivedBody = new AtomicReference<>();
+    private static final CountDownLatch slowAborted = new CountDownLatch(1);
+    private static HttpServer server;
+
+    @Autowired
+    private CloseableHttpAsyncClient asyncHttpClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ItemClient itemClient;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) throws IOException {
+        if (server == null) {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.createContext("/items", exchange -> {
+                record(exchange);
+                exchange.getResponseHeaders().add(HttpHeaders.ETAG, "\"3\"");
+                respond(exchange, 201, "{\"id\":1,\"name\":\"Drill\"}");
+            });
+            server.createContext("/missing", exchange -> {
+                record(exchange);
+                respond(exchange, 404, "{\"error\":\"Item not found\"}");
+            });
+            server.createContext("/slow", exchange -> {
+                exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+                exchange.sendResponseHeaders(200, 0);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    for (int i = 0; i < 500; i++) {
+                        body.write(" ".repeat(1024).getBytes(StandardCharsets.UTF_8));
+                        body.flush();
+                        Thread.sleep(10);
+                    }
+                } catch (IOException e) {
+                    slowAborted.countDown();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            server.start();
+        }
+        registry.add("shareit-server.url", () -> baseUrl());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        received.set(null);
+        receivedBody.set(null);
+    }
+
+    @Test
+    void exchange_ShouldCopyHeadersAndSendContentTypeOnlyWithBody() throws Exception {
+        ResponseEntity<byte[]> response = exchange().exchange(URI.create(baseUrl() + "/items/1"), HttpMethod.GET,
+                jsonHeaders(), null).get(5, TimeUnit.SECONDS);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals("\"3\"", response.getHeaders().getETag());
+        assertEquals("{\"id\":1,\"name\":\"Drill\"}", new String(response.getBody(), StandardCharsets.UTF_8));
+        assertEquals("7", received.get().getFirst("X-Sharer-User-Id"));
+        assertEquals(List.of(MediaType.APPLICATION_JSON), received.get().getAccept());
+        assertNull(received.get().get(HttpHeaders.CONTENT_TYPE));
+        assertEquals("", receivedBody.get());
+    }
+
+    @Test
+    void exchange_WithBody_ShouldSendItAsJsonWithOneContentType() throws Exception {
+        exchange().exchange(URI.create(baseUrl() + "/items"), HttpMethod.POST, jsonHeaders(),
+                Map.of("name", "Drill")).get(5, TimeUnit.SECONDS);
+
+        List<String> contentTypes = received.get().get(HttpHeaders.CONTENT_TYPE);
+        assertEquals(1, contentTypes.size());
+        assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentTypes.getFirst())));
+        assertEquals("{\"name\":\"Drill\"}", receivedBody.get());
+    }
+
+    @Test
+    void exchange_WithErrorStatus_ShouldAnswerItAsValue() throws Exception {
+        ResponseEntity<byte[]> response = exchange().exchange(URI.create(baseUrl() + "/missing"), HttpMethod.GET,
+                jsonHeaders(), null).get(5, TimeUnit.SECONDS);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("{\"error\":\"Item not found\"}", new String(response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exchange_WhenServerUnreachable_ShouldFailWithResourceAccessException() throws Exception {
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            closedPort = socket.getLocalPort();
+        }
+        CompletableFuture<ResponseEntity<byte[]>> response = exchange().exchange(
+                URI.create("http://localhost:" + closedPort + "/items"), HttpMethod.GET, jsonHeaders(), null);
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> response.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ResourceAccessException.class, failure.getCause());
+        assertInstanceOf(IOException.class, failure.getCause().getCause());
+    }
+
+    @Test
+    void exchange_WhenCancelled_ShouldAbandonTheCall() throws Exception {
+        CompletableFuture<ResponseEntity<byte[]>> response = exchange().exchange(
+                URI.create(baseUrl() + "/slow"), HttpMethod.GET, jsonHeaders(), null);
+        Thread.sleep(100);
+
+        response.cancel(true);
+
+        assertTrue(slowAborted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void post_ThroughClient_ShouldGoThroughAsyncPath() throws Exception {
+        ItemDto item = new ItemDto(null, "Drill", "Cordless drill", true, null, null);
+
+        ResponseEntity<Object> response = itemClient.post(7L, item).get(5, TimeUnit.SECONDS);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals("7", received.get().getFirst("X-Sharer-User-Id"));
+        assertEquals("Drill", objectMapper.readTree(receivedBody.get()).get("name").asText());
+    }
+
+    private AsyncServerExchange exchange() {
+        return new AsyncServerExchange(asyncHttpClient, objectMapper);
+    }
+
+    private static HttpHeaders jsonHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.set("X-Sharer-User-Id", "7");
+        return headers;
+    }
+
+    private static String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private static void record(HttpExchange exchange) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        exchange.getRequestHeaders().forEach(headers::addAll);
+        received.set(headers);
+        receivedBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
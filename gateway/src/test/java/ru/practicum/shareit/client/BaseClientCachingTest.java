@@ -0,0 +1,126 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.request.RequestClient;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the clients against a local stub of the server that counts item and booking reads; only items carry a max-age
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "shareit-gateway.cache.enabled=true",
+        "shareit-gateway.cache.ttl=1m"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BaseClientCachingTest {
+
+    private static final AtomicInteger itemCalls = new AtomicInteger();
+    private static final AtomicInteger bookingCalls = new AtomicInteger();
+    private static HttpServer server;
+
+    @Autowired
+    private ItemClient itemClient;
+
+    @Autowired
+    private BookingClient bookingClient;
+
+    @Autowired
+    private RequestClient requestClient;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) throws IOException {
+        if (server == null) {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.createContext("/items", exchange -> {
+                itemCalls.incrementAndGet();
+                exchange.getResponseHeaders().add(HttpHeaders.CACHE_CONTROL, "max-age=60");
+                respond(exchange, "{\"id\":1,\"rentalCount\":" + itemCalls.get() + "}");
+            });
+            server.createContext("/bookings", exchange -> {
+                bookingCalls.incrementAndGet();
+                respond(exchange, "[{\"id\":1,\"status\":\"APPROVED\"}]");
+            });
+            server.createContext("/requests", exchange -> respond(exchange, "{\"id\":1,\"description\":\"drill\"}"));
+            server.start();
+        }
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        itemCalls.set(0);
+        bookingCalls.set(0);
+    }
+
+    @Test
+    void get_WhenFresh_ShouldAnswerFromCache() {
+        assertEquals(HttpStatus.OK, itemClient.get(1L, 1L, null).join().getStatusCode());
+        assertEquals(HttpStatus.OK, itemClient.get(1L, 1L, null).join().getStatusCode());
+
+        assertEquals(1, itemCalls.get());
+    }
+
+    @Test
+    void get_AfterWriteThroughAnotherClient_ShouldGoToServer() {
+        itemClient.get(1L, 1L, null).join();
+
+        bookingClient.patch(1L, 1L, true).join();
+        Object body = itemClient.get(1L, 1L, null).join().getBody();
+
+        assertEquals(2, itemCalls.get());
+        assertEquals("{\"id\":1,\"rentalCount\":2}", new String((byte[]) body, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void get_AfterWriteOfUnrelatedRoute_ShouldStillAnswerFromCache() {
+        itemClient.get(1L, 1L, null).join();
+
+        ItemRequestDto request = new ItemRequestDto();
+        request.setDescription("drill");
+        requestClient.post(1L, request).join();
+        itemClient.get(1L, 1L, null).join();
+
+        assertEquals(1, itemCalls.get());
+    }
+
+    @Test
+    void get_WithoutMaxAgeOrETag_ShouldNotBeCached() {
+        bookingClient.get(1L, "CURRENT", true).join();
+        bookingClient.get(1L, "CURRENT", true).join();
+
+        assertEquals(2, bookingCalls.get());
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
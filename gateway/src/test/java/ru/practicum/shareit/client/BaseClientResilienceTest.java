@@ -0,0 +1,147 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.user.UserClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the clients against a local stub of the server whose booking endpoints answer after an injected delay
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "shareit-gateway.cache.enabled=false",
+        "shareit-gateway.bulkhead.max-concurrent=2",
+        "shareit-gateway.circuit-breaker.window-size=4",
+        "shareit-gateway.circuit-breaker.minimum-calls=4",
+        "shareit-gateway.circuit-breaker.slow-call-threshold=300ms",
+        "shareit-gateway.circuit-breaker.open-duration=1s",
+        "shareit-gateway.circuit-breaker.half-open-probes=1"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class BaseClientResilienceTest {
+
+    private static final AtomicLong bookingDelayMillis = new AtomicLong();
+    private static final AtomicInteger bookingCalls = new AtomicInteger();
+    private static final AtomicInteger bookingCallsInFlight = new AtomicInteger();
+    private static HttpServer server;
+
+    @Autowired
+    private BookingClient bookingClient;
+
+    @Autowired
+    private UserClient userClient;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) throws IOException {
+        if (server == null) {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.createContext("/bookings", exchange -> {
+                bookingCalls.incrementAndGet();
+                bookingCallsInFlight.incrementAndGet();
+                try {
+                    Thread.sleep(bookingDelayMillis.get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    bookingCallsInFlight.decrementAndGet();
+                }
+                respond(exchange, "[]");
+            });
+            server.createContext("/users", exchange -> respond(exchange, "{\"id\":1}"));
+            server.start();
+        }
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        bookingDelayMillis.set(0);
+        bookingCalls.set(0);
+    }
+
+    @Test
+    void get_WhenBulkheadIsFull_ShouldRejectAtOnceAndLeaveOtherClientsAlone() throws Exception {
+        bookingDelayMillis.set(1000);
+        List<CompletableFuture<ResponseEntity<Object>>> slowCalls = List.of(
+                CompletableFuture.supplyAsync(() -> bookingClient.get(1L, "ALL", true).join(), virtualThreads()),
+                CompletableFuture.supplyAsync(() -> bookingClient.get(2L, "ALL", true).join(), virtualThreads())
+        );
+        while (bookingCallsInFlight.get() < 2) {
+            Thread.sleep(10);
+        }
+
+        long start = System.nanoTime();
+        ResponseEntity<Object> rejected = bookingClient.get(3L, "ALL", true).join();
+        long rejectedAfterMillis = (System.nanoTime() - start) / 1_000_000;
+        ResponseEntity<Object> user = userClient.get(1L, null).join();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+        assertTrue(rejectedAfterMillis < 500, "rejected after " + rejectedAfterMillis + " ms");
+        assertEquals(HttpStatus.OK, user.getStatusCode());
+        for (CompletableFuture<ResponseEntity<Object>> slowCall : slowCalls) {
+            assertEquals(HttpStatus.OK, slowCall.get().getStatusCode());
+        }
+        assertEquals(2, bookingCalls.get());
+    }
+
+    @Test
+    void get_AfterSlowCalls_ShouldOpenCircuitAndProbeOnceOpenDurationPassed() throws Exception {
+        bookingDelayMillis.set(400);
+        for (long userId = 1; userId <= 4; userId++) {
+            assertEquals(HttpStatus.OK, bookingClient.get(userId, "ALL", true).join().getStatusCode());
+        }
+
+        ResponseEntity<Object> rejected = bookingClient.get(5L, "ALL", true).join();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+        assertEquals("1", rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(4, bookingCalls.get());
+        assertEquals(HttpStatus.OK, userClient.get(1L, null).join().getStatusCode());
+
+        bookingDelayMillis.set(0);
+        Thread.sleep(1100);
+
+        assertEquals(HttpStatus.OK, bookingClient.get(6L, "ALL", true).join().getStatusCode());
+        assertEquals(HttpStatus.OK, bookingClient.get(7L, "ALL", true).join().getStatusCode());
+        assertEquals(6, bookingCalls.get());
+    }
+
+    private static Executor virtualThreads() {
+        return command -> Thread.ofVirtual().start(command);
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new CircuitBreaker("TestClient", true, 4, 4, 0.5, Duration.ofSeconds(1),
+                Duration.ofSeconds(10), 2, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void tryAcquire_WhenFailureRateReachesThreshold_ShouldOpen() {
+        complete(0, false);
+        complete(0, true);
+        complete(0, false);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        complete(0, true);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertNull(circuitBreaker.tryAcquire(SECOND));
+        assertEquals(9 * SECOND, circuitBreaker.retryAfterNanos(SECOND));
+    }
+
+    @Test
+    void tryAcquire_WithFewerCallsThanMinimum_ShouldStayClosed() {
+        complete(0, true);
+        complete(0, true);
+        complete(0, true);
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void complete_WithSlowCall_ShouldCountItAsFailure() {
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.tryAcquire(0).complete(false, 2 * SECOND);
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void tryAcquire_AfterOpenDuration_ShouldLetProbesThroughAndCloseOnSuccess() {
+        open();
+        long later = 11 * SECOND;
+
+        CircuitBreaker.Permit first = circuitBreaker.tryAcquire(later);
+        CircuitBreaker.Permit second = circuitBreaker.tryAcquire(later);
+        assertNotNull(first);
+        assertNotNull(second);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertNull(circuitBreaker.tryAcquire(later));
+
+        first.complete(false, later);
+        second.complete(false, later);
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertNotNull(circuitBreaker.tryAcquire(later));
+    }
+
+    @Test
+    void complete_WithFailedProbe_ShouldOpenAgain() {
+        open();
+        long later = 11 * SECOND;
+
+        circuitBreaker.tryAcquire(later).complete(true, later);
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertNull(circuitBreaker.tryAcquire(later + SECOND));
+    }
+
+    @Test
+    void cancel_OfProbe_ShouldFreeItsSlot() {
+        open();
+        long later = 11 * SECOND;
+        circuitBreaker.tryAcquire(later);
+        CircuitBreaker.Permit second = circuitBreaker.tryAcquire(later);
+
+        second.cancel();
+
+        assertNotNull(circuitBreaker.tryAcquire(later));
+    }
+
+    @Test
+    void complete_OfCallAdmittedBeforeOpening_ShouldBeIgnored() {
+        CircuitBreaker.Permit admittedEarlier = circuitBreaker.tryAcquire(0);
+        open();
+        long later = 11 * SECOND;
+        circuitBreaker.tryAcquire(later);
+
+        admittedEarlier.complete(true, later);
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    void tryAcquire_WhenDisabled_ShouldNeverOpen() {
+        circuitBreaker = new CircuitBreaker("TestClient", false, 4, 4, 0.5, Duration.ofSeconds(1),
+                Duration.ofSeconds(10), 2, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 8; i++) {
+            complete(0, true);
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertNotNull(circuitBreaker.tryAcquire(0));
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            complete(0, true);
+        }
+    }
+
+    private void complete(long now, boolean failed) {
+        circuitBreaker.tryAcquire(now).complete(failed, now);
+    }
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.request.RequestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the request feed against a local stub of the server that keeps each subscription open until told to end it
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "shareit-gateway.cache.enabled=false",
+        "shareit-gateway.feed.max-subscribers=1",
+        "shareit-gateway.http.max-total=1"
+})
+class FeedRelayTest {
+
+    private static final CountDownLatch endFeeds = new CountDownLatch(1);
+    private static HttpServer server;
+
+    @Autowired
+    private RequestClient requestClient;
+
+    @Autowired
+    private ItemClient itemClient;
+
+    @Autowired
+    private ServerNodes serverNodes;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) throws IOException {
+        if (server == null) {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.createContext("/requests/stream", exchange -> {
+                exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, "text/event-stream");
+                exchange.sendResponseHeaders(200, 0);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write("event:request\ndata:{\"id\":1}\n\n".getBytes(StandardCharsets.UTF_8));
+                    body.flush();
+                    endFeeds.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException | IOException ignored) {
+                    // the gateway dropped the connection
+                }
+            });
+            server.createContext("/items", exchange -> {
+                byte[] bytes = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+                exchange.sendResponseHeaders(200, bytes.length);
+                exchange.getResponseBody().write(bytes);
+                exchange.close();
+            });
+            server.start();
+        }
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void stream_ShouldUseOwnPoolCountTowardsNodeLoadAndRefuseSubscribersBeyondCap() throws Exception {
+        ServerNode node = serverNodes.getNodes().getFirst();
+
+        ResponseEntity<ResponseBodyEmitter> open = requestClient.stream(1L).get(5, TimeUnit.SECONDS);
+        ResponseEntity<ResponseBodyEmitter> refused = requestClient.stream(2L).get(5, TimeUnit.SECONDS);
+
+        assertEquals(HttpStatus.OK, open.getStatusCode());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, refused.getStatusCode());
+        assertEquals(1, node.getOutstanding());
+        assertEquals(HttpStatus.OK, itemClient.get(1L, 1L, null).get(5, TimeUnit.SECONDS).getStatusCode());
+
+        endFeeds.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (node.getOutstanding() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, node.getOutstanding());
+        assertEquals(HttpStatus.OK, requestClient.stream(3L).get(5, TimeUnit.SECONDS).getStatusCode());
+    }
+}
@@ -0,0 +1,190 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.user.UserClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the user client against two local stubs of the server that answer every slowEvery-th call after a delay
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "shareit-gateway.cache.enabled=false",
+        "shareit-gateway.coalescing.enabled=false",
+        "shareit-gateway.hedging.enabled=true",
+        "shareit-gateway.hedging.min-delay=20ms",
+        "shareit-gateway.deadline.budget.items=15ms"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class HedgingTest {
+
+    private static final AtomicInteger calls = new AtomicInteger();
+    private static final AtomicInteger slowEvery = new AtomicInteger();
+    private static final AtomicLong delayMillis = new AtomicLong();
+    private static final AtomicLong itemDelayMillis = new AtomicLong();
+    private static final AtomicLong smallestBudget = new AtomicLong();
+    private static final List<HttpServer> stubs = new ArrayList<>();
+
+    @Autowired
+    private UserClient userClient;
+
+    @Autowired
+    private ItemClient itemClient;
+
+    @Autowired
+    private ServerNodes serverNodes;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void serverUrls(DynamicPropertyRegistry registry) throws IOException {
+        if (stubs.isEmpty()) {
+            for (int i = 0; i < 2; i++) {
+                HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+                server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+                server.createContext("/users", exchange -> {
+                    int every = slowEvery.get();
+                    if (every > 0 && calls.incrementAndGet() % every == 0) {
+                        try {
+                            Thread.sleep(delayMillis.get());
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    respond(exchange, "{\"id\":1}");
+                });
+                // Answers a call whose budget has run out at once with 504, as the server's DeadlineFilter does
+                server.createContext("/items", exchange -> {
+                    long budget = Long.parseLong(exchange.getRequestHeaders().getFirst(DeadlineBudgets.HEADER));
+                    smallestBudget.accumulateAndGet(budget, Math::min);
+                    if (budget <= 0) {
+                        exchange.sendResponseHeaders(504, -1);
+                        exchange.close();
+                        return;
+                    }
+                    try {
+                        Thread.sleep(itemDelayMillis.get());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    respond(exchange, "{\"id\":1}");
+                });
+                server.createContext("/actuator/health", exchange -> respond(exchange, "{}"));
+                server.start();
+                stubs.add(server);
+            }
+        }
+        registry.add("shareit-server.url", () -> stubs.stream()
+                .map(server -> "http://localhost:" + server.getAddress().getPort())
+                .collect(Collectors.joining(",")));
+    }
+
+    @AfterAll
+    static void stopServers() {
+        stubs.forEach(server -> server.stop(0));
+    }
+
+    @BeforeEach
+    void setUp() {
+        calls.set(0);
+        slowEvery.set(0);
+        delayMillis.set(0);
+        itemDelayMillis.set(0);
+        smallestBudget.set(Long.MAX_VALUE);
+    }
+
+    @Test
+    void get_WhenFewCallsAreSlow_ShouldAnswerThemFromHedgesAndCancelTheSlowCalls() throws Exception {
+        callUsers(200);
+        slowEvery.set(25);
+        delayMillis.set(1000);
+
+        long[] latencies = callUsers(300);
+
+        assertTrue(percentile(latencies, 0.99) < 500, "p99 " + percentile(latencies, 0.99) + " ms");
+        assertTrue(counter("shareit.gateway.hedge.won") > 0);
+        Thread.sleep(100);
+        for (ServerNode node : serverNodes.getNodes()) {
+            assertEquals(0, node.getOutstanding(), node.getBaseUrl());
+        }
+    }
+
+    @Test
+    void get_WhenEveryCallIsSlow_ShouldHedgeNoMoreThanBudget() {
+        callUsers(200);
+        slowEvery.set(1);
+        delayMillis.set(50);
+
+        callUsers(200);
+
+        // 5% of 400 calls, plus the ten hedges' worth the budget may have saved up
+        assertTrue(counter("shareit.gateway.hedge.sent") <= 30, "sent " + counter("shareit.gateway.hedge.sent"));
+        assertTrue(counter("shareit.gateway.hedge.throttled") > 0);
+    }
+
+    @Test
+    void get_WhenBudgetRunsOutBeforeHedgeDelay_ShouldNotHedgeAndAnswerFromPrimary() {
+        for (int i = 0; i < 200; i++) {
+            assertEquals(HttpStatus.OK, itemClient.get(1L, 1L, null).join().getStatusCode());
+        }
+        itemDelayMillis.set(50);
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(HttpStatus.OK, itemClient.get(1L, 1L, null).join().getStatusCode());
+        }
+
+        assertEquals(0, meterRegistry.get("shareit.gateway.hedge.sent").tag("client", "ItemClient").counter().count());
+        assertTrue(smallestBudget.get() > 0, "smallest budget " + smallestBudget.get());
+    }
+
+    private long[] callUsers(int count) {
+        long[] latencies = new long[count];
+        for (int i = 0; i < count; i++) {
+            long start = System.nanoTime();
+            assertEquals(HttpStatus.OK, userClient.get(1L, null).join().getStatusCode());
+            latencies[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        return latencies;
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).tag("client", "UserClient").counter().count();
+    }
+
+    private static long percentile(long[] latencies, double percentile) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(sorted.length * percentile) - 1];
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void get_ShouldReturnStoredResponseOfCurrentGeneration() {
+        ResponseCache cache = cache(10);
+        CachedResponse response = response("[]");
+
+        cache.put("/items|1", "items", response, cache.generation("items"));
+
+        assertSame(response, cache.get("/items|1", "items"));
+        assertNull(cache.get("/items|2", "items"));
+    }
+
+    @Test
+    void put_FetchedBeforeInvalidation_ShouldNotStore() {
+        ResponseCache cache = cache(10);
+        long fetchedAt = cache.generation("items");
+
+        cache.invalidate("items");
+        cache.put("/items|1", "items", response("[]"), fetchedAt);
+
+        assertNull(cache.get("/items|1", "items"));
+    }
+
+    @Test
+    void invalidate_ThroughAnotherClient_ShouldHideEntriesEmbeddingTheRoute() {
+        ResponseCacheFactory factory = new ResponseCacheFactory(true, 10, Duration.ofSeconds(5),
+                DataSize.ofKilobytes(256), meterRegistry);
+        ResponseCache items = factory.create("ItemClient");
+        ResponseCache bookings = factory.create("BookingClient");
+        items.put("/items/1|1", "items", response("{\"id\":1}"), items.generation("items"));
+
+        bookings.invalidate("bookings");
+
+        assertNull(items.get("/items/1|1", "items"));
+    }
+
+    @Test
+    void invalidate_OfUnrelatedRoute_ShouldKeepEntries() {
+        ResponseCacheFactory factory = new ResponseCacheFactory(true, 10, Duration.ofSeconds(5),
+                DataSize.ofKilobytes(256), meterRegistry);
+        ResponseCache items = factory.create("ItemClient");
+        ResponseCache requests = factory.create("RequestClient");
+        CachedResponse response = response("{\"id\":1}");
+        items.put("/items/1|1", "items", response, items.generation("items"));
+
+        requests.invalidate("requests");
+
+        assertSame(response, items.get("/items/1|1", "items"));
+    }
+
+    @Test
+    void invalidate_OfUsers_ShouldHideEveryRouteNamingThem() {
+        ResponseCache cache = cache(10);
+        for (String route : new String[]{"users", "items", "bookings", "requests"}) {
+            cache.put("/" + route + "|1", route, response("[]"), cache.generation(route));
+        }
+
+        cache.invalidate("users");
+
+        for (String route : new String[]{"users", "items", "bookings", "requests"}) {
+            assertNull(cache.get("/" + route + "|1", route), route);
+        }
+    }
+
+    @Test
+    void put_BeyondMaxEntries_ShouldEvict() {
+        ResponseCache cache = cache(2);
+
+        for (int i = 0; i < 10; i++) {
+            cache.put("/items/" + i + "|1", "items", response("{}"), cache.generation("items"));
+        }
+
+        assertTrue(cache.size() <= 2, "size " + cache.size());
+    }
+
+    @Test
+    void put_WhenDisabled_ShouldKeepNothing() {
+        ResponseCache cache = cache(0);
+
+        cache.put("/items|1", "items", response("[]"), cache.generation("items"));
+
+        assertNull(cache.get("/items|1", "items"));
+    }
+
+    @Test
+    void ttlNanos_ShouldFollowCacheControl() {
+        ResponseCache cache = cache(10);
+        HttpHeaders none = new HttpHeaders();
+        HttpHeaders tagOnly = new HttpHeaders();
+        tagOnly.setETag("\"1\"");
+        HttpHeaders shorter = new HttpHeaders();
+        shorter.setCacheControl("max-age=2");
+        HttpHeaders longer = new HttpHeaders();
+        longer.setCacheControl("max-age=60");
+        HttpHeaders noStore = new HttpHeaders();
+        noStore.setCacheControl("no-store");
+        HttpHeaders noCache = new HttpHeaders();
+        noCache.setCacheControl("no-cache");
+        HttpHeaders noCacheWithTag = new HttpHeaders();
+        noCacheWithTag.setCacheControl("no-cache");
+        noCacheWithTag.setETag("\"1\"");
+
+        assertNull(cache.ttlNanos(none, 2));
+        assertEquals(0L, cache.ttlNanos(tagOnly, 2));
+        assertEquals(TimeUnit.SECONDS.toNanos(2), cache.ttlNanos(shorter, 2));
+        assertEquals(TimeUnit.SECONDS.toNanos(5), cache.ttlNanos(longer, 2));
+        assertNull(cache.ttlNanos(noStore, 2));
+        assertNull(cache.ttlNanos(noCache, 2));
+        assertEquals(0L, cache.ttlNanos(noCacheWithTag, 2));
+        assertNull(cache.ttlNanos(shorter, 2048));
+    }
+
+    private ResponseCache cache(int maxEntries) {
+        return new ResponseCache("ItemClient", maxEntries, Duration.ofSeconds(5), 1024, new CacheGenerations(),
+                meterRegistry);
+    }
+
+    private static CachedResponse response(String body) {
+        return new CachedResponse(HttpStatus.OK, new HttpHeaders(), body.getBytes(StandardCharsets.UTF_8),
+                System.nanoTime() + TimeUnit.SECONDS.toNanos(5));
+    }
+}
@@ -0,0 +1,182 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.user.UserClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the clients against three local stubs of the server, each counting the calls it gets
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "shareit-gateway.cache.enabled=false",
+        "shareit-gateway.nodes.outlier.consecutive-failures=2",
+        "shareit-gateway.nodes.outlier.ejection-time=1m",
+        "shareit-gateway.nodes.health-check.interval=100ms"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class ServerNodesTest {
+
+    private static final List<StubNode> stubs = new ArrayList<>();
+
+    @Autowired
+    private UserClient userClient;
+
+    @Autowired
+    private ServerNodes serverNodes;
+
+    @DynamicPropertySource
+    static void serverUrls(DynamicPropertyRegistry registry) throws IOException {
+        if (stubs.isEmpty()) {
+            for (int i = 0; i < 3; i++) {
+                stubs.add(new StubNode());
+            }
+        }
+        registry.add("shareit-server.url", () -> stubs.stream()
+                .map(StubNode::url)
+                .collect(Collectors.joining(",")));
+    }
+
+    @AfterAll
+    static void stopServers() {
+        stubs.forEach(stub -> stub.server.stop(0));
+    }
+
+    @BeforeEach
+    void setUp() {
+        stubs.forEach(StubNode::reset);
+    }
+
+    @Test
+    void get_WithSeveralNodes_ShouldSpreadCallsOverAll() {
+        callUsers(60);
+
+        for (StubNode stub : stubs) {
+            assertTrue(stub.calls.get() > 0, stub.url() + " got no calls");
+        }
+    }
+
+    @Test
+    void get_WhenNodeIsBusy_ShouldPreferLessBusyNodes() {
+        ServerNode busy = node(stubs.get(0));
+        serverNodes.start(busy);
+        serverNodes.start(busy);
+
+        callUsers(30);
+
+        assertEquals(0, stubs.get(0).calls.get());
+        assertEquals(30, stubs.get(1).calls.get() + stubs.get(2).calls.get());
+    }
+
+    @Test
+    void get_WhenNodeKeepsFailing_ShouldEjectIt() {
+        StubNode failing = stubs.get(2);
+        failing.status = 502;
+
+        callUsers(30);
+
+        assertEquals(2, failing.calls.get());
+        assertFalse(node(failing).isAvailable(System.nanoTime()));
+    }
+
+    @Test
+    void get_WhenHealthCheckFails_ShouldSkipNodeUntilItRecovers() throws Exception {
+        StubNode sick = stubs.get(1);
+        sick.healthStatus = 503;
+        awaitHealthy(node(sick), false);
+
+        callUsers(30);
+        assertEquals(0, sick.calls.get());
+
+        sick.healthStatus = 200;
+        awaitHealthy(node(sick), true);
+        callUsers(60);
+        assertTrue(sick.calls.get() > 0);
+    }
+
+    @Test
+    void get_WhenNoNodeIsAvailable_ShouldStillCallOne() throws Exception {
+        stubs.forEach(stub -> stub.healthStatus = 503);
+        for (StubNode stub : stubs) {
+            awaitHealthy(node(stub), false);
+        }
+
+        assertEquals(HttpStatus.OK, userClient.get(1L, null).join().getStatusCode());
+    }
+
+    private void callUsers(int count) {
+        for (int i = 0; i < count; i++) {
+            userClient.get(1L, null).join();
+        }
+    }
+
+    private ServerNode node(StubNode stub) {
+        return serverNodes.getNodes().stream()
+                .filter(node -> node.getBaseUrl().equals(stub.url()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static void awaitHealthy(ServerNode node, boolean healthy) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (node.isHealthy() != healthy) {
+            assertTrue(System.currentTimeMillis() < deadline, node.getBaseUrl() + " never became " + healthy);
+            Thread.sleep(20);
+        }
+    }
+
+    private static class StubNode {
+
+        final HttpServer server;
+        final AtomicInteger calls = new AtomicInteger();
+        volatile int status = 200;
+        volatile int healthStatus = 200;
+
+        StubNode() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.createContext("/users", exchange -> {
+                calls.incrementAndGet();
+                respond(exchange, status, "{\"id\":1}");
+            });
+            server.createContext("/actuator/health", exchange -> respond(exchange, healthStatus, "{}"));
+            server.start();
+        }
+
+        String url() {
+            return "http://localhost:" + server.getAddress().getPort();
+        }
+
+        void reset() {
+            calls.set(0);
+            status = 200;
+            healthStatus = 200;
+        }
+
+        private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            exchange.getResponseBody().write(bytes);
+            exchange.close();
+        }
+    }
+}
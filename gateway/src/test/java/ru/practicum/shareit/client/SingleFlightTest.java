@@ -0,0 +1,125 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void execute_WithSameKeyInFlight_ShouldShareOneCall() throws Exception {
+        SingleFlight<String> singleFlight = new SingleFlight<>("ItemClient", true, meterRegistry);
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<String> leader = singleFlight.execute("/items/1", () -> {
+            calls.incrementAndGet();
+            return upstream;
+        });
+        CompletableFuture<String> follower = singleFlight.execute("/items/1", () -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+        upstream.complete("item");
+
+        assertEquals(1, calls.get());
+        assertEquals("item", leader.get());
+        assertEquals("item", follower.get());
+    }
+
+    @Test
+    void execute_AfterCallFinished_ShouldStartNewCall() {
+        SingleFlight<String> singleFlight = new SingleFlight<>("ItemClient", true, meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+
+        singleFlight.execute("/items/1", () -> CompletableFuture.completedFuture("first " + calls.incrementAndGet()));
+        String second = singleFlight.execute("/items/1",
+                () -> CompletableFuture.completedFuture("second " + calls.incrementAndGet())).join();
+
+        assertEquals(2, calls.get());
+        assertEquals("second 2", second);
+    }
+
+    @Test
+    void execute_WithDifferentKeys_ShouldNotShare() {
+        SingleFlight<String> singleFlight = new SingleFlight<>("ItemClient", true, meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+
+        singleFlight.execute("/items/1", () -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+        singleFlight.execute("/items/2", () -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void execute_WhenCallFails_ShouldFailEveryCallerWithTheCause() {
+        SingleFlight<String> singleFlight = new SingleFlight<>("ItemClient", true, meterRegistry);
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        CompletableFuture<String> leader = singleFlight.execute("/items/1", () -> upstream);
+        CompletableFuture<String> follower = singleFlight.execute("/items/1", () -> upstream);
+        upstream.completeExceptionally(new IllegalStateException("down"));
+
+        assertInstanceOf(IllegalStateException.class, assertThrows(ExecutionException.class, leader::get).getCause());
+        assertInstanceOf(IllegalStateException.class, assertThrows(ExecutionException.class, follower::get).getCause());
+    }
+
+    @Test
+    void execute_WhenFollowerCancels_ShouldLeaveLeaderRunning() {
+        SingleFlight<String> singleFlight = new SingleFlight<>("ItemClient", true, meterRegistry);
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        CompletableFuture<String> leader = singleFlight.execute("/items/1", () -> upstream);
+        CompletableFuture<String> follower = singleFlight.execute("/items/1", () -> upstream);
+        follower.cancel(true);
+        upstream.complete("item");
+
+        assertEquals("item", leader.join());
+        assertFalse(upstream.isCancelled());
+    }
+
+    @Test
+    void execute_WhenEveryCallerCancels_ShouldCancelCallAndReleaseKey() {
+        SingleFlight<String> singleFlight = new SingleFlight<>("ItemClient", true, meterRegistry);
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        CompletableFuture<String> leader = singleFlight.execute("/items/1", () -> upstream);
+        CompletableFuture<String> follower = singleFlight.execute("/items/1", () -> upstream);
+        leader.cancel(true);
+        follower.cancel(true);
+        String next = singleFlight.execute("/items/1", () -> CompletableFuture.completedFuture("item")).join();
+
+        assertTrue(upstream.isCancelled());
+        assertEquals("item", next);
+    }
+
+    @Test
+    void execute_WhenDisabled_ShouldCallEveryTime() {
+        SingleFlight<String> singleFlight = new SingleFlight<>("ItemClient", false, meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+
+        singleFlight.execute("/items/1", () -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+        singleFlight.execute("/items/1", () -> {
+            calls.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+
+        assertEquals(2, calls.get());
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SmileServerExchangeTest {
+
+    private static final URI URI_BOOKINGS = URI.create("http://localhost/bookings");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void exchange_WithSmileResponse_ShouldAskForSmileAndAnswerJson() throws Exception {
+        List<Map<String, Object>> bookings = List.of(
+                Map.of("id", 1, "start", "2030-01-01T10:00:00", "status", "APPROVED"),
+                Map.of("id", 2, "start", "2030-01-02T10:00:00", "status", "WAITING")
+        );
+        byte[] smile = new ObjectMapper(new SmileFactory()).writeValueAsBytes(bookings);
+        AtomicReference<HttpHeaders> sent = new AtomicReference<>();
+        SmileServerExchange exchange = new SmileServerExchange((uri, method, headers, body) -> {
+            sent.set(headers);
+            return CompletableFuture.completedFuture(ResponseEntity.ok()
+                    .contentType(SmileServerExchange.APPLICATION_SMILE)
+                    .eTag("\"7\"")
+                    .body(smile));
+        }, objectMapper.getFactory());
+
+        ResponseEntity<byte[]> response = exchange.exchange(URI_BOOKINGS, HttpMethod.GET, jsonHeaders(), null).get();
+
+        assertEquals(List.of(SmileServerExchange.APPLICATION_SMILE, MediaType.APPLICATION_JSON),
+                sent.get().getAccept());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("\"7\"", response.getHeaders().getETag());
+        assertEquals(objectMapper.writeValueAsString(bookings),
+                new String(response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exchange_WithJsonResponse_ShouldPassItThrough() throws Exception {
+        ResponseEntity<byte[]> json = ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\":\"Not found\"}".getBytes(StandardCharsets.UTF_8));
+        SmileServerExchange exchange = new SmileServerExchange(
+                (uri, method, headers, body) -> CompletableFuture.completedFuture(json), objectMapper.getFactory()
+        );
+
+        assertSame(json, exchange.exchange(URI_BOOKINGS, HttpMethod.GET, jsonHeaders(), null).get());
+    }
+
+    @Test
+    void exchangeDetached_WhenCancelled_ShouldCancelTheCall() {
+        CompletableFuture<ResponseEntity<byte[]>> call = new CompletableFuture<>();
+        SmileServerExchange exchange = new SmileServerExchange(
+                (uri, method, headers, body) -> call, objectMapper.getFactory()
+        );
+
+        exchange.exchangeDetached(URI_BOOKINGS, HttpMethod.GET, jsonHeaders(), null).cancel(true);
+
+        assertTrue(call.isCancelled());
+    }
+
+    private static HttpHeaders jsonHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        return headers;
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.request.RequestClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Runs the streamed list calls against a local stub of the server that writes its lists in chunks
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "shareit-gateway.cache.enabled=false",
+        "shareit-gateway.bulkhead.max-concurrent=1",
+        "shareit-gateway.streaming.start-timeout=200ms"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class StreamedRelayTest {
+
+    private static final int CHUNKS = 2_000;
+    private static final String CHUNK = "{\"id\":1,\"name\":\"Drill\"},";
+    private static HttpServer server;
+
+    @Autowired
+    private ItemClient itemClient;
+
+    @Autowired
+    private RequestClient requestClient;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) throws IOException {
+        if (server == null) {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.createContext("/items", exchange -> {
+                exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+                exchange.sendResponseHeaders(200, 0);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write('[');
+                    for (int i = 0; i < CHUNKS; i++) {
+                        body.write(CHUNK.getBytes(StandardCharsets.UTF_8));
+                        body.flush();
+                    }
+                    body.write("{}]".getBytes(StandardCharsets.UTF_8));
+                } catch (IOException ignored) {
+                    // the gateway dropped the connection
+                }
+            });
+            server.createContext("/requests/all", exchange -> {
+                byte[] bytes = "{\"error\":\"User not found\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+                exchange.sendResponseHeaders(404, bytes.length);
+                exchange.getResponseBody().write(bytes);
+                exchange.close();
+            });
+            server.start();
+        }
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void getStreamed_ShouldRelayWholeBodyAndFreeBulkheadAfterwards() throws Exception {
+        for (long userId = 1; userId <= 2; userId++) {
+            ResponseEntity<StreamingResponseBody> response = itemClient.getStreamed(userId).get(5, TimeUnit.SECONDS);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            response.getBody().writeTo(out);
+
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+            assertEquals("[" + CHUNK.repeat(CHUNKS) + "{}]", out.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void getStreamed_WhenCallerGoesAway_ShouldDropConnectionAndFreeBulkhead() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = itemClient.getStreamed(1L).get(5, TimeUnit.SECONDS);
+        OutputStream broken = new OutputStream() {
+            private int written;
+
+            @Override
+            public void write(int b) throws IOException {
+                if (++written > 100) {
+                    throw new IOException("Broken pipe");
+                }
+            }
+        };
+
+        assertThrows(IOException.class, () -> response.getBody().writeTo(broken));
+        assertEquals(HttpStatus.OK, itemClient.getStreamed(2L).get(5, TimeUnit.SECONDS).getStatusCode());
+    }
+
+    @Test
+    void getStreamed_WhenBodyIsNeverWritten_ShouldDropConnectionAndFreeBulkheadAfterStartTimeout() throws Exception {
+        ResponseEntity<StreamingResponseBody> abandoned = itemClient.getStreamed(1L).get(5, TimeUnit.SECONDS);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+                itemClient.getStreamed(2L).get(5, TimeUnit.SECONDS).getStatusCode());
+
+        Thread.sleep(500);
+        ResponseEntity<StreamingResponseBody> next = itemClient.getStreamed(2L).get(5, TimeUnit.SECONDS);
+        assertEquals(HttpStatus.OK, next.getStatusCode());
+        next.getBody().writeTo(OutputStream.nullOutputStream());
+        assertThrows(IOException.class, () -> abandoned.getBody().writeTo(new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void getStreamed_WhenServerRejects_ShouldRelayStatusAndBody() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = requestClient.getAllStreamed(1L, null, 10)
+                .get(5, TimeUnit.SECONDS);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("{\"error\":\"User not found\"}", out.toString(StandardCharsets.UTF_8));
+    }
+}
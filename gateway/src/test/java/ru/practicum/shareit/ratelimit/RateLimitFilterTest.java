@@ -0,0 +1,59 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    private final AtomicInteger passed = new AtomicInteger();
+    private final RateLimitFilter filter = new RateLimitFilter(new RateLimits(true, 1_000,
+            new MockEnvironment()
+                    .withProperty("shareit-gateway.rate-limit.writes.rate", "0.5")
+                    .withProperty("shareit-gateway.rate-limit.writes.burst", "1"),
+            new SimpleMeterRegistry()));
+
+    @Test
+    void doFilter_OverLimit_ShouldAnswer429WithRetryAfter() throws Exception {
+        MockHttpServletResponse first = post("1");
+        MockHttpServletResponse second = post("1");
+
+        assertEquals(200, first.getStatus());
+        assertEquals(429, second.getStatus());
+        assertEquals("2", second.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals("{\"error\":\"Too many requests\"}", second.getContentAsString());
+        assertEquals(1, passed.get());
+    }
+
+    @Test
+    void doFilter_OverLimit_ShouldNotAffectOtherUsers() throws Exception {
+        post("1");
+        post("1");
+
+        assertEquals(200, post("2").getStatus());
+    }
+
+    @Test
+    void doFilter_WithoutValidUserId_ShouldPassThrough() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            post("abc");
+        }
+
+        assertEquals(3, passed.get());
+    }
+
+    private MockHttpServletResponse post(String userId) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/items");
+        request.addHeader("X-Sharer-User-Id", userId);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> passed.incrementAndGet());
+        return response;
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    // Users 0, 32 and 64 share a stripe
+    private static final long FIRST = 0;
+    private static final long SECOND = 32;
+    private static final long THIRD = 64;
+
+    @Test
+    void tryAcquire_ShouldLimitEachUserSeparately() {
+        RateLimiter limiter = new RateLimiter(1, 1, 1_000);
+
+        assertEquals(0, limiter.tryAcquire(FIRST, 0));
+        assertTrue(limiter.tryAcquire(FIRST, 0) > 0);
+        assertEquals(0, limiter.tryAcquire(SECOND, 0));
+    }
+
+    @Test
+    void tryAcquire_WhenStripeIsFull_ShouldEvictLeastRecentlyUsedUser() {
+        RateLimiter limiter = new RateLimiter(1, 1, 64);
+        limiter.tryAcquire(FIRST, 0);
+        limiter.tryAcquire(SECOND, 0);
+        limiter.tryAcquire(FIRST, 0);
+
+        limiter.tryAcquire(THIRD, 0);
+
+        assertEquals(2, limiter.size());
+        assertTrue(limiter.tryAcquire(FIRST, 0) > 0);
+        assertEquals(0, limiter.tryAcquire(SECOND, 0));
+    }
+
+    @Test
+    void tryAcquire_WhenStripeIsFull_ShouldDropFullBucketsFirst() {
+        RateLimiter limiter = new RateLimiter(1, 1, 64);
+        long second = 1_000_000_000L;
+        limiter.tryAcquire(FIRST, 0);
+        limiter.tryAcquire(SECOND, second);
+
+        limiter.tryAcquire(THIRD, second + second / 2);
+
+        assertEquals(2, limiter.size());
+        assertTrue(limiter.tryAcquire(SECOND, second + second / 2) > 0);
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long INTERVAL = 100;
+
+    @Test
+    void tryAcquire_ShouldAllowBurstThenAskToWait() {
+        TokenBucket bucket = new TokenBucket(INTERVAL, 3, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(INTERVAL, bucket.tryAcquire(0));
+        assertEquals(INTERVAL - 40, bucket.tryAcquire(40));
+    }
+
+    @Test
+    void tryAcquire_ShouldRefillOneTokenPerInterval() {
+        TokenBucket bucket = new TokenBucket(INTERVAL, 2, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        assertEquals(0, bucket.tryAcquire(INTERVAL));
+        assertTrue(bucket.tryAcquire(INTERVAL) > 0);
+    }
+
+    @Test
+    void tryAcquire_AfterLongIdle_ShouldNotSaveMoreThanBurst() {
+        TokenBucket bucket = new TokenBucket(INTERVAL, 2, 0);
+        long later = INTERVAL * 1_000;
+
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(0, bucket.tryAcquire(later));
+        assertTrue(bucket.tryAcquire(later) > 0);
+    }
+
+    @Test
+    void isFull_ShouldTurnTrueOnceAllTakenTokensAreBack() {
+        TokenBucket bucket = new TokenBucket(INTERVAL, 2, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        assertFalse(bucket.isFull(INTERVAL));
+        assertTrue(bucket.isFull(2 * INTERVAL));
+    }
+}
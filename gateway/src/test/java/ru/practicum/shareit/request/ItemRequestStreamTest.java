@@ -0,0 +1,94 @@
+package ru.practicum.shareit.request;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Runs the request feed relay against a local stub of the server that answers unknown users with 404
+@SpringBootTest(properties = "shareit-gateway.rate-limit.enabled=false")
+@AutoConfigureMockMvc
+class ItemRequestStreamTest {
+
+    private static final String EVENT = "event:request\ndata:{\"id\":1}\n\n";
+    private static HttpServer server;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) throws IOException {
+        if (server == null) {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            server.createContext("/requests/stream", exchange -> {
+                if ("404".equals(exchange.getRequestHeaders().getFirst("X-Sharer-User-Id"))) {
+                    byte[] bytes = "{\"error\":\"User not found\"}".getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+                    exchange.sendResponseHeaders(404, bytes.length);
+                    exchange.getResponseBody().write(bytes);
+                    exchange.close();
+                    return;
+                }
+                exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, "text/event-stream");
+                exchange.sendResponseHeaders(200, 0);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(EVENT.getBytes(StandardCharsets.UTF_8));
+                }
+            });
+            server.start();
+        }
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void streamRequests_WhenServerRejects_ShouldRelayStatusAndBody() throws Exception {
+        MvcResult result = mockMvc.perform(get("/requests/stream").header("X-Sharer-User-Id", 404)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound())
+                .andExpect(content().json("{\"error\":\"User not found\"}"));
+    }
+
+    @Test
+    void streamRequests_ShouldRelayEvents() throws Exception {
+        MvcResult result = mockMvc.perform(get("/requests/stream").header("X-Sharer-User-Id", 1)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+        for (int i = 0; i < 100 && !result.getResponse().getContentAsString().contains(EVENT); i++) {
+            Thread.sleep(20);
+        }
+
+        assertEquals(EVENT, result.getResponse().getContentAsString());
+    }
+}
@@ -3,12 +3,15 @@ package ru.practicum.shareit.booking.controller;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.BookingCategory;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.streaming.JsonListStreamer;
 
 import java.util.List;
 
@@ -20,6 +23,7 @@ public class BookingController {
 
     BookingService bookingService;
     BookingMapper bookingMapper;
+    JsonListStreamer jsonListStreamer;
 
     @PostMapping
     public BookingDtoOut addBooking(@RequestHeader("X-Sharer-User-Id") Long userId, @RequestBody BookingDtoIn bookingData) {
@@ -39,9 +43,13 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDtoOut> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                              @RequestParam(name = "category", defaultValue = "ALL") String category) {
-        return bookingMapper.toBookingDtoOutList(bookingService.getUserBookings(userId, BookingCategory.valueOf(category)));
+    public ResponseEntity<StreamingResponseBody> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                 @RequestParam(name = "category", defaultValue = "ALL") String category) {
+        BookingCategory bookingCategory = BookingCategory.valueOf(category);
+        return jsonListStreamer.stream(
+                () -> bookingService.streamUserBookings(userId, bookingCategory),
+                bookingMapper::toBookingDtoOutList
+        );
     }
 
     @GetMapping("/owner")
@@ -1,59 +1,81 @@
 package ru.practicum.shareit.booking.repository;
 
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static ru.practicum.shareit.streaming.JsonListStreamer.FETCH_SIZE;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    Optional<Booking> findByItemId(Long itemId);
+    boolean existsByItem_IdAndBooker_IdAndStatusAndEndBefore(Long itemId, Long bookerId, BookingStatus status,
+                                                             LocalDateTime dateTime);
 
     List<Booking> findByEndBefore(LocalDateTime dateTime);
 
     List<Booking> findByStartAfter(LocalDateTime dateTime);
 
-
-    @Query(
-            "SELECT b FROM Booking as b " +
-            "WHERE booker.id = ?1 " +
-            "ORDER BY start DESC"
-    )
-    List<Booking> findAllByBookerId(Long bookerId);
-
-    @Query("SELECT b FROM Booking b " +
-            "WHERE booker.id = ?1 " +
-            "AND start < CURRENT_TIMESTAMP " +
-            "AND end > CURRENT_TIMESTAMP " +
-            "ORDER BY start DESC")
-    List<Booking> findCurrentByBookerId(Long bookerId);
-
-    @Query("SELECT b FROM Booking b " +
-            "WHERE booker.id = ?1 " +
-            "AND end < CURRENT_TIMESTAMP " +
-            "ORDER BY start DESC")
-    List<Booking> findPastByBookerId(Long bookerId);
-
-    @Query("SELECT b FROM Booking b " +
-            "WHERE booker.id = ?1 " +
-            "AND start > CURRENT_TIMESTAMP " +
-            "ORDER BY start DESC")
-    List<Booking> findFutureByBookerId(Long bookerId);
-
-    @Query("SELECT b FROM Booking b " +
-            "WHERE booker.id = ?1 " +
-            "AND status = 'WAITING'" +
-            "ORDER BY start DESC")
-    List<Booking> findWaitingByBookerId(Long bookerId);
-
-    @Query("SELECT b FROM Booking b " +
-            "WHERE booker.id = ?1 " +
-            "AND status = 'REJECTED'" +
-            "ORDER BY start DESC")
-    List<Booking> findRejectedByBookerId(Long bookerId);
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker " +
+            "WHERE b.item.id IN ?1 " +
+            "AND b.end < ?2")
+    List<Booking> findEndedByItemIdIn(Collection<Long> itemIds, LocalDateTime dateTime);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker " +
+            "WHERE b.item.id IN ?1 " +
+            "AND b.start > ?2")
+    List<Booking> findUpcomingByItemIdIn(Collection<Long> itemIds, LocalDateTime dateTime);
+
+    // A booker's bookings, read row by row; item and booker come in the same row, since every booking needs them
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker " +
+            "WHERE b.booker.id = ?1 " +
+            "ORDER BY b.start DESC")
+    Stream<Booking> streamAllByBookerId(Long bookerId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker " +
+            "WHERE b.booker.id = ?1 " +
+            "AND b.start < CURRENT_TIMESTAMP " +
+            "AND b.end > CURRENT_TIMESTAMP " +
+            "ORDER BY b.start DESC")
+    Stream<Booking> streamCurrentByBookerId(Long bookerId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker " +
+            "WHERE b.booker.id = ?1 " +
+            "AND b.end < CURRENT_TIMESTAMP " +
+            "ORDER BY b.start DESC")
+    Stream<Booking> streamPastByBookerId(Long bookerId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker " +
+            "WHERE b.booker.id = ?1 " +
+            "AND b.start > CURRENT_TIMESTAMP " +
+            "ORDER BY b.start DESC")
+    Stream<Booking> streamFutureByBookerId(Long bookerId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker " +
+            "WHERE b.booker.id = ?1 " +
+            "AND b.status = 'WAITING' " +
+            "ORDER BY b.start DESC")
+    Stream<Booking> streamWaitingByBookerId(Long bookerId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker " +
+            "WHERE b.booker.id = ?1 " +
+            "AND b.status = 'REJECTED' " +
+            "ORDER BY b.start DESC")
+    Stream<Booking> streamRejectedByBookerId(Long bookerId);
 
     @Query(
             "SELECT b FROM Booking as b " +
@@ -4,6 +4,7 @@ import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingCategory;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface BookingService {
     Booking addBooking(Long userId, Booking booking);
@@ -12,7 +13,7 @@ public interface BookingService {
 
     Booking getBooking(Long userId, Long bookingId);
 
-    List<Booking> getUserBookings(Long userId, BookingCategory category);
+    Stream<Booking> streamUserBookings(Long userId, BookingCategory category);
 
     List<Booking> getUserItemsBookings(Long userId, BookingCategory category);
 }
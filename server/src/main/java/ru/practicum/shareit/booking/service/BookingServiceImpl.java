@@ -13,12 +13,14 @@ import ru.practicum.shareit.exception.BookingNotFoundException;
 import ru.practicum.shareit.exception.InternalValidationException;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.counter.service.ItemCounterService;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Stream;
 
 @Transactional
 @Service
@@ -29,6 +31,7 @@ public class BookingServiceImpl implements BookingService {
     BookingRepository bookingRepository;
     ItemRepository itemRepository;
     UserRepository userRepository;
+    ItemCounterService itemCounterService;
 
     @Override
     public Booking addBooking(Long userId, Booking booking) {
@@ -76,7 +79,11 @@ public class BookingServiceImpl implements BookingService {
             throw new InternalValidationException("Invalid 'approved' parameter value (can be true or false)");
         }
 
+        boolean wasApproved = booking.getStatus() == BookingStatus.APPROVED;
         booking.setStatus(isApproved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+        if (isApproved != wasApproved) {
+            itemCounterService.addRentals(item.getId(), isApproved ? 1 : -1);
+        }
 
         return bookingRepository.save(booking);
     }
@@ -99,20 +106,21 @@ public class BookingServiceImpl implements BookingService {
         return booking;
     }
 
+    // The stream reads from an open cursor, so the caller's transaction has to outlive it
     @Override
-    public List<Booking> getUserBookings(Long userId, BookingCategory category) {
+    public Stream<Booking> streamUserBookings(Long userId, BookingCategory category) {
         userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException(
                         String.format("User with id %d not found", userId)
                 ));
 
         return switch (category) {
-            case ALL -> bookingRepository.findAllByBookerId(userId);
-            case CURRENT -> bookingRepository.findCurrentByBookerId(userId);
-            case PAST -> bookingRepository.findPastByBookerId(userId);
-            case FUTURE -> bookingRepository.findFutureByBookerId(userId);
-            case WAITING -> bookingRepository.findWaitingByBookerId(userId);
-            case REJECTED -> bookingRepository.findRejectedByBookerId(userId);
+            case ALL -> bookingRepository.streamAllByBookerId(userId);
+            case CURRENT -> bookingRepository.streamCurrentByBookerId(userId);
+            case PAST -> bookingRepository.streamPastByBookerId(userId);
+            case FUTURE -> bookingRepository.streamFutureByBookerId(userId);
+            case WAITING -> bookingRepository.streamWaitingByBookerId(userId);
+            case REJECTED -> bookingRepository.streamRejectedByBookerId(userId);
         };
     }
 
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.cluster;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// The second-level cache is local to each node and would serve entities another node has since changed
+@Configuration
+@ConditionalOnProperty(name = "shareit.cluster.enabled", havingValue = "true")
+public class ClusterConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheDisabler() {
+        return properties -> {
+            properties.put("hibernate.cache.use_second_level_cache", "false");
+            properties.put("hibernate.cache.use_query_cache", "false");
+        };
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.cluster;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.request.matching.RequestMatcher;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.stream.ItemRequestFeed;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Brings requests made through other nodes into this node's request feed and matching index
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.cluster.enabled", havingValue = "true")
+public class ClusterSync {
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRequestFeed itemRequestFeed;
+    private final RequestMatcher requestMatcher;
+    private final Duration syncInterval;
+    private final Duration reindexInterval;
+    private final Duration lookback;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().daemon().name("cluster-sync").factory());
+
+    // Only touched on the executor's thread
+    private final Map<Long, LocalDateTime> published = new HashMap<>();
+    private boolean synced;
+
+    public ClusterSync(ItemRequestRepository itemRequestRepository,
+                       ItemRequestFeed itemRequestFeed,
+                       RequestMatcher requestMatcher,
+                       @Value("${shareit.cluster.sync-interval:1s}") Duration syncInterval,
+                       @Value("${shareit.cluster.reindex-interval:1m}") Duration reindexInterval,
+                       @Value("${shareit.cluster.lookback:30s}") Duration lookback) {
+        this.itemRequestRepository = itemRequestRepository;
+        this.itemRequestFeed = itemRequestFeed;
+        this.requestMatcher = requestMatcher;
+        this.syncInterval = syncInterval;
+        this.reindexInterval = reindexInterval;
+        this.lookback = lookback;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.scheduleWithFixedDelay(() -> run("sync", this::sync),
+                0, syncInterval.toMillis(), TimeUnit.MILLISECONDS);
+        executor.scheduleWithFixedDelay(() -> run("reindex", requestMatcher::loadIndex),
+                reindexInterval.toMillis(), reindexInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // The first sync only records what is already there
+    void sync() {
+        LocalDateTime since = LocalDateTime.now().minus(lookback);
+        requestMatcher.addToIndex(itemRequestRepository.findOpenIndexedCreatedAfter(since));
+        for (ItemRequest itemRequest : itemRequestRepository.findByCreatedAfterOrderByCreatedAscIdAsc(since)) {
+            if (published.putIfAbsent(itemRequest.getId(), itemRequest.getCreated()) == null && synced) {
+                itemRequestFeed.publish(itemRequest);
+            }
+        }
+        published.values().removeIf(created -> !created.isAfter(since));
+        synced = true;
+    }
+
+    // A task that throws is never run again by the executor
+    private static void run(String task, Runnable work) {
+        try {
+            work.run();
+        } catch (RuntimeException e) {
+            log.warn("Cluster {} failed: {}", task, e.getMessage());
+        }
+    }
+}
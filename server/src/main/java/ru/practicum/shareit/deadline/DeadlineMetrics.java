@@ -0,0 +1,31 @@
+package ru.practicum.shareit.deadline;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+// Requests given up on: expired ones had no time left when they arrived or when they were about to start a
+// transaction, cancelled ones had a query stopped by the database once their time ran out
+@Component
+public class DeadlineMetrics {
+
+    private final Counter expired;
+    private final Counter cancelled;
+
+    public DeadlineMetrics(MeterRegistry meterRegistry) {
+        this.expired = Counter.builder("shareit.server.deadline.exceeded")
+                .tag("outcome", "expired")
+                .register(meterRegistry);
+        this.cancelled = Counter.builder("shareit.server.deadline.exceeded")
+                .tag("outcome", "cancelled")
+                .register(meterRegistry);
+    }
+
+    public void expired() {
+        expired.increment();
+    }
+
+    public void cancelled() {
+        cancelled.increment();
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.deadline;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.exception.DeadlineExceededException;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Transactions of a request with a deadline start with SET LOCAL statement_timeout set to the time left, so
+// Postgres cancels a query nobody is waiting for any more; once the deadline has passed no transaction is started
+// at all. SET LOCAL lasts until the transaction ends, so pooled connections come back without it. On other
+// databases, H2 in tests among them, only the deadline check applies
+@Slf4j
+public class DeadlineTransactionManager extends JpaTransactionManager {
+
+    private volatile Boolean postgres;
+
+    public DeadlineTransactionManager(EntityManagerFactory entityManagerFactory) {
+        super(entityManagerFactory);
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        Long remainingMillis = RequestDeadline.remainingMillis();
+        if (remainingMillis != null && remainingMillis <= 0) {
+            throw new DeadlineExceededException("Deadline exceeded before the transaction began");
+        }
+
+        super.doBegin(transaction, definition);
+        if (remainingMillis == null) {
+            return;
+        }
+
+        EntityManagerHolder holder =
+                (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+        holder.getEntityManager().unwrap(Session.class).doWork(connection -> {
+            if (!isPostgres(connection)) {
+                return;
+            }
+            // Getting the connection took some of the time left; zero would switch the timeout off
+            long timeoutMillis = Math.max(1, RequestDeadline.remainingMillis());
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LOCAL statement_timeout = " + timeoutMillis);
+            } catch (SQLException e) {
+                log.warn("Could not set statement_timeout: {}", e.getMessage());
+            }
+        });
+    }
+
+    private boolean isPostgres(Connection connection) throws SQLException {
+        Boolean result = postgres;
+        if (result == null) {
+            result = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+            postgres = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.deadline;
+
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.TimeUnit;
+
+// When the caller of the current thread's request stops waiting; other threads only get it when it is passed on
+public final class RequestDeadline {
+
+    // Milliseconds the caller will still wait, relative so that gateway and server clocks need not agree
+    public static final String HEADER = "X-Request-Timeout-Ms";
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    static void set(long deadlineNanos) {
+        DEADLINE.set(deadlineNanos);
+    }
+
+    static void clear() {
+        DEADLINE.remove();
+    }
+
+    @Nullable
+    public static Long current() {
+        return DEADLINE.get();
+    }
+
+    // Runs work that continues the request on another thread, such as a streamed response body, under its deadline
+    public static void runWith(@Nullable Long deadlineNanos, Runnable work) {
+        if (deadlineNanos == null) {
+            work.run();
+            return;
+        }
+        set(deadlineNanos);
+        try {
+            work.run();
+        } finally {
+            clear();
+        }
+    }
+
+    @Nullable
+    public static Long remainingMillis() {
+        Long deadline = DEADLINE.get();
+        return (deadline != null) ? TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()) : null;
+    }
+}
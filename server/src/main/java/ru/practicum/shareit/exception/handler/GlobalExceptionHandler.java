@@ -1,9 +1,14 @@
 package ru.practicum.shareit.exception.handler;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ru.practicum.shareit.deadline.DeadlineMetrics;
+import ru.practicum.shareit.exception.DeadlineExceededException;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
@@ -11,8 +16,11 @@ import ru.practicum.shareit.exception.UserNotFoundException;
 import java.util.Map;
 
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private final DeadlineMetrics deadlineMetrics;
+
     @ExceptionHandler({
             UserNotFoundException.class, ItemNotFoundException.class
     })
@@ -20,4 +28,30 @@ public class GlobalExceptionHandler {
     public Map<String, String> handleNotFoundExceptions(final NotFoundException exception) {
         return Map.of("not found: ", exception.getMessage());
     }
+
+    @ExceptionHandler(DeadlineExceededException.class)
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    public Map<String, String> handleDeadlineExceeded(final DeadlineExceededException exception) {
+        deadlineMetrics.expired();
+        return Map.of("error", exception.getMessage());
+    }
+
+    // Postgres cancelling a query at statement_timeout, i.e. when the request's deadline passed
+    @ExceptionHandler({
+            QueryTimeoutException.class, jakarta.persistence.QueryTimeoutException.class
+    })
+    @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+    public Map<String, String> handleQueryTimeout(final RuntimeException exception) {
+        deadlineMetrics.cancelled();
+        return Map.of("error", "Deadline exceeded");
+    }
+
+    // Another write bumped the row's @Version first, e.g. two updates of one user at once
+    @ExceptionHandler({
+            OptimisticLockingFailureException.class, jakarta.persistence.OptimisticLockException.class
+    })
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleConcurrentUpdate(final RuntimeException exception) {
+        return Map.of("error", "Modified concurrently, retry the request");
+    }
 }
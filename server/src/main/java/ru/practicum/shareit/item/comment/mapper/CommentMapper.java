@@ -33,7 +33,8 @@ public class CommentMapper {
                 userRepository.findById(userId)
                         .orElseThrow(() -> new UserNotFoundException(
                                 String.format("User with id %d not found", userId)
-                        ))
+                        )),
+                LocalDateTime.now()
         );
     }
 
@@ -47,7 +48,7 @@ public class CommentMapper {
                 comment.getId(),
                 comment.getText(),
                 userName,
-                LocalDateTime.now()
+                comment.getCreated()
         );
     }
 
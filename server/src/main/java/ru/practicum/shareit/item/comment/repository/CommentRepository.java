@@ -1,11 +1,40 @@
 package ru.practicum.shareit.item.comment.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.comment.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     List<Comment> findByItemId(Long itemId);
+
+    @Query("SELECT c FROM Comment c " +
+            "WHERE c.item.id = ?1 " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<Comment> findLatestByItemId(Long itemId, Pageable pageable);
+
+    // The newest comments of each item, in the order of findLatestByItemId, for a whole list of items at once
+    @Query(value = "SELECT id FROM (" +
+            "SELECT c.id, " +
+            "ROW_NUMBER() OVER (PARTITION BY c.item_id ORDER BY c.created_date DESC, c.id DESC) AS position " +
+            "FROM comments c " +
+            "WHERE c.item_id IN ?1) ranked " +
+            "WHERE position <= ?2", nativeQuery = true)
+    List<Long> findLatestIdsByItemIdIn(Collection<Long> itemIds, int limit);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author " +
+            "WHERE c.id IN ?1 " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<Comment> findWithAuthorByIdIn(Collection<Long> ids);
+
+    @Query("SELECT c FROM Comment c " +
+            "WHERE c.item.id = ?1 " +
+            "AND (c.created < (SELECT o.created FROM Comment o WHERE o.id = ?2) " +
+            "OR (c.created = (SELECT o.created FROM Comment o WHERE o.id = ?2) AND c.id < ?2)) " +
+            "ORDER BY c.created DESC, c.id DESC")
+    List<Comment> findOlderByItemId(Long itemId, Long commentId, Pageable pageable);
 }
@@ -2,6 +2,10 @@ package ru.practicum.shareit.item.comment.service;
 
 import ru.practicum.shareit.item.comment.model.Comment;
 
+import java.util.List;
+
 public interface CommentService {
     Comment postComment(Long userId, Long itemId, Comment comment);
+
+    List<Comment> getItemComments(Long itemId, Long after, Integer size);
 }
@@ -3,18 +3,22 @@ package ru.practicum.shareit.item.comment.service;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.model.Booking;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
-import ru.practicum.shareit.exception.BookingNotFoundException;
 import ru.practicum.shareit.exception.InternalValidationException;
+import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.counter.service.ItemCounterService;
+import ru.practicum.shareit.item.repository.ItemRepository;
 
 import java.time.LocalDateTime;
-import java.util.Objects;
+import java.util.List;
 
+@Transactional
 @Service
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
@@ -22,27 +26,41 @@ public class CommentServiceImpl implements CommentService {
 
     CommentRepository commentRepository;
     BookingRepository bookingRepository;
+    ItemRepository itemRepository;
+    ItemCounterService itemCounterService;
 
     @Override
     public Comment postComment(Long userId, Long itemId, Comment comment) {
-        Booking booking = bookingRepository.findByItemId(itemId)
-                .orElseThrow(() -> new BookingNotFoundException(
-                        String.format("Booking with item %d not found", itemId)
-                ));
-
-        if (booking.getStatus() != BookingStatus.APPROVED) {
-            throw new InternalValidationException(String.format("Item %d has not been rented", itemId));
-        }
-        if (!Objects.equals(booking.getBooker().getId(), userId)) {
-            throw new InternalValidationException("Other users cannot leave comments");
-        }
-        if (!booking.getEnd().isBefore(LocalDateTime.now())) {
-            throw new InternalValidationException("User did not end the rent");
+        boolean rented = bookingRepository.existsByItem_IdAndBooker_IdAndStatusAndEndBefore(
+                itemId, userId, BookingStatus.APPROVED, LocalDateTime.now()
+        );
+        if (!rented) {
+            throw new InternalValidationException(
+                    String.format("User %d has not completed an approved rental of item %d", userId, itemId)
+            );
         }
 
         comment.getAuthor().setId(userId);
         comment.getItem().setId(itemId);
 
-        return commentRepository.save(comment);
+        Comment saved = commentRepository.save(comment);
+        itemCounterService.addReviews(itemId, 1);
+        return saved;
+    }
+
+    // Same keyset paging as item requests: "after" is the id of the last comment of the previous page
+    @Override
+    public List<Comment> getItemComments(Long itemId, Long after, Integer size) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new ItemNotFoundException(String.format("Item with id %d not found", itemId));
+        }
+        if (size == null || size <= 0) {
+            throw new InternalValidationException("Page size must be positive");
+        }
+
+        PageRequest page = PageRequest.ofSize(size);
+        return (after == null)
+                ? commentRepository.findLatestByItemId(itemId, page)
+                : commentRepository.findOlderByItemId(itemId, after, page);
     }
 }
@@ -4,13 +4,17 @@ import jakarta.validation.constraints.Positive;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.mapper.CommentMapper;
 import ru.practicum.shareit.item.comment.service.CommentService;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.streaming.JsonListStreamer;
 
 import java.util.List;
 
@@ -24,19 +28,26 @@ public class ItemController {
     ItemMapper itemMapper;
     CommentService commentService;
     CommentMapper commentMapper;
+    JsonListStreamer jsonListStreamer;
 
+    // The tag is checked before the item is loaded, so an unchanged item costs one version query and no mapping
     @GetMapping("/{itemId}")
     public ItemDto getItemById(@PathVariable Long itemId,
-                               @RequestHeader("X-Sharer-User-Id") Long userId) {
+                               @RequestHeader("X-Sharer-User-Id") Long userId,
+                               WebRequest webRequest) {
+        if (webRequest.checkNotModified(itemService.getItemVersion(itemId).tag() + "-" + userId)) {
+            return null;
+        }
         return itemMapper.toItemDto(
                 itemService.getItemById(itemId), null
         );
     }
 
     @GetMapping
-    public List<ItemDto> getUserItems(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemMapper.toItemDtoList(
-                itemService.getUserItems(userId), userId
+    public ResponseEntity<StreamingResponseBody> getUserItems(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return jsonListStreamer.stream(
+                () -> itemService.streamUserItems(userId),
+                items -> itemMapper.toItemDtoList(items, userId)
         );
     }
 
@@ -79,4 +90,14 @@ public class ItemController {
                 commentService.postComment(userId, itemId, commentMapper.toEntity(commentData, itemId, userId)), userId
         );
     }
+
+    @GetMapping("/{itemId}/comments")
+    public List<CommentDto> getItemComments(@PathVariable Long itemId,
+                                            @RequestHeader("X-Sharer-User-Id") Long userId,
+                                            @RequestParam(name = "after", required = false) Long after,
+                                            @RequestParam(name = "size", defaultValue = "20") Integer size) {
+        return commentMapper.toCommentDto(
+                commentService.getItemComments(itemId, after, size)
+        );
+    }
 }
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.counter.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+@Table(name = "item_counters")
+public class ItemCounter {
+
+    @EmbeddedId
+    ItemCounterId id;
+
+    @Column(name = "rentals")
+    Long rentals;
+
+    @Column(name = "reviews")
+    Long reviews;
+}
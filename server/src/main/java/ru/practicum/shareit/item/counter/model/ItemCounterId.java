@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.counter.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Embeddable
+public class ItemCounterId implements Serializable {
+
+    @Column(name = "item_id")
+    Long itemId;
+
+    @Column(name = "stripe")
+    Integer stripe;
+}
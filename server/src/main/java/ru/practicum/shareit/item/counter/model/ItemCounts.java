@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item.counter.model;
+
+public record ItemCounts(Long itemId, Long rentals, Long reviews) {
+
+    public static ItemCounts empty(Long itemId) {
+        return new ItemCounts(itemId, 0L, 0L);
+    }
+}
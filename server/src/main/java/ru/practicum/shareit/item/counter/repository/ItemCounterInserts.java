@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.counter.repository;
+
+import ru.practicum.shareit.item.counter.model.ItemCounter;
+
+import java.util.List;
+
+public interface ItemCounterInserts {
+
+    void insertAll(List<ItemCounter> counters);
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.counter.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.item.counter.model.ItemCounter;
+
+import java.util.List;
+
+// Counter ids are assigned, so saveAll would merge them and read every stripe first; persist only inserts, and the
+// inserts go out as one JDBC batch
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ItemCounterInsertsImpl implements ItemCounterInserts {
+
+    EntityManager entityManager;
+
+    @Override
+    public void insertAll(List<ItemCounter> counters) {
+        counters.forEach(entityManager::persist);
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item.counter.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.counter.model.ItemCounter;
+import ru.practicum.shareit.item.counter.model.ItemCounterId;
+import ru.practicum.shareit.item.counter.model.ItemCounts;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ItemCounterRepository extends JpaRepository<ItemCounter, ItemCounterId>,
+        ItemCounterInserts {
+
+    @Modifying
+    @Query("UPDATE ItemCounter c " +
+            "SET c.rentals = c.rentals + ?3, c.reviews = c.reviews + ?4 " +
+            "WHERE c.id.itemId = ?1 AND c.id.stripe = ?2")
+    int increment(Long itemId, Integer stripe, long rentals, long reviews);
+
+    @Query("SELECT new ru.practicum.shareit.item.counter.model.ItemCounts(" +
+            "c.id.itemId, SUM(c.rentals), SUM(c.reviews)) " +
+            "FROM ItemCounter c " +
+            "WHERE c.id.itemId IN ?1 " +
+            "GROUP BY c.id.itemId")
+    List<ItemCounts> sumByItemIdIn(Collection<Long> itemIds);
+
+    @Query(value = "SELECT id FROM items WHERE id = ?1 FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockItem(Long itemId);
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.counter.service;
+
+import ru.practicum.shareit.item.counter.model.ItemCounts;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface ItemCounterService {
+    void createCounters(Long itemId);
+
+    void addRentals(Long itemId, long delta);
+
+    void addReviews(Long itemId, long delta);
+
+    Map<Long, ItemCounts> getCounts(Collection<Long> itemIds);
+}
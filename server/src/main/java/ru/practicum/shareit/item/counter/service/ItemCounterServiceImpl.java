@@ -0,0 +1,82 @@
+package ru.practicum.shareit.item.counter.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.counter.model.ItemCounter;
+import ru.practicum.shareit.item.counter.model.ItemCounterId;
+import ru.practicum.shareit.item.counter.model.ItemCounts;
+import ru.practicum.shareit.item.counter.repository.ItemCounterRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Each item has a fixed number of counter rows. A delta goes to a random stripe so that concurrent approvals of
+// one item mostly lock different rows, and reads sum the stripes
+@Transactional(propagation = Propagation.MANDATORY)
+@Service
+public class ItemCounterServiceImpl implements ItemCounterService {
+
+    private final ItemCounterRepository itemCounterRepository;
+    private final int stripes;
+
+    public ItemCounterServiceImpl(ItemCounterRepository itemCounterRepository,
+                                  @Value("${shareit.items.counters.stripes:8}") int stripes) {
+        this.itemCounterRepository = itemCounterRepository;
+        this.stripes = stripes;
+    }
+
+    @Override
+    public void createCounters(Long itemId) {
+        createCounters(itemId, 0, 0, 0);
+    }
+
+    @Override
+    public void addRentals(Long itemId, long delta) {
+        increment(itemId, delta, 0);
+    }
+
+    @Override
+    public void addReviews(Long itemId, long delta) {
+        increment(itemId, 0, delta);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, ItemCounts> getCounts(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+        return itemCounterRepository.sumByItemIdIn(itemIds).stream()
+                .collect(Collectors.toMap(ItemCounts::itemId, Function.identity()));
+    }
+
+    private void increment(Long itemId, long rentals, long reviews) {
+        int stripe = ThreadLocalRandom.current().nextInt(stripes);
+        if (itemCounterRepository.increment(itemId, stripe, rentals, reviews) > 0) {
+            return;
+        }
+
+        // Items saved without going through addItem get their stripes on first use. The item's row lock makes
+        // concurrent first uses wait for the one creating them, after which their update finds the stripe
+        itemCounterRepository.lockItem(itemId);
+        if (itemCounterRepository.increment(itemId, stripe, rentals, reviews) == 0) {
+            createCounters(itemId, stripe, rentals, reviews);
+        }
+    }
+
+    private void createCounters(Long itemId, int stripe, long rentals, long reviews) {
+        List<ItemCounter> counters = IntStream.range(0, stripes)
+                .mapToObj(index -> (index == stripe)
+                        ? new ItemCounter(new ItemCounterId(itemId, index), rentals, reviews)
+                        : new ItemCounter(new ItemCounterId(itemId, index), 0L, 0L))
+                .toList();
+        itemCounterRepository.insertAll(counters);
+    }
+}
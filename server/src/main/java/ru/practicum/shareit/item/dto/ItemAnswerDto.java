@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ItemAnswerDto {
+
+    Long id;
+
+    String name;
+
+    String description;
+
+    Boolean available;
+
+    Long ownerId;
+
+    Long requestId;
+}
@@ -37,4 +37,8 @@ public class ItemDto {
     BookingDtoOut nextBooking;
 
     List<CommentDto> comments;
+
+    Long rentalCount;
+
+    Long reviewCount;
 }
@@ -4,14 +4,17 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.stereotype.Component;
-import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.UserNotFoundException;
 import ru.practicum.shareit.exception.RequestNotFoundException;
 import ru.practicum.shareit.item.comment.mapper.CommentMapper;
+import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.counter.model.ItemCounts;
+import ru.practicum.shareit.item.counter.service.ItemCounterService;
+import ru.practicum.shareit.item.dto.ItemAnswerDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -20,15 +23,23 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class ItemMapper {
 
+    // Only the newest comments are inlined into an item, the rest are paged through GET /items/{id}/comments
+    static final int INLINED_COMMENTS = 10;
+
     CommentRepository commentRepository;
     CommentMapper commentMapper;
 
@@ -37,24 +48,44 @@ public class ItemMapper {
 
     UserRepository userRepository;
     ItemRequestRepository itemRequestRepository;
+    ItemCounterService itemCounterService;
 
     public ItemDto toItemDto(Item item, Long userId) {
-        List<Booking> lastBookingCandidates = bookingRepository.findByEndBefore(LocalDateTime.now())
-                .stream()
-                .sorted(Comparator.comparing(Booking::getEnd))
-                .toList().reversed();
-
-        List<Booking> nextBookingCandidates = bookingRepository.findByStartAfter(LocalDateTime.now())
-                .stream()
-                .sorted(Comparator.comparing(Booking::getEnd))
-                .toList();
+        return toItemDtoList(List.of(item), userId).getFirst();
+    }
 
-        Booking lastBooking = (lastBookingCandidates.isEmpty()) ? null : lastBookingCandidates.getFirst();
-        Booking nextBooking = (nextBookingCandidates.isEmpty()) ? null : nextBookingCandidates.getFirst();
+    // Counters, bookings and inlined comments are read for the whole list at once, so a streamed chunk of items
+    // costs the same handful of queries however many items it holds
+    public List<ItemDto> toItemDtoList(List<Item> items, Long userId) {
+        List<Long> itemIds = items.stream().map(Item::getId).toList();
+        Map<Long, ItemCounts> counts = itemCounterService.getCounts(itemIds);
+        Map<Long, List<Comment>> comments = latestComments(itemIds);
 
-        BookingDtoOut lastBookingDto = (lastBooking == null) ? null : bookingMapper.toBookingDtoOut(lastBooking);
-        BookingDtoOut nextBookingDto = (nextBooking == null) ? null : bookingMapper.toBookingDtoOut(nextBooking);
+        List<Long> ownedItemIds = items.stream()
+                .filter(item -> Objects.equals(item.getOwner().getId(), userId))
+                .map(Item::getId)
+                .toList();
+        Map<Long, Booking> lastBookings = Map.of();
+        Map<Long, Booking> nextBookings = Map.of();
+        if (!ownedItemIds.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            lastBookings = byItem(bookingRepository.findEndedByItemIdIn(ownedItemIds, now),
+                    BinaryOperator.maxBy(Comparator.comparing(Booking::getEnd)));
+            nextBookings = byItem(bookingRepository.findUpcomingByItemIdIn(ownedItemIds, now),
+                    BinaryOperator.minBy(Comparator.comparing(Booking::getEnd)));
+        }
 
+        List<ItemDto> itemDtos = new ArrayList<>(items.size());
+        for (Item item : items) {
+            itemDtos.add(toItemDto(item, lastBookings.get(item.getId()), nextBookings.get(item.getId()),
+                    comments.getOrDefault(item.getId(), List.of()),
+                    counts.getOrDefault(item.getId(), ItemCounts.empty(item.getId()))));
+        }
+        return itemDtos;
+    }
+
+    private ItemDto toItemDto(Item item, Booking lastBooking, Booking nextBooking, List<Comment> comments,
+                              ItemCounts itemCounts) {
         return new ItemDto(
                 item.getId(),
                 item.getName(),
@@ -62,16 +93,37 @@ public class ItemMapper {
                 item.getAvailable(),
                 item.getOwner().getId(),
                 (item.getRequest() != null) ? item.getRequest().getId() : null,
-                (Objects.equals(item.getOwner().getId(), userId)) ? lastBookingDto : null,
-                (Objects.equals(item.getOwner().getId(), userId)) ? nextBookingDto : null,
-                commentMapper.toCommentDto(commentRepository.findByItemId(item.getId()))
+                (lastBooking == null) ? null : bookingMapper.toBookingDtoOut(lastBooking),
+                (nextBooking == null) ? null : bookingMapper.toBookingDtoOut(nextBooking),
+                commentMapper.toCommentDto(comments),
+                itemCounts.rentals(),
+                itemCounts.reviews()
         );
     }
 
-    public List<ItemDto> toItemDtoList(List<Item> items, Long userId) {
-        return items.stream()
-                .map(item -> toItemDto(item, userId))
-                .toList();
+    private Map<Long, List<Comment>> latestComments(List<Long> itemIds) {
+        List<Long> commentIds = commentRepository.findLatestIdsByItemIdIn(itemIds, INLINED_COMMENTS);
+        if (commentIds.isEmpty()) {
+            return Map.of();
+        }
+        return commentRepository.findWithAuthorByIdIn(commentIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+    }
+
+    private static Map<Long, Booking> byItem(List<Booking> bookings, BinaryOperator<Booking> choice) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(), choice));
+    }
+
+    public ItemAnswerDto toItemAnswerDto(Item item) {
+        return new ItemAnswerDto(
+                item.getId(),
+                item.getName(),
+                item.getDescription(),
+                item.getAvailable(),
+                item.getOwner().getId(),
+                (item.getRequest() != null) ? item.getRequest().getId() : null
+        );
     }
 
     public Item toEntity(ItemDto itemData, Long userId) {
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.model;
+
+// Everything an item representation is built from: the item row itself, the counters that move with
+// rentals and comments, so a new comment changes the tag without touching the item row, and the versions of the
+// comment authors, whose names are inlined
+public record ItemVersion(Long version, Long rentals, Long reviews, Long authors) {
+
+    public String tag() {
+        return version + "." + rentals + "." + reviews + "." + authors;
+    }
+}
@@ -1,20 +1,45 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemVersion;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static ru.practicum.shareit.streaming.JsonListStreamer.FETCH_SIZE;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Item> findByOwnerId(Long userId);
 
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    Stream<Item> streamByOwnerId(Long userId);
+
     @Query(
             "SELECT i FROM Item as i WHERE (i.name ILIKE CONCAT('%', ?1, '%')" +
             "OR i.description ILIKE CONCAT('%', ?1, '%')) AND i.available = true"
     )
     List<Item> findByText(String text);
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Item> findByRequest_Id(Long requestId);
-}
\ No newline at end of file
+
+    List<Item> findByRequest_IdIn(Collection<Long> requestIds);
+
+    @Query("SELECT new ru.practicum.shareit.item.model.ItemVersion(" +
+            "i.version, COALESCE(SUM(c.rentals), 0L), COALESCE(SUM(c.reviews), 0L), " +
+            "(SELECT COALESCE(SUM(a.version), 0L) FROM Comment m JOIN m.author a WHERE m.item.id = i.id)) " +
+            "FROM Item i LEFT JOIN ItemCounter c ON c.id.itemId = i.id " +
+            "WHERE i.id = ?1 " +
+            "GROUP BY i.id, i.version")
+    Optional<ItemVersion> findVersionById(Long itemId);
+}
@@ -1,15 +1,19 @@
 package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemVersion;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ItemService {
     List<Item> getAllItems();
 
     Item getItemById(Long itemId);
 
-    List<Item> getUserItems(Long userId);
+    ItemVersion getItemVersion(Long itemId);
+
+    Stream<Item> streamUserItems(Long userId);
 
     List<Item> getItemsMatchingText(String text);
 
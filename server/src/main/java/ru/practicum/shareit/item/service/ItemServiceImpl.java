@@ -3,18 +3,23 @@ package ru.practicum.shareit.item.service;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.InternalValidationException;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.counter.service.ItemCounterService;
+import ru.practicum.shareit.item.event.ItemAddedEvent;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemVersion;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Stream;
 
 @Transactional
 @Service
@@ -24,6 +29,8 @@ public class ItemServiceImpl implements ItemService {
 
     ItemRepository itemRepository;
     UserRepository userRepository;
+    ItemCounterService itemCounterService;
+    ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<Item> getAllItems() {
@@ -39,13 +46,22 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public List<Item> getUserItems(Long userId) {
+    public ItemVersion getItemVersion(Long itemId) {
+        return itemRepository.findVersionById(itemId)
+                .orElseThrow(() -> new ItemNotFoundException(
+                        String.format("Item with id %d not found", itemId)
+                ));
+    }
+
+    // The stream reads from an open cursor, so the caller's transaction has to outlive it
+    @Override
+    public Stream<Item> streamUserItems(Long userId) {
         userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException(
                         String.format("User with id %d not found", userId)
                 ));
 
-        return itemRepository.findByOwnerId(userId);
+        return itemRepository.streamByOwnerId(userId);
     }
 
     @Override
@@ -65,7 +81,10 @@ public class ItemServiceImpl implements ItemService {
                 ));
 
         itemData.getOwner().setId(ownerId);
-        return itemRepository.save(itemData);
+        Item saved = itemRepository.save(itemData);
+        itemCounterService.createCounters(saved.getId());
+        eventPublisher.publishEvent(new ItemAddedEvent(saved));
+        return saved;
     }
 
     @Override
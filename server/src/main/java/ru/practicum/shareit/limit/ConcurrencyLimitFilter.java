@@ -0,0 +1,135 @@
+package ru.practicum.shareit.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// The request feed and actuator endpoints are never limited
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final GradientLimiter limiter;
+    private final Map<RequestClass, Counter> shed = new EnumMap<>(RequestClass.class);
+
+    public ConcurrencyLimitFilter(@Value("${shareit.concurrency-limit.enabled:true}") boolean enabled,
+                                  @Value("${shareit.concurrency-limit.initial-limit:50}") int initialLimit,
+                                  @Value("${shareit.concurrency-limit.min-limit:10}") int minLimit,
+                                  @Value("${shareit.concurrency-limit.max-limit:500}") int maxLimit,
+                                  @Value("${shareit.concurrency-limit.window:100ms}") Duration window,
+                                  @Value("${shareit.concurrency-limit.min-rtt-interval:60s}") Duration minRttInterval,
+                                  @Value("${shareit.concurrency-limit.tolerance:1.5}") double tolerance,
+                                  @Value("${shareit.concurrency-limit.smoothing:0.2}") double smoothing,
+                                  @Value("${shareit.concurrency-limit.write-share:0.3}") double writeShare,
+                                  MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.limiter = new GradientLimiter(initialLimit, minLimit, maxLimit, window.toNanos(),
+                minRttInterval.toNanos(), tolerance, smoothing, writeShare);
+        Gauge.builder("shareit.server.concurrency.limit", limiter, GradientLimiter::getLimit)
+                .register(meterRegistry);
+        for (RequestClass requestClass : RequestClass.values()) {
+            String tag = requestClass.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("shareit.server.concurrency.inflight", limiter, l -> l.getInflight(requestClass))
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            shed.put(requestClass, Counter.builder("shareit.server.concurrency.shed")
+                    .tag("class", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !enabled || path.startsWith("/actuator") || path.equals("/requests/stream");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestClass requestClass = RequestClass.of(request);
+        if (!limiter.tryAcquire(requestClass)) {
+            shed.get(requestClass).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Server is overloaded\"}");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            chain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (completed && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new Release(requestClass, start));
+            } else {
+                release(requestClass, start, completed);
+            }
+        }
+    }
+
+    // A request that failed with an exception may have failed fast or timed out; neither is a latency sample
+    private void release(RequestClass requestClass, long start, boolean completed) {
+        long now = System.nanoTime();
+        limiter.release(requestClass, completed ? now - start : 0, now);
+    }
+
+    // A streamed body is written after the filter has returned, so its slot is held until the response is complete
+    private final class Release implements AsyncListener {
+
+        private final RequestClass requestClass;
+        private final long start;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Release(RequestClass requestClass, long start) {
+            this.requestClass = requestClass;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            if (released.compareAndSet(false, true)) {
+                release(requestClass, start, true);
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            if (released.compareAndSet(false, true)) {
+                release(requestClass, start, false);
+            }
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            onTimeout(event);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
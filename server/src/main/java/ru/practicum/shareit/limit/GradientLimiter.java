@@ -0,0 +1,143 @@
+package ru.practicum.shareit.limit;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// A concurrency limit steered by how far recent latency is from the latency measured at the minimum limit
+public class GradientLimiter {
+
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    private static final int MIN_RTT_SAMPLES = 50;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private final long minRttIntervalNanos;
+    private final double tolerance;
+    private final double smoothing;
+    private final double writeShare;
+    private final int[] inflight = new int[RequestClass.values().length];
+    private int totalInflight;
+    private double limit;
+    private double minRtt;
+    private boolean measuring = true;
+    private boolean measuringStarted;
+    private long measuringSince;
+    private long measuredRttSum;
+    private int measuredSamples;
+    private long nextMeasurement;
+    private long windowStart;
+    private long windowRttSum;
+    private int windowSamples;
+    private int windowMaxInflight;
+
+    public GradientLimiter(int initialLimit, int minLimit, int maxLimit, long windowNanos, long minRttIntervalNanos,
+                           double tolerance, double smoothing, double writeShare) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowNanos = windowNanos;
+        this.minRttIntervalNanos = minRttIntervalNanos;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.writeShare = writeShare;
+        this.limit = initialLimit;
+    }
+
+    public synchronized boolean tryAcquire(RequestClass requestClass) {
+        int current = getLimit();
+        int unusedWriteShare = Math.max(0, writeSlots(current) - inflight[RequestClass.WRITE.ordinal()]);
+        int cap = (requestClass == RequestClass.WRITE) ? current : current - unusedWriteShare;
+        if (totalInflight >= cap) {
+            return false;
+        }
+        inflight[requestClass.ordinal()]++;
+        totalInflight++;
+        return true;
+    }
+
+    // A request that failed before doing its work is released with no latency and only frees its slot
+    public synchronized void release(RequestClass requestClass, long rttNanos, long now) {
+        windowMaxInflight = Math.max(windowMaxInflight, totalInflight);
+        inflight[requestClass.ordinal()]--;
+        totalInflight--;
+        if (rttNanos <= 0) {
+            return;
+        }
+
+        if (measuring) {
+            measure(rttNanos, now);
+            return;
+        }
+        if (now - nextMeasurement >= 0) {
+            startMeasuring(now);
+            return;
+        }
+
+        if (windowSamples == 0) {
+            windowStart = now;
+        }
+        windowRttSum += rttNanos;
+        windowSamples++;
+        if (windowSamples < MIN_WINDOW_SAMPLES || now - windowStart < windowNanos) {
+            return;
+        }
+
+        double shortRtt = (double) windowRttSum / windowSamples;
+        int maxInflight = windowMaxInflight;
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInflight = 0;
+        update(shortRtt, maxInflight);
+    }
+
+    public synchronized int getLimit() {
+        return measuring ? minLimit : (int) limit;
+    }
+
+    public synchronized int getInflight(RequestClass requestClass) {
+        return inflight[requestClass.ordinal()];
+    }
+
+    private void startMeasuring(long now) {
+        measuring = true;
+        measuringStarted = true;
+        measuringSince = now;
+        measuredRttSum = 0;
+        measuredSamples = 0;
+    }
+
+    // Requests admitted before the limit came down may have queued behind others and do not count
+    private void measure(long rttNanos, long now) {
+        if (!measuringStarted) {
+            startMeasuring(now);
+            return;
+        }
+        if (now - rttNanos - measuringSince < 0) {
+            return;
+        }
+        measuredRttSum += rttNanos;
+        if (++measuredSamples < MIN_RTT_SAMPLES) {
+            return;
+        }
+
+        minRtt = (double) measuredRttSum / measuredSamples;
+        measuring = false;
+        nextMeasurement = now + minRttIntervalNanos + ThreadLocalRandom.current().nextLong(minRttIntervalNanos / 10 + 1);
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInflight = 0;
+    }
+
+    private void update(double shortRtt, int maxInflight) {
+        // A limit well above what is used is not raised
+        if (maxInflight < limit / 2 && shortRtt <= tolerance * minRtt) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * minRtt / shortRtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - smoothing) + newLimit * smoothing));
+    }
+
+    private int writeSlots(int current) {
+        return Math.min(current - 1, (int) Math.ceil(current * writeShare));
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.limit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+
+// Reads leave the unused part of the write share free, so a burst of reads is shed before writes
+public enum RequestClass {
+    READ,
+    WRITE;
+
+    public static RequestClass of(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod())
+                ? READ
+                : WRITE;
+    }
+}
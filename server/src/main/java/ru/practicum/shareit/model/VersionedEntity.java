@@ -0,0 +1,21 @@
+package ru.practicum.shareit.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Version;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+// Bumped by Hibernate on every update; read endpoints derive their ETags from it
+@Getter
+@Setter
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@MappedSuperclass
+public abstract class VersionedEntity {
+
+    @Version
+    @Column(name = "version", nullable = false)
+    Long version;
+}
@@ -3,10 +3,18 @@ package ru.practicum.shareit.request.controller;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.request.stream.ItemRequestFeed;
+import ru.practicum.shareit.streaming.JsonListStreamer;
 
 import java.util.List;
 
@@ -18,6 +26,8 @@ public class ItemRequestController {
 
     ItemRequestService itemRequestService;
     ItemRequestMapper itemRequestMapper;
+    ItemRequestFeed itemRequestFeed;
+    JsonListStreamer jsonListStreamer;
 
     @PostMapping
     public ItemRequestDto addItemRequest(@RequestHeader("X-Sharer-User-Id") Long userId,
@@ -27,25 +37,50 @@ public class ItemRequestController {
         );
     }
 
+    // Without a size the whole list is returned, as before paging was added
     @GetMapping
-    public List<ItemRequestDto> getUserItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public List<ItemRequestDto> getUserItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                    @RequestParam(name = "after", required = false) Long after,
+                                                    @RequestParam(name = "size", required = false) Integer size) {
         return itemRequestMapper.toItemRequestDtoList(
-                itemRequestService.getUserItemRequests(userId)
+                itemRequestService.getUserItemRequests(userId, after, size)
         );
     }
 
+    // Answers are still loaded with one query per chunk of requests rather than per request
     @GetMapping("/all")
-    public List<ItemRequestDto> getAllRequests(@RequestHeader(value = "X-Sharer-User-Id") Long userId) {
-        return itemRequestMapper.toItemRequestDtoList(
-                itemRequestService.getAllRequests()
+    public ResponseEntity<StreamingResponseBody> getAllRequests(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
+                                                                @RequestParam(name = "after", required = false) Long after,
+                                                                @RequestParam(name = "size", required = false) Integer size) {
+        return jsonListStreamer.stream(
+                () -> itemRequestService.streamAllRequests(after, size),
+                itemRequestMapper::toItemRequestDtoList
         );
     }
 
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamRequests(@RequestHeader(value = "X-Sharer-User-Id") Long userId) {
+        itemRequestService.checkUserExists(userId);
+        return itemRequestFeed.subscribe();
+    }
+
     @GetMapping("/{requestId}")
     public ItemRequestDto getItemRequest(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
-                                         @PathVariable Long requestId) {
+                                         @PathVariable Long requestId,
+                                         WebRequest webRequest) {
+        if (webRequest.checkNotModified(itemRequestService.getItemRequestVersion(requestId).tag() + "-" + userId)) {
+            return null;
+        }
         return itemRequestMapper.toItemRequestDto(
                 itemRequestService.getItemRequest(requestId)
         );
     }
+
+    @GetMapping("/{requestId}/suggestions")
+    public List<RequestMatchDto> getRequestSuggestions(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
+                                                       @PathVariable Long requestId) {
+        return itemRequestMapper.toRequestMatchDtoList(
+                itemRequestService.getRequestMatches(userId, requestId)
+        );
+    }
 }
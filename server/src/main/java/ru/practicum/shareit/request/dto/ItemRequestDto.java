@@ -2,7 +2,7 @@ package ru.practicum.shareit.request.dto;
 
 import lombok.*;
 import lombok.experimental.FieldDefaults;
-import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemAnswerDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
@@ -23,5 +23,5 @@ public class ItemRequestDto {
 
     LocalDateTime created;
 
-    List<ItemDto> items;
+    List<ItemAnswerDto> items;
 }
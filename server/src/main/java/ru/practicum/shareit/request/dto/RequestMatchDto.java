@@ -0,0 +1,22 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class RequestMatchDto {
+
+    Long itemId;
+
+    String name;
+
+    String description;
+
+    Long ownerId;
+
+    Double score;
+}
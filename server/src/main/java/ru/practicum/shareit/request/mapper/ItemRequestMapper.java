@@ -5,16 +5,20 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.exception.UserNotFoundException;
-import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemAnswerDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestMatch;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
@@ -40,10 +44,46 @@ public class ItemRequestMapper {
     }
 
     public ItemRequestDto toItemRequestDto(ItemRequest itemRequest) {
-        List<ItemDto> items = itemMapper.toItemDtoList(
-                itemRepository.findByRequest_Id(itemRequest.getId()), itemRequest.getRequestor().getId()
+        return toItemRequestDtoList(List.of(itemRequest)).getFirst();
+    }
+
+    public List<ItemRequestDto> toItemRequestDtoList(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return List.of();
+        }
+
+        // Answers for the whole page are loaded with one query instead of one query per request
+        List<Long> requestIds = itemRequests.stream()
+                .map(ItemRequest::getId)
+                .toList();
+        Map<Long, List<ItemAnswerDto>> answers = itemRepository.findByRequest_IdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(
+                        item -> item.getRequest().getId(),
+                        Collectors.mapping(itemMapper::toItemAnswerDto, Collectors.toList())
+                ));
+
+        return itemRequests.stream()
+                .map(itemRequest -> toItemRequestDto(itemRequest, answers.getOrDefault(itemRequest.getId(), List.of())))
+                .toList();
+    }
+
+    public RequestMatchDto toRequestMatchDto(RequestMatch requestMatch) {
+        return new RequestMatchDto(
+                requestMatch.getItem().getId(),
+                requestMatch.getItem().getName(),
+                requestMatch.getItem().getDescription(),
+                requestMatch.getItem().getOwner().getId(),
+                requestMatch.getScore()
         );
+    }
 
+    public List<RequestMatchDto> toRequestMatchDtoList(List<RequestMatch> requestMatches) {
+        return requestMatches.stream()
+                .map(this::toRequestMatchDto)
+                .toList();
+    }
+
+    private ItemRequestDto toItemRequestDto(ItemRequest itemRequest, List<ItemAnswerDto> items) {
         return new ItemRequestDto(
                 itemRequest.getId(),
                 itemRequest.getDescription(),
@@ -52,10 +92,4 @@ public class ItemRequestMapper {
                 items
         );
     }
-
-    public List<ItemRequestDto> toItemRequestDtoList(List<ItemRequest> itemRequests) {
-        return itemRequests.stream()
-                .map(this::toItemRequestDto)
-                .toList();
-    }
 }
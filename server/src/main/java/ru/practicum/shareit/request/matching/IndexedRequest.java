@@ -0,0 +1,4 @@
+package ru.practicum.shareit.request.matching;
+
+public record IndexedRequest(Long id, Long requestorId, String description) {
+}
@@ -0,0 +1,4 @@
+package ru.practicum.shareit.request.matching;
+
+public record RequestCandidate(Long requestId, double score) {
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.request.matching;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.event.ItemAddedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestMatch;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.repository.RequestMatchRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Matches run on the task executor after the item is committed, so adding an item never waits for scoring
+@Slf4j
+@Component
+public class RequestMatcher {
+
+    private final ItemRequestRepository itemRequestRepository;
+    private final RequestMatchRepository requestMatchRepository;
+    private final double minScore;
+    private final int maxMatches;
+    private volatile RequestTokenIndex index = new RequestTokenIndex();
+
+    public RequestMatcher(ItemRequestRepository itemRequestRepository,
+                          RequestMatchRepository requestMatchRepository,
+                          @Value("${shareit.requests.matching.min-score:0.5}") double minScore,
+                          @Value("${shareit.requests.matching.max-matches:20}") int maxMatches) {
+        this.itemRequestRepository = itemRequestRepository;
+        this.requestMatchRepository = requestMatchRepository;
+        this.minScore = minScore;
+        this.maxMatches = maxMatches;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        RequestTokenIndex loaded = new RequestTokenIndex();
+        itemRequestRepository.findAllOpenIndexed().forEach(loaded::add);
+        index = loaded;
+        log.info("Indexed {} open item requests for matching", loaded.size());
+    }
+
+    public void addToIndex(List<IndexedRequest> requests) {
+        RequestTokenIndex index = this.index;
+        requests.forEach(index::add);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onItemRequestCreated(ItemRequestCreatedEvent event) {
+        ItemRequest itemRequest = event.getItemRequest();
+        index.add(new IndexedRequest(
+                itemRequest.getId(),
+                itemRequest.getRequestor().getId(),
+                itemRequest.getDescription()
+        ));
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onItemAdded(ItemAddedEvent event) {
+        Item item = event.getItem();
+        RequestTokenIndex index = this.index;
+        // A request is open until its first answer
+        if (item.getRequest() != null) {
+            index.remove(item.getRequest().getId());
+        }
+        List<RequestCandidate> candidates = index.match(
+                item.getOwner().getId(),
+                Objects.toString(item.getName(), "") + " " + Objects.toString(item.getDescription(), ""),
+                minScore,
+                maxMatches
+        );
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // Requests removed along with their requestor are dropped from the index here rather than on every delete
+        Map<Long, ItemRequest> existing = itemRequestRepository.findAllById(
+                        candidates.stream().map(RequestCandidate::requestId).toList()
+                ).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<RequestMatch> matches = candidates.stream()
+                .filter(candidate -> {
+                    if (existing.containsKey(candidate.requestId())) {
+                        return true;
+                    }
+                    index.remove(candidate.requestId());
+                    return false;
+                })
+                .map(candidate -> new RequestMatch(
+                        null,
+                        existing.get(candidate.requestId()),
+                        item,
+                        candidate.score(),
+                        now
+                ))
+                .toList();
+        if (matches.isEmpty()) {
+            return;
+        }
+
+        requestMatchRepository.saveAll(matches);
+        log.debug("Item {} matched {} open requests", item.getId(), matches.size());
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.request.matching;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+// Inverted index from description tokens to request ids. An item scores against a request by the share of the
+// request's tokens it contains, so only requests sharing at least one token with the item are ever looked at
+public class RequestTokenIndex {
+
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_TOKEN_LENGTH = 3;
+
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, Entry> requests = new ConcurrentHashMap<>();
+
+    public void add(IndexedRequest request) {
+        Set<String> tokens = tokenize(request.description());
+        if (tokens.isEmpty()) {
+            return;
+        }
+
+        remove(request.id());
+        requests.put(request.id(), new Entry(request.requestorId(), tokens));
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, key -> ConcurrentHashMap.newKeySet()).add(request.id());
+        }
+    }
+
+    public void remove(Long requestId) {
+        Entry entry = requests.remove(requestId);
+        if (entry == null) {
+            return;
+        }
+
+        for (String token : entry.tokens()) {
+            postings.computeIfPresent(token, (key, ids) -> {
+                ids.remove(requestId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    public List<RequestCandidate> match(Long ownerId, String text, double minScore, int limit) {
+        Map<Long, Integer> hits = new HashMap<>();
+        for (String token : tokenize(text)) {
+            for (Long requestId : postings.getOrDefault(token, Set.of())) {
+                hits.merge(requestId, 1, Integer::sum);
+            }
+        }
+
+        List<RequestCandidate> candidates = new ArrayList<>();
+        for (Map.Entry<Long, Integer> hit : hits.entrySet()) {
+            Entry entry = requests.get(hit.getKey());
+            if (entry == null || Objects.equals(entry.requestorId(), ownerId)) {
+                continue;
+            }
+
+            double score = (double) hit.getValue() / entry.tokens().size();
+            if (score >= minScore) {
+                candidates.add(new RequestCandidate(hit.getKey(), score));
+            }
+        }
+
+        candidates.sort(Comparator.comparingDouble(RequestCandidate::score).reversed()
+                .thenComparing(RequestCandidate::requestId));
+        return candidates.size() > limit ? List.copyOf(candidates.subList(0, limit)) : candidates;
+    }
+
+    public int size() {
+        return requests.size();
+    }
+
+    static Set<String> tokenize(String text) {
+        if (text == null) {
+            return Set.of();
+        }
+
+        Set<String> tokens = new HashSet<>();
+        for (String token : SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (token.length() >= MIN_TOKEN_LENGTH) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private record Entry(Long requestorId, Set<String> tokens) {
+    }
+}
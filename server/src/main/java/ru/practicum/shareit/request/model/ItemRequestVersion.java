@@ -0,0 +1,11 @@
+package ru.practicum.shareit.request.model;
+
+// Answers only ever get new, higher ids and bump their version on update, so count, version sum and
+// highest id together change whenever an answer is added, edited or removed
+public record ItemRequestVersion(Long version, Long requestorVersion, Long answers, Long answerVersions,
+                                 Long lastAnswerId) {
+
+    public String tag() {
+        return version + "." + requestorVersion + "." + answers + "." + answerVersions + "." + lastAnswerId;
+    }
+}
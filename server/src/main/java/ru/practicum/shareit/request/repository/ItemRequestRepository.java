@@ -1,11 +1,80 @@
 package ru.practicum.shareit.request.repository;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.request.matching.IndexedRequest;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestVersion;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static ru.practicum.shareit.streaming.JsonListStreamer.FETCH_SIZE;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = "requestor")
+    List<ItemRequest> findAll();
+
+    @EntityGraph(attributePaths = "requestor")
     List<ItemRequest> findByRequestor_Id(Long userId);
+
+    @EntityGraph(attributePaths = "requestor")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    @Query("SELECT r FROM ItemRequest r " +
+            "ORDER BY r.created DESC, r.id DESC")
+    Stream<ItemRequest> streamNewest(Pageable pageable);
+
+    @EntityGraph(attributePaths = "requestor")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    @Query("SELECT r FROM ItemRequest r " +
+            "WHERE r.created < ?1 OR (r.created = ?1 AND r.id < ?2) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    Stream<ItemRequest> streamOlderThan(LocalDateTime created, Long requestId, Pageable pageable);
+
+    @Query("SELECT r.created FROM ItemRequest r WHERE r.id = ?1")
+    Optional<LocalDateTime> findCreatedById(Long requestId);
+
+    @EntityGraph(attributePaths = "requestor")
+    @Query("SELECT r FROM ItemRequest r " +
+            "WHERE r.requestor.id = ?1 " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findNewestByRequestorId(Long userId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "requestor")
+    @Query("SELECT r FROM ItemRequest r " +
+            "WHERE r.requestor.id = ?1 " +
+            "AND (r.created < ?2 OR (r.created = ?2 AND r.id < ?3)) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findOlderThanByRequestorId(Long userId, LocalDateTime created, Long requestId,
+                                                 Pageable pageable);
+
+    @Query("SELECT new ru.practicum.shareit.request.matching.IndexedRequest(r.id, r.requestor.id, r.description) " +
+            "FROM ItemRequest r " +
+            "WHERE NOT EXISTS (SELECT i FROM Item i WHERE i.request = r)")
+    List<IndexedRequest> findAllOpenIndexed();
+
+    @Query("SELECT new ru.practicum.shareit.request.matching.IndexedRequest(r.id, r.requestor.id, r.description) " +
+            "FROM ItemRequest r " +
+            "WHERE r.created > ?1 " +
+            "AND NOT EXISTS (SELECT i FROM Item i WHERE i.request = r)")
+    List<IndexedRequest> findOpenIndexedCreatedAfter(LocalDateTime created);
+
+    @EntityGraph(attributePaths = "requestor")
+    List<ItemRequest> findByCreatedAfterOrderByCreatedAscIdAsc(LocalDateTime created);
+
+    @Query("SELECT new ru.practicum.shareit.request.model.ItemRequestVersion(" +
+            "r.version, u.version, COUNT(i), COALESCE(SUM(i.version), 0L), COALESCE(MAX(i.id), 0L)) " +
+            "FROM ItemRequest r JOIN r.requestor u LEFT JOIN Item i ON i.request = r " +
+            "WHERE r.id = ?1 " +
+            "GROUP BY r.id, r.version, u.version")
+    Optional<ItemRequestVersion> findVersionById(Long requestId);
 }
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.request.repository;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.practicum.shareit.request.model.RequestMatch;
+
+import java.util.List;
+
+public interface RequestMatchRepository extends JpaRepository<RequestMatch, Long> {
+
+    @EntityGraph(attributePaths = "item")
+    List<RequestMatch> findByRequest_IdOrderByScoreDescIdAsc(Long requestId);
+}
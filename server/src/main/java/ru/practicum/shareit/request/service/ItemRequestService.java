@@ -1,15 +1,24 @@
 package ru.practicum.shareit.request.service;
 
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestVersion;
+import ru.practicum.shareit.request.model.RequestMatch;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ItemRequestService {
     ItemRequest addItemRequest(ItemRequest itemRequest);
 
-    List<ItemRequest> getUserItemRequests(Long userId);
+    List<ItemRequest> getUserItemRequests(Long userId, Long after, Integer size);
 
-    List<ItemRequest> getAllRequests();
+    Stream<ItemRequest> streamAllRequests(Long after, Integer size);
 
     ItemRequest getItemRequest(Long requestId);
+
+    ItemRequestVersion getItemRequestVersion(Long requestId);
+
+    List<RequestMatch> getRequestMatches(Long userId, Long requestId);
+
+    void checkUserExists(Long userId);
 }
@@ -3,14 +3,25 @@ package ru.practicum.shareit.request.service;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.InternalValidationException;
 import ru.practicum.shareit.exception.RequestNotFoundException;
+import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestVersion;
+import ru.practicum.shareit.request.model.RequestMatch;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.repository.RequestMatchRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
 
-import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 @Transactional
 @Service
@@ -19,26 +30,41 @@ import java.util.List;
 public class ItemRequestServiceImpl implements ItemRequestService {
 
     ItemRequestRepository itemRequestRepository;
+    RequestMatchRepository requestMatchRepository;
+    UserRepository userRepository;
+    ApplicationEventPublisher eventPublisher;
 
     @Override
     public ItemRequest addItemRequest(ItemRequest itemRequest) {
-        return itemRequestRepository.save(itemRequest);
+        ItemRequest saved = itemRequestRepository.save(itemRequest);
+        eventPublisher.publishEvent(new ItemRequestCreatedEvent(saved));
+        return saved;
     }
 
+    // Pages are keyset-based: "after" is the id of the last request of the previous page,
+    // and the next page continues strictly below its (created, id) position; without a size it runs to the end.
+    // The cursor's created is looked up once and bound, and a cursor that no longer exists ends the listing
     @Override
-    public List<ItemRequest> getUserItemRequests(Long userId) {
-        return itemRequestRepository.findByRequestor_Id(userId).stream()
-                .sorted(Comparator.comparing(ItemRequest::getCreated))
-                .toList()
-                .reversed();
+    public List<ItemRequest> getUserItemRequests(Long userId, Long after, Integer size) {
+        Pageable page = toPageable(size);
+        if (after == null) {
+            return itemRequestRepository.findNewestByRequestorId(userId, page);
+        }
+        return itemRequestRepository.findCreatedById(after)
+                .map(created -> itemRequestRepository.findOlderThanByRequestorId(userId, created, after, page))
+                .orElse(List.of());
     }
 
+    // The stream reads from an open cursor, so the caller's transaction has to outlive it
     @Override
-    public List<ItemRequest> getAllRequests() {
-        return itemRequestRepository.findAll().stream()
-                .sorted(Comparator.comparing(ItemRequest::getCreated))
-                .toList()
-                .reversed();
+    public Stream<ItemRequest> streamAllRequests(Long after, Integer size) {
+        Pageable page = toPageable(size);
+        if (after == null) {
+            return itemRequestRepository.streamNewest(page);
+        }
+        return itemRequestRepository.findCreatedById(after)
+                .map(created -> itemRequestRepository.streamOlderThan(created, after, page))
+                .orElse(Stream.empty());
     }
 
     @Override
@@ -48,4 +74,38 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                                 String.format("Request with id %d not found", requestId)
                         ));
     }
+
+    @Override
+    public ItemRequestVersion getItemRequestVersion(Long requestId) {
+        return itemRequestRepository.findVersionById(requestId)
+                .orElseThrow(() -> new RequestNotFoundException(
+                        String.format("Request with id %d not found", requestId)
+                ));
+    }
+
+    @Override
+    public List<RequestMatch> getRequestMatches(Long userId, Long requestId) {
+        ItemRequest itemRequest = getItemRequest(requestId);
+        if (!Objects.equals(itemRequest.getRequestor().getId(), userId)) {
+            throw new InternalValidationException("Suggestions can be viewed by the requestor only");
+        }
+        return requestMatchRepository.findByRequest_IdOrderByScoreDescIdAsc(requestId);
+    }
+
+    @Override
+    public void checkUserExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException(String.format("User with id %d not found", userId));
+        }
+    }
+
+    private Pageable toPageable(Integer size) {
+        if (size == null) {
+            return Pageable.unpaged();
+        }
+        if (size <= 0) {
+            throw new InternalValidationException("Page size must be positive");
+        }
+        return PageRequest.ofSize(size);
+    }
 }
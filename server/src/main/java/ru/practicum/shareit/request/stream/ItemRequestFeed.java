@@ -0,0 +1,144 @@
+package ru.practicum.shareit.request.stream;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Each subscriber has a bounded buffer drained by its own virtual thread, the only one touching its emitter
+@Slf4j
+@Component
+public class ItemRequestFeed {
+
+    private final ItemRequestMapper itemRequestMapper;
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final Duration heartbeatInterval;
+    private final boolean clustered;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    public ItemRequestFeed(ItemRequestMapper itemRequestMapper,
+                           @Value("${shareit.requests.stream.timeout:30m}") Duration timeout,
+                           @Value("${shareit.requests.stream.buffer-size:64}") int bufferSize,
+                           @Value("${shareit.requests.stream.heartbeat-interval:15s}") Duration heartbeatInterval,
+                           @Value("${shareit.cluster.enabled:false}") boolean clustered) {
+        this.itemRequestMapper = itemRequestMapper;
+        this.timeoutMillis = timeout.toMillis();
+        this.bufferSize = bufferSize;
+        this.heartbeatInterval = heartbeatInterval;
+        this.clustered = clustered;
+    }
+
+    public SseEmitter subscribe() {
+        return register(new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter register(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(bufferSize));
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        subscriber.start();
+        return emitter;
+    }
+
+    // In a cluster every request, this node's own included, comes in through ClusterSync
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onItemRequestCreated(ItemRequestCreatedEvent event) {
+        if (!clustered) {
+            publish(event.getItemRequest());
+        }
+    }
+
+    public void publish(ItemRequest itemRequest) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        ItemRequestDto itemRequestDto = itemRequestMapper.toItemRequestDto(itemRequest);
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.queue.offer(itemRequestDto)) {
+                log.debug("Dropping slow request feed subscriber, buffer of {} events is full", bufferSize);
+                remove(subscriber);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(this::remove);
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.stop();
+        }
+    }
+
+    private final class Subscriber {
+
+        final SseEmitter emitter;
+        final BlockingQueue<ItemRequestDto> queue;
+        volatile Thread drainer;
+
+        Subscriber(SseEmitter emitter, BlockingQueue<ItemRequestDto> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        void start() {
+            drainer = Thread.ofVirtual().name("request-feed-subscriber").start(this::drain);
+        }
+
+        void stop() {
+            Thread thread = drainer;
+            if (thread != null && thread != Thread.currentThread()) {
+                thread.interrupt();
+            }
+        }
+
+        // Heartbeat comments keep idle connections open through proxies and reveal disconnected clients
+        private void drain() {
+            try {
+                while (subscribers.contains(this)) {
+                    ItemRequestDto next = queue.poll(heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(next.getId()))
+                                .name("request")
+                                .data(next, MediaType.APPLICATION_JSON));
+                    }
+                }
+                emitter.complete();
+            } catch (InterruptedException e) {
+                emitter.complete();
+            } catch (Exception e) {
+                log.debug("Request feed subscriber disconnected: {}", e.getMessage());
+                remove(this);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.streaming;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.deadline.RequestDeadline;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Writes a query's rows as one JSON array while they are read, a chunk at a time, in a read-only transaction
+@Component
+public class JsonListStreamer {
+
+    // PostgreSQL reads through a server-side cursor only when given a fetch size
+    public static final String FETCH_SIZE = "100";
+
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public JsonListStreamer(PlatformTransactionManager transactionManager,
+                            EntityManager entityManager,
+                            ObjectMapper objectMapper,
+                            @Value("${shareit.streaming.chunk-size:100}") int chunkSize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    public <T> ResponseEntity<StreamingResponseBody> stream(Supplier<Stream<T>> rows,
+                                                            Function<List<T>, ? extends List<?>> mapper) {
+        Long deadline = RequestDeadline.current();
+        StreamingResponseBody body = outputStream -> RequestDeadline.runWith(deadline, () ->
+                transactionTemplate.executeWithoutResult(status -> write(outputStream, rows, mapper)));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private <T> void write(OutputStream outputStream, Supplier<Stream<T>> rows,
+                           Function<List<T>, ? extends List<?>> mapper) {
+        try (Stream<T> stream = rows.get()) {
+            Iterator<T> iterator = stream.iterator();
+            // A failed response is never closed with a "]", so a cut-off array cannot pass for a whole one
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            SequenceWriter writer = objectMapper.writer()
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .writeValuesAsArray(generator);
+            List<T> chunk = new ArrayList<>(chunkSize);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize || !iterator.hasNext()) {
+                    writer.writeAll(mapper.apply(chunk));
+                    writer.flush();
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+            writer.close();
+            generator.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
@@ -27,7 +28,12 @@ public class UserController {
     }
 
     @GetMapping("/{userId}")
-    public UserDto getUserById(@PathVariable Long userId) {
+    public UserDto getUserById(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long viewerId,
+                               @PathVariable Long userId,
+                               WebRequest webRequest) {
+        if (webRequest.checkNotModified(userService.getUserVersion(userId) + "-" + viewerId)) {
+            return null;
+        }
         return userMapper.toUserDto(
                 userService.getUserById(userId)
         );
@@ -10,6 +10,8 @@ public interface UserService {
 
     User getUserById(Long userId);
 
+    Long getUserVersion(Long userId);
+
     User addUser(User userData);
 
     User updateUser(Long userId, User userData);
@@ -1,11 +1,16 @@
 package ru.practicum.shareit.user.service;
 
+import jakarta.persistence.EntityManagerFactory;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -19,6 +24,7 @@ import java.util.Objects;
 public class UserServiceImpl implements UserService {
 
     UserRepository userRepository;
+    EntityManagerFactory entityManagerFactory;
 
     @Override
     public List<User> getAllUsers() {
@@ -33,6 +39,14 @@ public class UserServiceImpl implements UserService {
                 ));
     }
 
+    @Override
+    public Long getUserVersion(Long userId) {
+        return userRepository.findVersionById(userId)
+                .orElseThrow(() -> new UserNotFoundException(
+                        String.format("User with id %d not found", userId)
+                ));
+    }
+
     @Override
     public User addUser(User userData) {
         return userRepository.save(userData);
@@ -50,9 +64,32 @@ public class UserServiceImpl implements UserService {
     public User deleteUser(Long userId) {
         User deleted = getUserById(userId);
         userRepository.deleteById(userId);
+        evictCascadedEntitiesAfterCommit();
         return deleted;
     }
 
+    // Items and requests of a deleted user are removed by ON DELETE CASCADE in the database, behind Hibernate's back,
+    // so their second-level cache entries and the cached item lists must be dropped explicitly
+    private void evictCascadedEntitiesAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictCascadedEntities();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictCascadedEntities();
+            }
+        });
+    }
+
+    private void evictCascadedEntities() {
+        org.hibernate.Cache cache = entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class);
+        cache.evictEntityData(Item.class);
+        cache.evictEntityData(ItemRequest.class);
+        cache.evictQueryRegions();
+    }
+
     private void updateOfNullable(User updated, User userData) {
         updated.setName(Objects.requireNonNullElse(userData.getName(), updated.getName()));
         updated.setEmail(Objects.requireNonNullElse(userData.getEmail(), updated.getEmail()));
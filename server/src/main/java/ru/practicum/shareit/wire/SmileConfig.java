@@ -0,0 +1,22 @@
+package ru.practicum.shareit.wire;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+// Answers the gateway in Smile, binary JSON, when it asks for application/x-jackson-smile; anyone else gets JSON as
+// before. The mapper comes from Spring Boot's builder, so it writes dates and everything else as the JSON one does,
+// and this converter takes the place of the default one Spring MVC would build without those settings
+@Configuration
+public class SmileConfig {
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+            Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        return new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilder.factory(new SmileFactory()).build()
+        );
+    }
+}
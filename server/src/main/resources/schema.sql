@@ -1,25 +1,32 @@
-DROP TABLE IF EXISTS users, items, bookings, requests, comments;
+DROP TABLE IF EXISTS users, items, bookings, requests, comments, request_matches, item_counters;
 
 CREATE TABLE users (
     id BIGSERIAL PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
-    email VARCHAR(255) NOT NULL UNIQUE
+    email VARCHAR(255) NOT NULL UNIQUE,
+    version BIGINT NOT NULL DEFAULT 0
 );
 
 CREATE TABLE requests (
     id BIGSERIAL PRIMARY KEY,
     description VARCHAR(255),
     requestor_id BIGINT REFERENCES users(id) ON DELETE CASCADE,
-    created_date TIMESTAMP
+    created_date TIMESTAMP,
+    version BIGINT NOT NULL DEFAULT 0
 );
 
+CREATE INDEX idx_requests_created_date ON requests (created_date DESC, id DESC);
+
+CREATE INDEX idx_requests_requestor_created_date ON requests (requestor_id, created_date DESC, id DESC);
+
 CREATE TABLE items (
     id BIGSERIAL PRIMARY KEY,
     name VARCHAR(255),
     description VARCHAR(255),
     is_available BOOLEAN,
     owner_id BIGINT REFERENCES users(id) ON DELETE CASCADE,
-    request_id BIGINT REFERENCES requests(id) ON DELETE CASCADE
+    request_id BIGINT REFERENCES requests(id) ON DELETE CASCADE,
+    version BIGINT NOT NULL DEFAULT 0
 );
 
 CREATE TABLE bookings (
@@ -31,9 +38,32 @@ CREATE TABLE bookings (
     status VARCHAR(255)
 );
 
+CREATE INDEX idx_bookings_item_booker_status_end ON bookings (item_id, booker_id, status, end_date);
+
 CREATE TABLE comments (
     id BIGSERIAL PRIMARY KEY,
     text VARCHAR(255),
     item_id BIGINT REFERENCES items(id) ON DELETE CASCADE,
-    author_id BIGINT REFERENCES users(id) ON DELETE CASCADE
-);
\ No newline at end of file
+    author_id BIGINT REFERENCES users(id) ON DELETE CASCADE,
+    created_date TIMESTAMP
+);
+
+CREATE INDEX idx_comments_item_created_date ON comments (item_id, created_date DESC, id DESC);
+
+CREATE TABLE request_matches (
+    id BIGSERIAL PRIMARY KEY,
+    request_id BIGINT REFERENCES requests(id) ON DELETE CASCADE,
+    item_id BIGINT REFERENCES items(id) ON DELETE CASCADE,
+    score DOUBLE PRECISION,
+    created_date TIMESTAMP
+);
+
+CREATE INDEX idx_request_matches_request_score ON request_matches (request_id, score DESC);
+
+CREATE TABLE item_counters (
+    item_id BIGINT REFERENCES items(id) ON DELETE CASCADE,
+    stripe INTEGER,
+    rentals BIGINT NOT NULL DEFAULT 0,
+    reviews BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (item_id, stripe)
+);
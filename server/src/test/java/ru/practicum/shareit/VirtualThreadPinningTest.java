@@ -0,0 +1,142 @@
+package ru.practicum.shareit;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.request.stream.ItemRequestFeed;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Drives the application over HTTP with Tomcat on virtual threads and fails on any jdk.VirtualThreadPinned event,
+// i.e. a virtual thread that parked or blocked while holding a monitor and so kept its carrier thread busy
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=true")
+@Sql(scripts = {"/test-schema.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class VirtualThreadPinningTest {
+
+    private static final int CLIENTS = 32;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ItemRequestFeed itemRequestFeed;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void requestHandling_OnVirtualThreads_ShouldNotPinCarriers() throws Exception {
+        Path dump = Files.createTempFile("pinning", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                // a feed subscriber keeps a drainer writing events while the other clients are served
+                CountDownLatch received = new CountDownLatch(CLIENTS);
+                Future<?> subscriber = clients.submit(() -> {
+                    subscribe(received);
+                    return null;
+                });
+                while (itemRequestFeed.getSubscriberCount() == 0) {
+                    Thread.sleep(10);
+                }
+
+                List<Future<?>> results = new ArrayList<>();
+                for (int i = 0; i < CLIENTS; i++) {
+                    int client = i;
+                    results.add(clients.submit(() -> {
+                        exercise(client);
+                        return null;
+                    }));
+                }
+                for (Future<?> result : results) {
+                    result.get();
+                }
+                assertTrue(received.await(10, TimeUnit.SECONDS));
+                subscriber.cancel(true);
+            }
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<String> pinned = RecordingFile.readAllEvents(dump).stream().map(this::describe).toList();
+        Files.delete(dump);
+        assertEquals(List.of(), pinned, "Virtual threads blocked while pinned to their carrier");
+    }
+
+    private String describe(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return event.getDuration().toString();
+        }
+        return event.getDuration() + " at " + event.getStackTrace().getFrames().stream()
+                .map(RecordedFrame::getMethod)
+                .map(method -> method.getType().getName() + "." + method.getName())
+                .collect(Collectors.joining(" <- "));
+    }
+
+    private void exercise(int client) throws Exception {
+        String userId = id(send("POST", "/users", null,
+                "{\"name\":\"User " + client + "\",\"email\":\"user" + client + "@example.com\"}"));
+        String itemId = id(send("POST", "/items", userId,
+                "{\"name\":\"Drill " + client + "\",\"description\":\"Cordless drill\",\"available\":true}"));
+        send("POST", "/requests", userId, "{\"description\":\"Need a ladder\"}");
+        send("GET", "/items/" + itemId, userId, null);
+        send("GET", "/items/search?text=drill", userId, null);
+        send("GET", "/requests/all", userId, null);
+        send("GET", "/users/" + userId, userId, null);
+    }
+
+    private void subscribe(CountDownLatch received) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/requests/stream"))
+                .header("X-Sharer-User-Id", "1")
+                .header("Accept", "text/event-stream")
+                .build();
+        try (Stream<String> lines = httpClient.send(request, HttpResponse.BodyHandlers.ofLines()).body()) {
+            lines.filter(line -> line.startsWith("event:")).forEach(line -> received.countDown());
+        }
+    }
+
+    private String send(String method, String path, String userId, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body));
+        if (userId != null) {
+            request.header("X-Sharer-User-Id", userId);
+        }
+        HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response::body);
+        return response.body();
+    }
+
+    private String id(String json) {
+        return json.replaceAll("^\\{\"id\":(\\d+).*$", "$1");
+    }
+}
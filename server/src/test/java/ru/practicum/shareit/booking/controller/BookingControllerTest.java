@@ -1,15 +1,19 @@
 package ru.practicum.shareit.booking.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
 import ru.practicum.shareit.booking.dto.BookingDtoIn;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
@@ -18,6 +22,7 @@ import ru.practicum.shareit.booking.model.BookingCategory;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.streaming.JsonListStreamer;
 import ru.practicum.shareit.user.dto.ShortUserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.item.dto.ShortItemDto;
@@ -28,6 +33,7 @@ import java.util.List;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -41,6 +47,12 @@ class BookingControllerTest {
     @Mock
     private BookingMapper bookingMapper;
 
+    @Spy
+    private JsonListStreamer jsonListStreamer = new JsonListStreamer(
+            mock(PlatformTransactionManager.class), mock(EntityManager.class),
+            new ObjectMapper().findAndRegisterModules(), 100
+    );
+
     @InjectMocks
     private BookingController bookingController;
 
@@ -157,12 +169,16 @@ class BookingControllerTest {
         List<Booking> bookings = List.of(booking);
         List<BookingDtoOut> bookingDtoOuts = List.of(bookingDtoOut);
 
-        when(bookingService.getUserBookings(anyLong(), any(BookingCategory.class))).thenReturn(bookings);
+        when(bookingService.streamUserBookings(anyLong(), any(BookingCategory.class))).thenReturn(bookings.stream());
         when(bookingMapper.toBookingDtoOutList(any(List.class))).thenReturn(bookingDtoOuts);
 
-        mockMvc.perform(get("/bookings")
+        MvcResult result = mockMvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", 1L)
                         .param("category", "ALL"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].item.id").value(1L))
@@ -174,11 +190,15 @@ class BookingControllerTest {
         List<Booking> bookings = List.of(booking);
         List<BookingDtoOut> bookingDtoOuts = List.of(bookingDtoOut);
 
-        when(bookingService.getUserBookings(anyLong(), any(BookingCategory.class))).thenReturn(bookings);
+        when(bookingService.streamUserBookings(anyLong(), any(BookingCategory.class))).thenReturn(bookings.stream());
         when(bookingMapper.toBookingDtoOutList(any(List.class))).thenReturn(bookingDtoOuts);
 
-        mockMvc.perform(get("/bookings")
+        MvcResult result = mockMvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1L));
     }
@@ -56,29 +56,61 @@ class BookingRepositoryIntegrationTest {
     }
 
     @Test
-    void findByItemId_WithExistingItem_ShouldReturnBooking() {
-        Booking booking = createBooking(
+    void existsByItem_IdAndBooker_IdAndStatusAndEndBefore_WithCompletedApprovedBooking_ShouldReturnTrue() {
+        entityManager.persist(createBooking(
+                LocalDateTime.now().minusDays(2),
+                LocalDateTime.now().minusDays(1),
+                item1,
+                booker1,
+                BookingStatus.APPROVED
+        ));
+        entityManager.persist(createBooking(
                 LocalDateTime.now().plusDays(1),
                 LocalDateTime.now().plusDays(2),
                 item1,
-                booker1,
+                booker2,
                 BookingStatus.WAITING
-        );
-        entityManager.persist(booking);
+        ));
         entityManager.flush();
 
-        Optional<Booking> result = bookingRepository.findByItemId(item1.getId());
-
-        assertTrue(result.isPresent());
-        assertEquals(item1.getId(), result.get().getItem().getId());
-        assertEquals(booker1.getId(), result.get().getBooker().getId());
+        assertTrue(bookingRepository.existsByItem_IdAndBooker_IdAndStatusAndEndBefore(
+                item1.getId(), booker1.getId(), BookingStatus.APPROVED, LocalDateTime.now()));
     }
 
     @Test
-    void findByItemId_WithNonExistingItem_ShouldReturnEmpty() {
-        Optional<Booking> result = bookingRepository.findByItemId(999L);
+    void existsByItem_IdAndBooker_IdAndStatusAndEndBefore_WithOnlyOtherBookings_ShouldReturnFalse() {
+        entityManager.persist(createBooking(
+                LocalDateTime.now().minusDays(2),
+                LocalDateTime.now().minusDays(1),
+                item1,
+                booker1,
+                BookingStatus.REJECTED
+        ));
+        entityManager.persist(createBooking(
+                LocalDateTime.now().minusDays(1),
+                LocalDateTime.now().plusDays(1),
+                item1,
+                booker1,
+                BookingStatus.APPROVED
+        ));
+        entityManager.persist(createBooking(
+                LocalDateTime.now().minusDays(2),
+                LocalDateTime.now().minusDays(1),
+                item2,
+                booker1,
+                BookingStatus.APPROVED
+        ));
+        entityManager.persist(createBooking(
+                LocalDateTime.now().minusDays(2),
+                LocalDateTime.now().minusDays(1),
+                item1,
+                booker2,
+                BookingStatus.APPROVED
+        ));
+        entityManager.flush();
 
-        assertFalse(result.isPresent());
+        assertFalse(bookingRepository.existsByItem_IdAndBooker_IdAndStatusAndEndBefore(
+                item1.getId(), booker1.getId(), BookingStatus.APPROVED, LocalDateTime.now()));
     }
 
     @Test
@@ -119,7 +151,7 @@ class BookingRepositoryIntegrationTest {
     }
 
     @Test
-    void findAllByBookerId_ShouldReturnAllBookingsForBooker() {
+    void streamAllByBookerId_ShouldReturnAllBookingsForBooker() {
         Booking booking1 = createBooking(
                 LocalDateTime.now().plusDays(1),
                 LocalDateTime.now().plusDays(2),
@@ -138,7 +170,7 @@ class BookingRepositoryIntegrationTest {
         entityManager.persist(booking2);
         entityManager.flush();
 
-        List<Booking> result = bookingRepository.findAllByBookerId(booker1.getId());
+        List<Booking> result = bookingRepository.streamAllByBookerId(booker1.getId()).toList();
 
         assertEquals(2, result.size());
         assertTrue(result.stream().allMatch(booking -> booking.getBooker().getId().equals(booker1.getId())));
@@ -146,7 +178,7 @@ class BookingRepositoryIntegrationTest {
     }
 
     @Test
-    void findCurrentByBookerId_ShouldReturnCurrentBookings() {
+    void streamCurrentByBookerId_ShouldReturnCurrentBookings() {
         Booking currentBooking = createBooking(
                 LocalDateTime.now().minusDays(1),
                 LocalDateTime.now().plusDays(1),
@@ -157,14 +189,14 @@ class BookingRepositoryIntegrationTest {
         entityManager.persist(currentBooking);
         entityManager.flush();
 
-        List<Booking> result = bookingRepository.findCurrentByBookerId(booker1.getId());
+        List<Booking> result = bookingRepository.streamCurrentByBookerId(booker1.getId()).toList();
 
         assertEquals(1, result.size());
         assertEquals(currentBooking.getId(), result.get(0).getId());
     }
 
     @Test
-    void findPastByBookerId_ShouldReturnPastBookings() {
+    void streamPastByBookerId_ShouldReturnPastBookings() {
         Booking pastBooking = createBooking(
                 LocalDateTime.now().minusDays(5),
                 LocalDateTime.now().minusDays(3),
@@ -175,7 +207,7 @@ class BookingRepositoryIntegrationTest {
         entityManager.persist(pastBooking);
         entityManager.flush();
 
-        List<Booking> result = bookingRepository.findPastByBookerId(booker1.getId());
+        List<Booking> result = bookingRepository.streamPastByBookerId(booker1.getId()).toList();
 
         assertEquals(1, result.size());
         assertEquals(pastBooking.getId(), result.get(0).getId());
@@ -183,7 +215,7 @@ class BookingRepositoryIntegrationTest {
     }
 
     @Test
-    void findFutureByBookerId_ShouldReturnFutureBookings() {
+    void streamFutureByBookerId_ShouldReturnFutureBookings() {
         Booking futureBooking = createBooking(
                 LocalDateTime.now().plusDays(2),
                 LocalDateTime.now().plusDays(4),
@@ -194,7 +226,7 @@ class BookingRepositoryIntegrationTest {
         entityManager.persist(futureBooking);
         entityManager.flush();
 
-        List<Booking> result = bookingRepository.findFutureByBookerId(booker1.getId());
+        List<Booking> result = bookingRepository.streamFutureByBookerId(booker1.getId()).toList();
 
         assertEquals(1, result.size());
         assertEquals(futureBooking.getId(), result.get(0).getId());
@@ -202,7 +234,7 @@ class BookingRepositoryIntegrationTest {
     }
 
     @Test
-    void findWaitingByBookerId_ShouldReturnWaitingBookings() {
+    void streamWaitingByBookerId_ShouldReturnWaitingBookings() {
         Booking waitingBooking = createBooking(
                 LocalDateTime.now().plusDays(1),
                 LocalDateTime.now().plusDays(2),
@@ -221,7 +253,7 @@ class BookingRepositoryIntegrationTest {
         entityManager.persist(approvedBooking);
         entityManager.flush();
 
-        List<Booking> result = bookingRepository.findWaitingByBookerId(booker1.getId());
+        List<Booking> result = bookingRepository.streamWaitingByBookerId(booker1.getId()).toList();
 
         assertEquals(1, result.size());
         assertEquals(BookingStatus.WAITING, result.get(0).getStatus());
@@ -229,7 +261,7 @@ class BookingRepositoryIntegrationTest {
     }
 
     @Test
-    void findRejectedByBookerId_ShouldReturnRejectedBookings() {
+    void streamRejectedByBookerId_ShouldReturnRejectedBookings() {
         Booking rejectedBooking = createBooking(
                 LocalDateTime.now().plusDays(1),
                 LocalDateTime.now().plusDays(2),
@@ -240,7 +272,7 @@ class BookingRepositoryIntegrationTest {
         entityManager.persist(rejectedBooking);
         entityManager.flush();
 
-        List<Booking> result = bookingRepository.findRejectedByBookerId(booker1.getId());
+        List<Booking> result = bookingRepository.streamRejectedByBookerId(booker1.getId()).toList();
 
         assertEquals(1, result.size());
         assertEquals(BookingStatus.REJECTED, result.get(0).getStatus());
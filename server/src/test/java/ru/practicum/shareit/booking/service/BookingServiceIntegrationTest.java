@@ -87,7 +87,7 @@ class BookingServiceIntegrationTest {
     }
 
     @Test
-    void getUserBookings_IntegrationTest_ShouldReturnUserBookings() {
+    void streamUserBookings_IntegrationTest_ShouldReturnUserBookings() {
         User booker = userRepository.save(createUser("booker3@example.com", "Booker3"));
         User owner = userRepository.save(createUser("owner3@example.com", "Owner3"));
 
@@ -106,7 +106,7 @@ class BookingServiceIntegrationTest {
         booking.setStatus(BookingStatus.WAITING);
         bookingService.addBooking(booker.getId(), booking);
 
-        List<Booking> result = bookingService.getUserBookings(booker.getId(), BookingCategory.ALL);
+        List<Booking> result = bookingService.streamUserBookings(booker.getId(), BookingCategory.ALL).toList();
 
         assertFalse(result.isEmpty());
         assertEquals(booker.getId(), result.get(0).getBooker().getId());
@@ -12,6 +12,7 @@ import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.InternalValidationException;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.counter.service.ItemCounterService;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
@@ -37,6 +38,9 @@ class BookingServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ItemCounterService itemCounterService;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -87,6 +91,7 @@ class BookingServiceTest {
         verify(userRepository).findById(userId);
         verify(itemRepository).findById(itemId);
         verify(bookingRepository).save(booking);
+        verifyNoInteractions(itemCounterService);
     }
 
     @Test
@@ -218,6 +223,7 @@ class BookingServiceTest {
 
         assertEquals(BookingStatus.APPROVED, result.getStatus());
         verify(bookingRepository).save(booking);
+        verify(itemCounterService).addRentals(itemId, 1);
     }
 
     @Test
@@ -250,6 +256,35 @@ class BookingServiceTest {
 
         assertEquals(BookingStatus.REJECTED, result.getStatus());
         verify(bookingRepository).save(booking);
+        verifyNoInteractions(itemCounterService);
+    }
+
+    @Test
+    void processBooking_RejectingApprovedBooking_ShouldDecrementRentals() {
+        Long bookingId = 1L;
+        Long userId = 1L;
+        Long itemId = 1L;
+
+        User owner = new User();
+        owner.setId(userId);
+
+        Item item = new Item();
+        item.setId(itemId);
+        item.setOwner(owner);
+
+        Booking booking = new Booking();
+        booking.setId(bookingId);
+        booking.setItem(item);
+        booking.setBooker(new User());
+        booking.setStatus(BookingStatus.APPROVED);
+
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+
+        bookingService.processBooking(bookingId, userId, "false");
+
+        verify(itemCounterService).addRentals(itemId, -1);
     }
 
     @Test
@@ -401,17 +436,17 @@ class BookingServiceTest {
     }
 
     @Test
-    void getUserBookings_WithAllCategory_ShouldReturnAllBookings() {
+    void streamUserBookings_WithAllCategory_ShouldReturnAllBookings() {
         Long userId = 1L;
         List<Booking> expectedBookings = List.of(new Booking(), new Booking());
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
-        when(bookingRepository.findAllByBookerId(userId)).thenReturn(expectedBookings);
+        when(bookingRepository.streamAllByBookerId(userId)).thenReturn(expectedBookings.stream());
 
-        List<Booking> result = bookingService.getUserBookings(userId, BookingCategory.ALL);
+        List<Booking> result = bookingService.streamUserBookings(userId, BookingCategory.ALL).toList();
 
         assertEquals(expectedBookings, result);
-        verify(bookingRepository).findAllByBookerId(userId);
+        verify(bookingRepository).streamAllByBookerId(userId);
     }
 
     @Test
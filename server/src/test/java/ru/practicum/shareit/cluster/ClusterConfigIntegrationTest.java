@@ -0,0 +1,29 @@
+package ru.practicum.shareit.cluster;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "shareit.cluster.enabled=true")
+class ClusterConfigIntegrationTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    void clusterEnabled_ShouldTurnOffSecondLevelCacheAndSyncRequests() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+
+        assertFalse(sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled());
+        assertFalse(sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled());
+        assertEquals(1, applicationContext.getBeansOfType(ClusterSync.class).size());
+    }
+}
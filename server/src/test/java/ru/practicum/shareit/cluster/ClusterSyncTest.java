@@ -0,0 +1,73 @@
+package ru.practicum.shareit.cluster;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.request.matching.IndexedRequest;
+import ru.practicum.shareit.request.matching.RequestMatcher;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.stream.ItemRequestFeed;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClusterSyncTest {
+
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+
+    @Mock
+    private ItemRequestFeed itemRequestFeed;
+
+    @Mock
+    private RequestMatcher requestMatcher;
+
+    private ClusterSync clusterSync;
+
+    @BeforeEach
+    void setUp() {
+        clusterSync = new ClusterSync(itemRequestRepository, itemRequestFeed, requestMatcher,
+                Duration.ofSeconds(1), Duration.ofMinutes(1), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void sync_ShouldPublishEachNewRequestOnce() {
+        ItemRequest existing = createItemRequest(1L);
+        ItemRequest created = createItemRequest(2L);
+        when(itemRequestRepository.findByCreatedAfterOrderByCreatedAscIdAsc(any()))
+                .thenReturn(List.of(existing))
+                .thenReturn(List.of(existing, created));
+
+        clusterSync.sync();
+        clusterSync.sync();
+        clusterSync.sync();
+
+        verify(itemRequestFeed, times(1)).publish(created);
+        verify(itemRequestFeed, never()).publish(existing);
+    }
+
+    @Test
+    void sync_ShouldIndexOpenRequestsWithinLookback() {
+        List<IndexedRequest> open = List.of(new IndexedRequest(1L, 10L, "cordless drill"));
+        when(itemRequestRepository.findOpenIndexedCreatedAfter(any())).thenReturn(open);
+
+        clusterSync.sync();
+
+        verify(requestMatcher).addToIndex(open);
+    }
+
+    private ItemRequest createItemRequest(Long id) {
+        User requestor = new User();
+        requestor.setId(10L);
+        return new ItemRequest(id, "cordless drill", requestor, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.deadline;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.exception.DeadlineExceededException;
+import ru.practicum.shareit.streaming.JsonListStreamer;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Sql(scripts = {"/test-schema.sql"})
+class DeadlineIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JsonListStreamer jsonListStreamer;
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    void request_WhenDeadlineHasPassed_ShouldAnswerGatewayTimeoutAndCountIt() throws Exception {
+        double expired = exceeded("expired");
+
+        mockMvc.perform(get("/users").header(RequestDeadline.HEADER, "0"))
+                .andExpect(status().isGatewayTimeout());
+
+        assertEquals(expired + 1, exceeded("expired"));
+    }
+
+    @Test
+    void request_WithTimeLeft_ShouldBeServed() throws Exception {
+        mockMvc.perform(get("/users").header(RequestDeadline.HEADER, "5000"))
+                .andExpect(status().isOk());
+
+        assertNull(RequestDeadline.remainingMillis());
+    }
+
+    @Test
+    void transaction_WhenDeadlineHasPassed_ShouldNotBegin() {
+        RequestDeadline.set(System.nanoTime() - 1);
+
+        assertThrows(DeadlineExceededException.class,
+                () -> transactionTemplate.executeWithoutResult(status -> userRepository.count()));
+        assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+
+        RequestDeadline.clear();
+        Long users = transactionTemplate.execute(status -> userRepository.count());
+        assertEquals(0L, users);
+    }
+
+    @Test
+    void streamedList_ShouldBeWrittenUnderDeadlineOfItsRequest() {
+        RequestDeadline.set(System.nanoTime() - 1);
+        StreamingResponseBody body = jsonListStreamer.stream(() -> userRepository.findAll().stream(), users -> users)
+                .getBody();
+        RequestDeadline.clear();
+
+        CompletableFuture<Void> written = CompletableFuture.runAsync(() -> {
+            try {
+                body.writeTo(new ByteArrayOutputStream());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        ExecutionException exception = assertThrows(ExecutionException.class, written::get);
+        assertInstanceOf(DeadlineExceededException.class, exception.getCause());
+    }
+
+    private double exceeded(String outcome) {
+        return meterRegistry.get("shareit.server.deadline.exceeded").tag("outcome", outcome).counter().count();
+    }
+}
@@ -56,6 +56,7 @@ class CommentMapperTest {
         assertEquals("Great item!", result.getText());
         assertEquals(item, result.getItem());
         assertEquals(user, result.getAuthor());
+        assertNotNull(result.getCreated());
     }
 
     @Test
@@ -114,6 +115,7 @@ class CommentMapperTest {
         comment.setId(commentId);
         comment.setText("Excellent item!");
         comment.setAuthor(author);
+        comment.setCreated(LocalDateTime.now());
 
         when(userRepository.findById(authorId)).thenReturn(Optional.of(author));
 
@@ -196,11 +198,13 @@ class CommentMapperTest {
         comment1.setId(commentId1);
         comment1.setText("First comment");
         comment1.setAuthor(author1);
+        comment1.setCreated(LocalDateTime.now().minusDays(1));
 
         Comment comment2 = new Comment();
         comment2.setId(commentId2);
         comment2.setText("Second comment");
         comment2.setAuthor(author2);
+        comment2.setCreated(LocalDateTime.now());
 
         List<Comment> comments = List.of(comment1, comment2);
 
@@ -220,8 +224,8 @@ class CommentMapperTest {
         assertEquals("Second comment", result.get(1).getText());
         assertEquals("User Two", result.get(1).getAuthorName());
 
-        assertNotNull(result.get(0).getCreated());
-        assertNotNull(result.get(1).getCreated());
+        assertEquals(comment1.getCreated(), result.get(0).getCreated());
+        assertEquals(comment2.getCreated(), result.get(1).getCreated());
     }
 
     @Test
@@ -275,24 +279,24 @@ class CommentMapperTest {
     }
 
     @Test
-    void toCommentDto_ShouldSetCurrentTimestamp() {
+    void toCommentDto_ShouldUseStoredTimestamp() {
         Long authorId = 1L;
         User author = new User();
         author.setId(authorId);
         author.setName("Test User");
 
+        LocalDateTime created = LocalDateTime.of(2024, 1, 15, 10, 30);
         Comment comment = new Comment();
         comment.setId(1L);
         comment.setText("Test comment");
         comment.setAuthor(author);
+        comment.setCreated(created);
 
         when(userRepository.findById(authorId)).thenReturn(Optional.of(author));
 
         CommentDto result = commentMapper.toCommentDto(comment, authorId);
 
-        assertNotNull(result.getCreated());
-        assertTrue(result.getCreated().isBefore(LocalDateTime.now().plusSeconds(1)));
-        assertTrue(result.getCreated().isAfter(LocalDateTime.now().minusSeconds(1)));
+        assertEquals(created, result.getCreated());
     }
 
     @Test
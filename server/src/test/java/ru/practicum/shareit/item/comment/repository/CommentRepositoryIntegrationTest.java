@@ -6,10 +6,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.jdbc.Sql;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -237,6 +239,45 @@ class CommentRepositoryIntegrationTest {
         assertEquals("Updated text", fromDb.getText());
     }
 
+    @Test
+    void findLatestByItemId_ShouldReturnNewestCommentsFirst() {
+        LocalDateTime now = LocalDateTime.now();
+        Comment oldest = createComment("Oldest", item1, user2, now.minusDays(3));
+        Comment middle = createComment("Middle", item1, user2, now.minusDays(2));
+        Comment newest = createComment("Newest", item1, user2, now.minusDays(1));
+        Comment otherItem = createComment("Other item", item2, user2, now);
+
+        entityManager.persist(oldest);
+        entityManager.persist(newest);
+        entityManager.persist(middle);
+        entityManager.persist(otherItem);
+        entityManager.flush();
+
+        List<Comment> result = commentRepository.findLatestByItemId(item1.getId(), PageRequest.ofSize(2));
+
+        assertEquals(List.of(newest.getId(), middle.getId()), result.stream().map(Comment::getId).toList());
+    }
+
+    @Test
+    void findOlderByItemId_ShouldContinueAfterCursor() {
+        LocalDateTime created = LocalDateTime.now().minusDays(1);
+        Comment first = createComment("First", item1, user2, created.minusHours(1));
+        Comment second = createComment("Second", item1, user2, created);
+        Comment third = createComment("Third", item1, user2, created);
+
+        entityManager.persist(first);
+        entityManager.persist(second);
+        entityManager.persist(third);
+        entityManager.flush();
+
+        List<Comment> firstPage = commentRepository.findLatestByItemId(item1.getId(), PageRequest.ofSize(2));
+        List<Comment> secondPage = commentRepository.findOlderByItemId(
+                item1.getId(), firstPage.getLast().getId(), PageRequest.ofSize(2));
+
+        assertEquals(List.of(third.getId(), second.getId()), firstPage.stream().map(Comment::getId).toList());
+        assertEquals(List.of(first.getId()), secondPage.stream().map(Comment::getId).toList());
+    }
+
     private User createUser(String email, String name) {
         User user = new User();
         user.setEmail(email);
@@ -260,4 +301,10 @@ class CommentRepositoryIntegrationTest {
         comment.setAuthor(author);
         return comment;
     }
+
+    private Comment createComment(String text, Item item, User author, LocalDateTime created) {
+        Comment comment = createComment(text, item, author);
+        comment.setCreated(created);
+        return comment;
+    }
 }
\ No newline at end of file
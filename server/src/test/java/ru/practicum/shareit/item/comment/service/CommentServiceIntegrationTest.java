@@ -9,7 +9,6 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
-import ru.practicum.shareit.exception.BookingNotFoundException;
 import ru.practicum.shareit.exception.InternalValidationException;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.repository.CommentRepository;
@@ -68,8 +67,8 @@ class CommentServiceIntegrationTest {
 
         Comment comment = new Comment();
         comment.setText("Excellent item, worked perfectly!");
-        comment.setItem(new Item());
-        comment.setAuthor(new User());
+        comment.setItem(item);
+        comment.setAuthor(booker);
 
         Comment result = commentService.postComment(booker.getId(), item.getId(), comment);
 
@@ -85,18 +84,19 @@ class CommentServiceIntegrationTest {
     }
 
     @Test
-    void postComment_WithNonExistingBooking_ShouldThrowBookingNotFoundException() {
+    void postComment_WithNonExistingBooking_ShouldThrowInternalValidationException() {
         Comment comment = new Comment();
         comment.setText("Test comment");
-        comment.setItem(new Item());
-        comment.setAuthor(new User());
+        comment.setItem(item);
+        comment.setAuthor(booker);
 
-        BookingNotFoundException exception = assertThrows(
-                BookingNotFoundException.class,
+        InternalValidationException exception = assertThrows(
+                InternalValidationException.class,
                 () -> commentService.postComment(booker.getId(), 999L, comment)
         );
 
-        assertEquals("Booking with item 999 not found", exception.getMessage());
+        assertEquals("User " + booker.getId() + " has not completed an approved rental of item 999",
+                exception.getMessage());
     }
 
     @Test
@@ -107,15 +107,16 @@ class CommentServiceIntegrationTest {
 
         Comment comment = new Comment();
         comment.setText("Test comment");
-        comment.setItem(new Item());
-        comment.setAuthor(new User());
+        comment.setItem(item);
+        comment.setAuthor(booker);
 
         InternalValidationException exception = assertThrows(
                 InternalValidationException.class,
                 () -> commentService.postComment(booker.getId(), item.getId(), comment)
         );
 
-        assertEquals("Item " + item.getId() + " has not been rented", exception.getMessage());
+        assertEquals("User " + booker.getId() + " has not completed an approved rental of item " + item.getId(),
+                exception.getMessage());
     }
 
     @Test
@@ -126,15 +127,16 @@ class CommentServiceIntegrationTest {
 
         Comment comment = new Comment();
         comment.setText("Test comment");
-        comment.setItem(new Item());
-        comment.setAuthor(new User());
+        comment.setItem(item);
+        comment.setAuthor(booker);
 
         InternalValidationException exception = assertThrows(
                 InternalValidationException.class,
                 () -> commentService.postComment(booker.getId(), item.getId(), comment)
         );
 
-        assertEquals("Item " + item.getId() + " has not been rented", exception.getMessage());
+        assertEquals("User " + booker.getId() + " has not completed an approved rental of item " + item.getId(),
+                exception.getMessage());
     }
 
     @Test
@@ -145,15 +147,16 @@ class CommentServiceIntegrationTest {
 
         Comment comment = new Comment();
         comment.setText("Test comment");
-        comment.setItem(new Item());
-        comment.setAuthor(new User());
+        comment.setItem(item);
+        comment.setAuthor(booker);
 
         InternalValidationException exception = assertThrows(
                 InternalValidationException.class,
                 () -> commentService.postComment(anotherUser.getId(), item.getId(), comment)
         );
 
-        assertEquals("Other users cannot leave comments", exception.getMessage());
+        assertEquals("User " + anotherUser.getId() + " has not completed an approved rental of item "
+                + item.getId(), exception.getMessage());
     }
 
     @Test
@@ -164,15 +167,16 @@ class CommentServiceIntegrationTest {
 
         Comment comment = new Comment();
         comment.setText("Test comment");
-        comment.setItem(new Item());
-        comment.setAuthor(new User());
+        comment.setItem(item);
+        comment.setAuthor(booker);
 
         InternalValidationException exception = assertThrows(
                 InternalValidationException.class,
                 () -> commentService.postComment(booker.getId(), item.getId(), comment)
         );
 
-        assertEquals("User did not end the rent", exception.getMessage());
+        assertEquals("User " + booker.getId() + " has not completed an approved rental of item " + item.getId(),
+                exception.getMessage());
     }
 
     @Test
@@ -183,13 +187,13 @@ class CommentServiceIntegrationTest {
 
         Comment comment1 = new Comment();
         comment1.setText("First comment");
-        comment1.setItem(new Item());
-        comment1.setAuthor(new User());
+        comment1.setItem(item);
+        comment1.setAuthor(booker);
 
         Comment comment2 = new Comment();
         comment2.setText("Second comment");
-        comment2.setItem(new Item());
-        comment2.setAuthor(new User());
+        comment2.setItem(item);
+        comment2.setAuthor(booker);
 
         Comment result1 = commentService.postComment(booker.getId(), item.getId(), comment1);
         Comment result2 = commentService.postComment(booker.getId(), item.getId(), comment2);
@@ -203,6 +207,27 @@ class CommentServiceIntegrationTest {
         assertEquals(2, commentCount);
     }
 
+    @Test
+    void postComment_WithSeveralBookingsOfItem_ShouldAcceptAnyCompletedApprovedOne() {
+        bookingRepository.save(createBooking(item, anotherUser, BookingStatus.APPROVED,
+                LocalDateTime.now().minusDays(5), LocalDateTime.now().minusDays(4)));
+        bookingRepository.save(createBooking(item, booker, BookingStatus.REJECTED,
+                LocalDateTime.now().minusDays(4), LocalDateTime.now().minusDays(3)));
+        bookingRepository.save(createBooking(item, booker, BookingStatus.APPROVED,
+                LocalDateTime.now().minusDays(3), LocalDateTime.now().minusDays(2)));
+        bookingRepository.save(createBooking(item, booker, BookingStatus.APPROVED,
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2)));
+
+        Comment comment = new Comment();
+        comment.setText("Rented it twice");
+        comment.setItem(item);
+        comment.setAuthor(booker);
+
+        Comment result = commentService.postComment(booker.getId(), item.getId(), comment);
+
+        assertNotNull(result.getId());
+    }
+
     @Test
     void postComment_ShouldSetCorrectItemAndAuthorIds() {
         Booking booking = createBooking(item, booker, BookingStatus.APPROVED,
@@ -211,8 +236,8 @@ class CommentServiceIntegrationTest {
 
         Comment comment = new Comment();
         comment.setText("Test comment with IDs");
-        comment.setItem(new Item());
-        comment.setAuthor(new User());
+        comment.setItem(item);
+        comment.setAuthor(booker);
 
         Comment result = commentService.postComment(booker.getId(), item.getId(), comment);
 
@@ -2,24 +2,28 @@ package ru.practicum.shareit.item.comment.service;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import ru.practicum.shareit.booking.model.Booking;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
-import ru.practicum.shareit.exception.BookingNotFoundException;
 import ru.practicum.shareit.exception.InternalValidationException;
+import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.counter.service.ItemCounterService;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,27 +35,19 @@ class CommentServiceTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private ItemCounterService itemCounterService;
+
     @InjectMocks
     private CommentServiceImpl commentService;
 
     @Test
-    void postComment_WithValidData_ShouldSaveAndReturnComment() {
+    void postComment_WithCompletedApprovedBooking_ShouldSaveAndReturnComment() {
         Long userId = 1L;
         Long itemId = 1L;
-        LocalDateTime pastTime = LocalDateTime.now().minusDays(1);
-
-        User booker = new User();
-        booker.setId(userId);
-
-        Item item = new Item();
-        item.setId(itemId);
-
-        Booking booking = new Booking();
-        booking.setId(1L);
-        booking.setItem(item);
-        booking.setBooker(booker);
-        booking.setStatus(BookingStatus.APPROVED);
-        booking.setEnd(pastTime);
 
         Comment comment = new Comment();
         comment.setText("Great item!");
@@ -62,7 +58,8 @@ class CommentServiceTest {
         savedComment.setId(1L);
         savedComment.setText("Great item!");
 
-        when(bookingRepository.findByItemId(itemId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.existsByItem_IdAndBooker_IdAndStatusAndEndBefore(
+                eq(itemId), eq(userId), eq(BookingStatus.APPROVED), any(LocalDateTime.class))).thenReturn(true);
         when(commentRepository.save(any(Comment.class))).thenReturn(savedComment);
 
         Comment result = commentService.postComment(userId, itemId, comment);
@@ -73,135 +70,95 @@ class CommentServiceTest {
         assertEquals(userId, comment.getAuthor().getId());
         assertEquals(itemId, comment.getItem().getId());
         verify(commentRepository).save(comment);
+        verify(itemCounterService).addReviews(itemId, 1);
     }
 
     @Test
-    void postComment_WithNonExistingBooking_ShouldThrowBookingNotFoundException() {
+    void postComment_WithoutCompletedApprovedBooking_ShouldThrowInternalValidationException() {
         Long userId = 1L;
         Long itemId = 999L;
         Comment comment = new Comment();
 
-        when(bookingRepository.findByItemId(itemId)).thenReturn(Optional.empty());
+        when(bookingRepository.existsByItem_IdAndBooker_IdAndStatusAndEndBefore(
+                eq(itemId), eq(userId), eq(BookingStatus.APPROVED), any(LocalDateTime.class))).thenReturn(false);
 
-        BookingNotFoundException exception = assertThrows(
-                BookingNotFoundException.class,
+        InternalValidationException exception = assertThrows(
+                InternalValidationException.class,
                 () -> commentService.postComment(userId, itemId, comment)
         );
 
-        assertEquals("Booking with item 999 not found", exception.getMessage());
+        assertEquals("User 1 has not completed an approved rental of item 999", exception.getMessage());
         verify(commentRepository, never()).save(any());
+        verifyNoInteractions(itemCounterService);
     }
 
     @Test
-    void postComment_WithNonApprovedBooking_ShouldThrowInternalValidationException() {
-        Long userId = 1L;
-        Long itemId = 1L;
-        LocalDateTime pastTime = LocalDateTime.now().minusDays(1);
-
-        User booker = new User();
-        booker.setId(userId);
-
-        Booking booking = new Booking();
-        booking.setItem(new Item());
-        booking.setBooker(booker);
-        booking.setStatus(BookingStatus.WAITING);
-        booking.setEnd(pastTime);
-
+    void postComment_ShouldCheckBookingsEndedBeforeNow() {
         Comment comment = new Comment();
+        comment.setItem(new Item());
+        comment.setAuthor(new User());
+        LocalDateTime before = LocalDateTime.now();
 
-        when(bookingRepository.findByItemId(itemId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.existsByItem_IdAndBooker_IdAndStatusAndEndBefore(
+                any(), any(), any(), any())).thenReturn(true);
 
-        InternalValidationException exception = assertThrows(
-                InternalValidationException.class,
-                () -> commentService.postComment(userId, itemId, comment)
-        );
+        commentService.postComment(1L, 2L, comment);
 
-        assertEquals("Item 1 has not been rented", exception.getMessage());
-        verify(commentRepository, never()).save(any());
+        ArgumentCaptor<LocalDateTime> captor = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(bookingRepository).existsByItem_IdAndBooker_IdAndStatusAndEndBefore(
+                eq(2L), eq(1L), eq(BookingStatus.APPROVED), captor.capture());
+        assertFalse(captor.getValue().isBefore(before));
+        assertFalse(captor.getValue().isAfter(LocalDateTime.now()));
     }
 
     @Test
-    void postComment_WithRejectedBooking_ShouldThrowInternalValidationException() {
-        Long userId = 1L;
-        Long itemId = 1L;
-        LocalDateTime pastTime = LocalDateTime.now().minusDays(1);
-
-        User booker = new User();
-        booker.setId(userId);
+    void getItemComments_WithoutCursor_ShouldReturnLatestComments() {
+        List<Comment> comments = List.of(new Comment(), new Comment());
 
-        Booking booking = new Booking();
-        booking.setItem(new Item());
-        booking.setBooker(booker);
-        booking.setStatus(BookingStatus.REJECTED);
-        booking.setEnd(pastTime);
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(commentRepository.findLatestByItemId(1L, PageRequest.ofSize(20))).thenReturn(comments);
 
-        Comment comment = new Comment();
-
-        when(bookingRepository.findByItemId(itemId)).thenReturn(Optional.of(booking));
-
-        InternalValidationException exception = assertThrows(
-                InternalValidationException.class,
-                () -> commentService.postComment(userId, itemId, comment)
-        );
+        List<Comment> result = commentService.getItemComments(1L, null, 20);
 
-        assertEquals("Item 1 has not been rented", exception.getMessage());
-        verify(commentRepository, never()).save(any());
+        assertEquals(comments, result);
+        verify(commentRepository, never()).findOlderByItemId(any(), any(), any());
     }
 
     @Test
-    void postComment_WithDifferentUser_ShouldThrowInternalValidationException() {
-        Long bookingUserId = 1L;
-        Long differentUserId = 2L;
-        Long itemId = 1L;
-        LocalDateTime pastTime = LocalDateTime.now().minusDays(1);
+    void getItemComments_WithCursor_ShouldReturnOlderComments() {
+        List<Comment> comments = List.of(new Comment());
 
-        User booker = new User();
-        booker.setId(bookingUserId);
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(commentRepository.findOlderByItemId(1L, 5L, PageRequest.ofSize(10))).thenReturn(comments);
 
-        Booking booking = new Booking();
-        booking.setItem(new Item());
-        booking.setBooker(booker);
-        booking.setStatus(BookingStatus.APPROVED);
-        booking.setEnd(pastTime);
+        List<Comment> result = commentService.getItemComments(1L, 5L, 10);
 
-        Comment comment = new Comment();
+        assertEquals(comments, result);
+    }
 
-        when(bookingRepository.findByItemId(itemId)).thenReturn(Optional.of(booking));
+    @Test
+    void getItemComments_WithNonExistingItem_ShouldThrowItemNotFoundException() {
+        when(itemRepository.existsById(999L)).thenReturn(false);
 
-        InternalValidationException exception = assertThrows(
-                InternalValidationException.class,
-                () -> commentService.postComment(differentUserId, itemId, comment)
+        ItemNotFoundException exception = assertThrows(
+                ItemNotFoundException.class,
+                () -> commentService.getItemComments(999L, null, 20)
         );
 
-        assertEquals("Other users cannot leave comments", exception.getMessage());
-        verify(commentRepository, never()).save(any());
+        assertEquals("Item with id 999 not found", exception.getMessage());
+        verifyNoInteractions(commentRepository);
     }
 
     @Test
-    void postComment_WithActiveRental_ShouldThrowInternalValidationException() {
-        Long userId = 1L;
-        Long itemId = 1L;
-        LocalDateTime futureTime = LocalDateTime.now().plusDays(1);
-
-        User booker = new User();
-        booker.setId(userId);
-
-        Booking booking = new Booking();
-        booking.setItem(new Item());
-        booking.setBooker(booker);
-        booking.setStatus(BookingStatus.APPROVED);
-        booking.setEnd(futureTime);
-
-        Comment comment = new Comment();
-
-        when(bookingRepository.findByItemId(itemId)).thenReturn(Optional.of(booking));
+    void getItemComments_WithNonPositiveSize_ShouldThrowInternalValidationException() {
+        when(itemRepository.existsById(1L)).thenReturn(true);
 
         InternalValidationException exception = assertThrows(
                 InternalValidationException.class,
-                () -> commentService.postComment(userId, itemId, comment)
+                () -> commentService.getItemComments(1L, null, 0)
         );
 
-        assertEquals("User did not end the rent", exception.getMessage());
-        verify(commentRepository, never()).save(any());
+        assertEquals("Page size must be positive", exception.getMessage());
+        verifyNoInteractions(commentRepository);
     }
-}
\ No newline at end of file
+}
@@ -1,28 +1,34 @@
 package ru.practicum.shareit.item.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
 import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.mapper.CommentMapper;
 import ru.practicum.shareit.item.comment.service.CommentService;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemVersion;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.streaming.JsonListStreamer;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -41,6 +47,12 @@ class ItemControllerTest {
     @Mock
     private CommentMapper commentMapper;
 
+    @Spy
+    private JsonListStreamer jsonListStreamer = new JsonListStreamer(
+            mock(PlatformTransactionManager.class), mock(EntityManager.class),
+            new ObjectMapper().findAndRegisterModules(), 100
+    );
+
     @InjectMocks
     private ItemController itemController;
 
@@ -66,6 +78,8 @@ class ItemControllerTest {
                 null,
                 null,
                 null,
+                null,
+                null,
                 null
         );
 
@@ -88,18 +102,48 @@ class ItemControllerTest {
         Long itemId = 1L;
         Long userId = 1L;
 
+        when(itemService.getItemVersion(itemId)).thenReturn(new ItemVersion(0L, 0L, 0L, 0L));
         when(itemService.getItemById(itemId)).thenReturn(item);
         when(itemMapper.toItemDto(item, null)).thenReturn(itemDto);
 
         mockMvc.perform(get("/items/{itemId}", itemId)
                         .header("X-Sharer-User-Id", userId))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0.0.0.0-1\""))
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.name").value("Test Item"))
                 .andExpect(jsonPath("$.description").value("Test Description"))
                 .andExpect(jsonPath("$.available").value(true));
     }
 
+    @Test
+    void getItemById_WithMatchingETag_ShouldReturnNotModifiedWithoutMapping() throws Exception {
+        when(itemService.getItemVersion(1L)).thenReturn(new ItemVersion(3L, 1L, 2L, 0L));
+
+        mockMvc.perform(get("/items/{itemId}", 1L)
+                        .header("X-Sharer-User-Id", 1L)
+                        .header("If-None-Match", "\"3.1.2.0-1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(itemService, never()).getItemById(any());
+        verifyNoInteractions(itemMapper);
+    }
+
+    @Test
+    void getItemById_WithETagOfAnotherViewer_ShouldReturnItem() throws Exception {
+        when(itemService.getItemVersion(1L)).thenReturn(new ItemVersion(3L, 1L, 2L, 0L));
+        when(itemService.getItemById(1L)).thenReturn(item);
+        when(itemMapper.toItemDto(item, null)).thenReturn(itemDto);
+
+        mockMvc.perform(get("/items/{itemId}", 1L)
+                        .header("X-Sharer-User-Id", 2L)
+                        .header("If-None-Match", "\"3.1.2.0-1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3.1.2.0-2\""))
+                .andExpect(jsonPath("$.id").value(1L));
+    }
+
     @Test
     void getItemById_WithoutUserIdHeader_ShouldReturnBadRequest() throws Exception {
         Long itemId = 1L;
@@ -114,11 +158,15 @@ class ItemControllerTest {
         List<Item> items = List.of(item);
         List<ItemDto> itemDtos = List.of(itemDto);
 
-        when(itemService.getUserItems(userId)).thenReturn(items);
+        when(itemService.streamUserItems(userId)).thenReturn(items.stream());
         when(itemMapper.toItemDtoList(items, userId)).thenReturn(itemDtos);
 
-        mockMvc.perform(get("/items")
+        MvcResult result = mockMvc.perform(get("/items")
                         .header("X-Sharer-User-Id", userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].name").value("Test Item"))
@@ -186,6 +234,8 @@ class ItemControllerTest {
                 null,
                 null,
                 null,
+                null,
+                null,
                 null
         );
 
@@ -214,6 +264,8 @@ class ItemControllerTest {
                 null,
                 null,
                 null,
+                null,
+                null,
                 null
         );
 
@@ -236,6 +288,8 @@ class ItemControllerTest {
                 null,
                 null,
                 null,
+                null,
+                null,
                 null
         );
 
@@ -254,6 +308,8 @@ class ItemControllerTest {
                 null,
                 null,
                 null,
+                null,
+                null,
                 null
         );
 
@@ -284,6 +340,8 @@ class ItemControllerTest {
                 null,
                 null,
                 null,
+                null,
+                null,
                 null
         );
 
@@ -347,6 +405,24 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$.authorName").value("Test User"));
     }
 
+    @Test
+    void getItemComments_ShouldReturnPageOfComments() throws Exception {
+        Long itemId = 1L;
+        List<ru.practicum.shareit.item.comment.model.Comment> comments =
+                List.of(new ru.practicum.shareit.item.comment.model.Comment());
+
+        when(commentService.getItemComments(itemId, 7L, 5)).thenReturn(comments);
+        when(commentMapper.toCommentDto(comments)).thenReturn(List.of(commentDto));
+
+        mockMvc.perform(get("/items/{itemId}/comments", itemId)
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("after", "7")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(jsonPath("$[0].text").value("Test comment"));
+    }
+
     @Test
     void postComment_WithoutUserIdHeader_ShouldReturnBadRequest() throws Exception {
         Long itemId = 1L;
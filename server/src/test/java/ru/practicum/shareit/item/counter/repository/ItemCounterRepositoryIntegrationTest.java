@@ -0,0 +1,79 @@
+package ru.practicum.shareit.item.counter.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.item.counter.model.ItemCounter;
+import ru.practicum.shareit.item.counter.model.ItemCounterId;
+import ru.practicum.shareit.item.counter.model.ItemCounts;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Sql(scripts = {"/test-schema.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class ItemCounterRepositoryIntegrationTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ItemCounterRepository itemCounterRepository;
+
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        User owner = new User();
+        owner.setEmail("owner@example.com");
+        owner.setName("Owner");
+        entityManager.persist(owner);
+
+        item = new Item(null, "Drill", "Cordless drill", true, owner, null);
+        entityManager.persist(item);
+
+        for (int stripe = 0; stripe < 4; stripe++) {
+            entityManager.persist(new ItemCounter(new ItemCounterId(item.getId(), stripe), 0L, 0L));
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    void increment_ShouldUpdateOnlyGivenStripe() {
+        int updated = itemCounterRepository.increment(item.getId(), 2, 1, 0);
+        entityManager.clear();
+
+        assertEquals(1, updated);
+        ItemCounter stripe = entityManager.find(ItemCounter.class, new ItemCounterId(item.getId(), 2));
+        assertEquals(1L, stripe.getRentals());
+        assertEquals(0L, stripe.getReviews());
+    }
+
+    @Test
+    void increment_WithMissingStripe_ShouldUpdateNothing() {
+        assertEquals(0, itemCounterRepository.increment(item.getId(), 9, 1, 0));
+    }
+
+    @Test
+    void sumByItemIdIn_ShouldSumAllStripesOfItemsWithRows() {
+        itemCounterRepository.increment(item.getId(), 1, 1, 0);
+        itemCounterRepository.increment(item.getId(), 3, 1, 1);
+
+        List<ItemCounts> result = itemCounterRepository.sumByItemIdIn(List.of(item.getId(), 999L));
+
+        assertEquals(List.of(new ItemCounts(item.getId(), 2L, 1L)), result);
+    }
+
+    @Test
+    void lockItem_ShouldReturnIdOfExistingItemOnly() {
+        assertEquals(Optional.of(item.getId()), itemCounterRepository.lockItem(item.getId()));
+        assertTrue(itemCounterRepository.lockItem(999L).isEmpty());
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.item.counter.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.counter.model.ItemCounter;
+import ru.practicum.shareit.item.counter.model.ItemCounterId;
+import ru.practicum.shareit.item.counter.model.ItemCounts;
+import ru.practicum.shareit.item.counter.repository.ItemCounterRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemCounterServiceTest {
+
+    private static final int STRIPES = 4;
+
+    @Mock
+    private ItemCounterRepository itemCounterRepository;
+
+    private ItemCounterServiceImpl itemCounterService;
+
+    @BeforeEach
+    void setUp() {
+        itemCounterService = new ItemCounterServiceImpl(itemCounterRepository, STRIPES);
+    }
+
+    @Test
+    void createCounters_ShouldCreateOneZeroRowPerStripe() {
+        itemCounterService.createCounters(1L);
+
+        ArgumentCaptor<List<ItemCounter>> captor = ArgumentCaptor.captor();
+        verify(itemCounterRepository).insertAll(captor.capture());
+        assertEquals(List.of(0, 1, 2, 3), captor.getValue().stream().map(counter -> counter.getId().getStripe()).toList());
+        assertTrue(captor.getValue().stream().allMatch(counter -> counter.getId().getItemId().equals(1L)
+                && counter.getRentals() == 0 && counter.getReviews() == 0));
+    }
+
+    @Test
+    void addRentals_ShouldIncrementOneExistingStripe() {
+        when(itemCounterRepository.increment(eq(1L), anyInt(), eq(1L), eq(0L))).thenReturn(1);
+
+        itemCounterService.addRentals(1L, 1);
+
+        ArgumentCaptor<Integer> stripe = ArgumentCaptor.forClass(Integer.class);
+        verify(itemCounterRepository).increment(eq(1L), stripe.capture(), eq(1L), eq(0L));
+        assertTrue(stripe.getValue() >= 0 && stripe.getValue() < STRIPES);
+        verify(itemCounterRepository, never()).lockItem(any());
+        verify(itemCounterRepository, never()).insertAll(any());
+    }
+
+    @Test
+    void addReviews_WithoutStripeRows_ShouldCreateAllStripesUnderItemLock() {
+        when(itemCounterRepository.increment(eq(1L), anyInt(), eq(0L), eq(1L))).thenReturn(0);
+        when(itemCounterRepository.lockItem(1L)).thenReturn(Optional.of(1L));
+
+        itemCounterService.addReviews(1L, 1);
+
+        ArgumentCaptor<List<ItemCounter>> captor = ArgumentCaptor.captor();
+        verify(itemCounterRepository).lockItem(1L);
+        verify(itemCounterRepository).insertAll(captor.capture());
+        assertEquals(STRIPES, captor.getValue().size());
+        assertEquals(1L, captor.getValue().stream().mapToLong(ItemCounter::getReviews).sum());
+        assertEquals(0L, captor.getValue().stream().mapToLong(ItemCounter::getRentals).sum());
+    }
+
+    @Test
+    void addReviews_WhenStripesCreatedWhileWaitingForLock_ShouldOnlyIncrement() {
+        when(itemCounterRepository.increment(eq(1L), anyInt(), eq(0L), eq(1L))).thenReturn(0, 1);
+        when(itemCounterRepository.lockItem(1L)).thenReturn(Optional.of(1L));
+
+        itemCounterService.addReviews(1L, 1);
+
+        verify(itemCounterRepository, times(2)).increment(eq(1L), anyInt(), eq(0L), eq(1L));
+        verify(itemCounterRepository, never()).insertAll(any());
+    }
+
+    @Test
+    void getCounts_ShouldReturnSummedStripesByItem() {
+        ItemCounts counts = new ItemCounts(1L, 2L, 1L);
+        when(itemCounterRepository.sumByItemIdIn(List.of(1L, 2L))).thenReturn(List.of(counts));
+
+        assertEquals(Map.of(1L, counts), itemCounterService.getCounts(List.of(1L, 2L)));
+    }
+
+    @Test
+    void getCounts_WithoutItems_ShouldNotQuery() {
+        assertEquals(Map.of(), itemCounterService.getCounts(List.of()));
+        verifyNoInteractions(itemCounterRepository);
+    }
+
+    @Test
+    void counterId_ShouldCompareByItemAndStripe() {
+        assertEquals(new ItemCounterId(1L, 2), new ItemCounterId(1L, 2));
+        assertNotEquals(new ItemCounterId(1L, 2), new ItemCounterId(1L, 3));
+    }
+}
@@ -16,6 +16,9 @@ import ru.practicum.shareit.item.comment.dto.CommentDto;
 import ru.practicum.shareit.item.comment.mapper.CommentMapper;
 import ru.practicum.shareit.item.comment.model.Comment;
 import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.counter.model.ItemCounts;
+import ru.practicum.shareit.item.counter.service.ItemCounterService;
+import ru.practicum.shareit.item.dto.ItemAnswerDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -25,11 +28,12 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -53,6 +57,9 @@ class ItemMapperTest {
     @Mock
     private ItemRequestRepository itemRequestRepository;
 
+    @Mock
+    private ItemCounterService itemCounterService;
+
     @InjectMocks
     private ItemMapper itemMapper;
 
@@ -75,24 +82,32 @@ class ItemMapperTest {
         Booking lastBooking = new Booking();
         lastBooking.setId(1L);
         lastBooking.setEnd(LocalDateTime.now().minusDays(1));
+        lastBooking.setItem(item);
 
         Booking nextBooking = new Booking();
         nextBooking.setId(2L);
         nextBooking.setStart(LocalDateTime.now().plusDays(1));
+        nextBooking.setEnd(LocalDateTime.now().plusDays(2));
+        nextBooking.setItem(item);
 
         BookingDtoOut lastBookingDto = new BookingDtoOut(1L, null, null, null, null, BookingStatus.APPROVED);
         BookingDtoOut nextBookingDto = new BookingDtoOut(2L, null, null, null, null, BookingStatus.WAITING);
 
-        List<Comment> comments = List.of(new Comment());
+        Comment comment = new Comment();
+        comment.setId(5L);
+        comment.setItem(item);
+        List<Comment> comments = List.of(comment);
         List<CommentDto> commentDtos = List.of(new CommentDto(1L, "Great item", "User", LocalDateTime.now()));
 
-        when(bookingRepository.findByEndBefore(any(LocalDateTime.class)))
+        when(bookingRepository.findEndedByItemIdIn(eq(List.of(itemId)), any(LocalDateTime.class)))
                 .thenReturn(List.of(lastBooking));
-        when(bookingRepository.findByStartAfter(any(LocalDateTime.class)))
+        when(bookingRepository.findUpcomingByItemIdIn(eq(List.of(itemId)), any(LocalDateTime.class)))
                 .thenReturn(List.of(nextBooking));
         when(bookingMapper.toBookingDtoOut(lastBooking)).thenReturn(lastBookingDto);
         when(bookingMapper.toBookingDtoOut(nextBooking)).thenReturn(nextBookingDto);
-        when(commentRepository.findByItemId(itemId)).thenReturn(comments);
+        when(commentRepository.findLatestIdsByItemIdIn(List.of(itemId), ItemMapper.INLINED_COMMENTS))
+                .thenReturn(List.of(5L));
+        when(commentRepository.findWithAuthorByIdIn(List.of(5L))).thenReturn(comments);
         when(commentMapper.toCommentDto(comments)).thenReturn(commentDtos);
 
         ItemDto result = itemMapper.toItemDto(item, userId);
@@ -108,6 +123,36 @@ class ItemMapperTest {
         assertEquals(commentDtos, result.getComments());
     }
 
+    @Test
+    void toItemDto_ShouldIncludeSummedCounters() {
+        User owner = new User();
+        owner.setId(1L);
+
+        Item item = new Item(1L, "Test Item", "Test Description", true, owner, null);
+
+        when(itemCounterService.getCounts(List.of(1L))).thenReturn(Map.of(1L, new ItemCounts(1L, 5L, 3L)));
+
+        ItemDto result = itemMapper.toItemDto(item, 2L);
+
+        assertEquals(5L, result.getRentalCount());
+        assertEquals(3L, result.getReviewCount());
+    }
+
+    @Test
+    void toItemDto_WithoutCounterRows_ShouldReportZeroCounts() {
+        User owner = new User();
+        owner.setId(1L);
+
+        Item item = new Item(1L, "Test Item", "Test Description", true, owner, null);
+
+        when(itemCounterService.getCounts(List.of(1L))).thenReturn(Map.of());
+
+        ItemDto result = itemMapper.toItemDto(item, 2L);
+
+        assertEquals(0L, result.getRentalCount());
+        assertEquals(0L, result.getReviewCount());
+    }
+
     @Test
     void toItemDto_WithNonOwnerUser_ShouldReturnItemDtoWithoutBookings() {
         Long ownerId = 1L;
@@ -127,9 +172,6 @@ class ItemMapperTest {
         List<Comment> comments = List.of();
         List<CommentDto> commentDtos = List.of();
 
-        when(bookingRepository.findByEndBefore(any(LocalDateTime.class))).thenReturn(List.of());
-        when(bookingRepository.findByStartAfter(any(LocalDateTime.class))).thenReturn(List.of());
-        when(commentRepository.findByItemId(itemId)).thenReturn(comments);
         when(commentMapper.toCommentDto(comments)).thenReturn(commentDtos);
 
         ItemDto result = itemMapper.toItemDto(item, otherUserId);
@@ -161,9 +203,6 @@ class ItemMapperTest {
         item.setOwner(owner);
         item.setRequest(request);
 
-        when(bookingRepository.findByEndBefore(any(LocalDateTime.class))).thenReturn(List.of());
-        when(bookingRepository.findByStartAfter(any(LocalDateTime.class))).thenReturn(List.of());
-        when(commentRepository.findByItemId(itemId)).thenReturn(List.of());
         when(commentMapper.toCommentDto(any())).thenReturn(List.of());
 
         ItemDto result = itemMapper.toItemDto(item, userId);
@@ -188,9 +227,6 @@ class ItemMapperTest {
         item.setOwner(owner);
         item.setRequest(null);
 
-        when(bookingRepository.findByEndBefore(any(LocalDateTime.class))).thenReturn(List.of());
-        when(bookingRepository.findByStartAfter(any(LocalDateTime.class))).thenReturn(List.of());
-        when(commentRepository.findByItemId(itemId)).thenReturn(List.of());
         when(commentMapper.toCommentDto(any())).thenReturn(List.of());
 
         ItemDto result = itemMapper.toItemDto(item, userId);
@@ -216,10 +252,8 @@ class ItemMapperTest {
 
         List<Item> items = List.of(item1, item2);
 
-        when(bookingRepository.findByEndBefore(any(LocalDateTime.class))).thenReturn(List.of());
-        when(bookingRepository.findByStartAfter(any(LocalDateTime.class))).thenReturn(List.of());
-        when(commentRepository.findByItemId(anyLong())).thenReturn(List.of());
         when(commentMapper.toCommentDto(any())).thenReturn(List.of());
+        when(itemCounterService.getCounts(List.of(1L, 2L))).thenReturn(Map.of(2L, new ItemCounts(2L, 1L, 0L)));
 
         List<ItemDto> result = itemMapper.toItemDtoList(items, userId);
 
@@ -227,6 +261,46 @@ class ItemMapperTest {
         assertEquals(2, result.size());
         assertEquals(1L, result.get(0).getId());
         assertEquals(2L, result.get(1).getId());
+        assertEquals(0L, result.get(0).getRentalCount());
+        assertEquals(1L, result.get(1).getRentalCount());
+        verify(itemCounterService, times(1)).getCounts(any());
+        verify(bookingRepository, times(1)).findEndedByItemIdIn(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        verify(bookingRepository, times(1)).findUpcomingByItemIdIn(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        verify(commentRepository, times(1)).findLatestIdsByItemIdIn(List.of(1L, 2L), ItemMapper.INLINED_COMMENTS);
+    }
+
+    @Test
+    void toItemDto_List_ShouldPickEachItemsOwnLastAndNextBooking() {
+        User owner = new User();
+        owner.setId(1L);
+
+        Item item1 = new Item(1L, "Drill", "Cordless drill", true, owner, null);
+        Item item2 = new Item(2L, "Saw", "Hand saw", true, owner, null);
+
+        LocalDateTime now = LocalDateTime.now();
+        Booking older = new Booking(1L, now.minusDays(5), now.minusDays(4), item1, null, BookingStatus.APPROVED);
+        Booking newer = new Booking(2L, now.minusDays(3), now.minusDays(2), item1, null, BookingStatus.APPROVED);
+        Booking other = new Booking(3L, now.minusDays(2), now.minusDays(1), item2, null, BookingStatus.APPROVED);
+        Booking sooner = new Booking(4L, now.plusDays(1), now.plusDays(2), item2, null, BookingStatus.WAITING);
+        Booking later = new Booking(5L, now.plusDays(3), now.plusDays(4), item2, null, BookingStatus.WAITING);
+        BookingDtoOut newerDto = new BookingDtoOut(2L, null, null, null, null, BookingStatus.APPROVED);
+        BookingDtoOut otherDto = new BookingDtoOut(3L, null, null, null, null, BookingStatus.APPROVED);
+        BookingDtoOut soonerDto = new BookingDtoOut(4L, null, null, null, null, BookingStatus.WAITING);
+
+        when(bookingRepository.findEndedByItemIdIn(eq(List.of(1L, 2L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(older, other, newer));
+        when(bookingRepository.findUpcomingByItemIdIn(eq(List.of(1L, 2L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(later, sooner));
+        when(bookingMapper.toBookingDtoOut(newer)).thenReturn(newerDto);
+        when(bookingMapper.toBookingDtoOut(other)).thenReturn(otherDto);
+        when(bookingMapper.toBookingDtoOut(sooner)).thenReturn(soonerDto);
+
+        List<ItemDto> result = itemMapper.toItemDtoList(List.of(item1, item2), 1L);
+
+        assertEquals(newerDto, result.get(0).getLastBooking());
+        assertNull(result.get(0).getNextBooking());
+        assertEquals(otherDto, result.get(1).getLastBooking());
+        assertEquals(soonerDto, result.get(1).getNextBooking());
     }
 
     @Test
@@ -243,6 +317,8 @@ class ItemMapperTest {
                 requestId,
                 null,
                 null,
+                null,
+                null,
                 null
         );
 
@@ -279,6 +355,8 @@ class ItemMapperTest {
                 null,
                 null,
                 null,
+                null,
+                null,
                 null
         );
 
@@ -307,6 +385,8 @@ class ItemMapperTest {
                 null,
                 null,
                 null,
+                null,
+                null,
                 null
         );
 
@@ -334,6 +414,8 @@ class ItemMapperTest {
                 requestId,
                 null,
                 null,
+                null,
+                null,
                 null
         );
 
@@ -379,4 +461,30 @@ class ItemMapperTest {
     void toItemDto_List_WithNullList_ShouldThrowNullPointerException() {
         assertThrows(NullPointerException.class, () -> itemMapper.toItemDto(null, 1L));
     }
-}
\ No newline at end of file
+
+    @Test
+    void toItemAnswerDto_ShouldMapItemFieldsWithoutBookingsOrComments() {
+        User owner = new User();
+        owner.setId(7L);
+
+        Item item = new Item();
+        item.setId(3L);
+        item.setName("Drill");
+        item.setDescription("Powerful drill");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        ItemRequest request = new ItemRequest();
+        request.setId(5L);
+        item.setRequest(request);
+
+        ItemAnswerDto result = itemMapper.toItemAnswerDto(item);
+
+        assertEquals(3L, result.getId());
+        assertEquals("Drill", result.getName());
+        assertEquals("Powerful drill", result.getDescription());
+        assertTrue(result.getAvailable());
+        assertEquals(7L, result.getOwnerId());
+        assertEquals(5L, result.getRequestId());
+        verifyNoInteractions(bookingRepository, commentRepository);
+    }
+}
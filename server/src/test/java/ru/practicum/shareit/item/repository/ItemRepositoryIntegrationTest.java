@@ -6,12 +6,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.counter.model.ItemCounter;
+import ru.practicum.shareit.item.counter.model.ItemCounterId;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemVersion;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -218,6 +223,25 @@ class ItemRepositoryIntegrationTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void findByRequest_IdIn_ShouldReturnItemsForAllRequestedRequests() {
+        Item item1 = createItem("Item for request 1", "Description 1", owner1, true, request1);
+        Item item2 = createItem("Item for request 2", "Description 2", owner2, true, request2);
+        Item item3 = createItem("Item without request", "Description 3", owner1, true, null);
+
+        entityManager.persist(item1);
+        entityManager.persist(item2);
+        entityManager.persist(item3);
+        entityManager.flush();
+
+        List<Item> result = itemRepository.findByRequest_IdIn(List.of(request1.getId(), request2.getId()));
+
+        assertEquals(2, result.size());
+        assertTrue(result.stream().anyMatch(item -> item.getRequest().getId().equals(request1.getId())));
+        assertTrue(result.stream().anyMatch(item -> item.getRequest().getId().equals(request2.getId())));
+        assertTrue(result.stream().noneMatch(item -> item.getName().equals("Item without request")));
+    }
+
     @Test
     void save_ShouldPersistItemWithCorrectRelations() {
         Item newItem = createItem("New Item", "New Description", owner1, true, request1);
@@ -284,6 +308,46 @@ class ItemRepositoryIntegrationTest {
         assertTrue(itemRepository.findById(itemId).isEmpty());
     }
 
+    @Test
+    void findVersionById_ShouldChangeWithItemUpdateAndCounters() {
+        Item item = createItem("Drill", "Cordless drill", owner1, true, null);
+        entityManager.persist(item);
+        entityManager.persist(new ItemCounter(new ItemCounterId(item.getId(), 0), 1L, 0L));
+        entityManager.persist(new ItemCounter(new ItemCounterId(item.getId(), 1), 1L, 3L));
+        entityManager.flush();
+
+        assertEquals(Optional.of(new ItemVersion(0L, 2L, 3L, 0L)), itemRepository.findVersionById(item.getId()));
+
+        item.setName("Hammer drill");
+        entityManager.flush();
+
+        assertEquals(Optional.of(new ItemVersion(1L, 2L, 3L, 0L)), itemRepository.findVersionById(item.getId()));
+    }
+
+    @Test
+    void findVersionById_ShouldChangeWhenCommentAuthorIsRenamed() {
+        Item item = createItem("Drill", "Cordless drill", owner1, true, null);
+        entityManager.persist(item);
+        entityManager.persist(new Comment(null, "Great drill", item, owner2, LocalDateTime.now()));
+        entityManager.flush();
+
+        String before = itemRepository.findVersionById(item.getId()).orElseThrow().tag();
+        owner2.setName("Renamed");
+        entityManager.flush();
+
+        assertNotEquals(before, itemRepository.findVersionById(item.getId()).orElseThrow().tag());
+    }
+
+    @Test
+    void findVersionById_WithoutCounters_ShouldReportZeroCounts() {
+        Item item = createItem("Drill", "Cordless drill", owner1, true, null);
+        entityManager.persist(item);
+        entityManager.flush();
+
+        assertEquals(Optional.of(new ItemVersion(0L, 0L, 0L, 0L)), itemRepository.findVersionById(item.getId()));
+        assertTrue(itemRepository.findVersionById(999L).isEmpty());
+    }
+
     private User createUser(String email, String name) {
         User user = new User();
         user.setEmail(email);
@@ -75,7 +75,7 @@ class ItemServiceIntegrationTest {
     }
 
     @Test
-    void getUserItems_ShouldReturnOnlyUserItems() {
+    void streamUserItems_ShouldReturnOnlyUserItems() {
         Item item1 = createItem("Item 1", "Description 1", owner, true);
         Item item2 = createItem("Item 2", "Description 2", owner, true);
         Item item3 = createItem("Item 3", "Description 3", anotherUser, true);
@@ -84,15 +84,15 @@ class ItemServiceIntegrationTest {
         itemRepository.save(item2);
         itemRepository.save(item3);
 
-        List<Item> result = itemService.getUserItems(owner.getId());
+        List<Item> result = itemService.streamUserItems(owner.getId()).toList();
 
         assertEquals(2, result.size());
         assertTrue(result.stream().allMatch(item -> item.getOwner().getId().equals(owner.getId())));
     }
 
     @Test
-    void getUserItems_WithNonExistingUser_ShouldThrowUserNotFoundException() {
-        assertThrows(UserNotFoundException.class, () -> itemService.getUserItems(999L));
+    void streamUserItems_WithNonExistingUser_ShouldThrowUserNotFoundException() {
+        assertThrows(UserNotFoundException.class, () -> itemService.streamUserItems(999L));
     }
 
     @Test
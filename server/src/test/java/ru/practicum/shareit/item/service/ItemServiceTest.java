@@ -5,10 +5,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.practicum.shareit.exception.InternalValidationException;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.counter.service.ItemCounterService;
+import ru.practicum.shareit.item.event.ItemAddedEvent;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemVersion;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -30,6 +34,12 @@ class ItemServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ItemCounterService itemCounterService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -56,6 +66,27 @@ class ItemServiceTest {
         verify(itemRepository).findById(itemId);
     }
 
+    @Test
+    void getItemVersion_WithExistingItem_ShouldReturnVersion() {
+        ItemVersion version = new ItemVersion(2L, 1L, 0L, 0L);
+        when(itemRepository.findVersionById(1L)).thenReturn(Optional.of(version));
+
+        assertEquals(version, itemService.getItemVersion(1L));
+        verify(itemRepository, never()).findById(any());
+    }
+
+    @Test
+    void getItemVersion_WithNonExistingItem_ShouldThrowItemNotFoundException() {
+        when(itemRepository.findVersionById(999L)).thenReturn(Optional.empty());
+
+        ItemNotFoundException exception = assertThrows(
+                ItemNotFoundException.class,
+                () -> itemService.getItemVersion(999L)
+        );
+
+        assertEquals("Item with id 999 not found", exception.getMessage());
+    }
+
     @Test
     void getItemById_WithNonExistingItem_ShouldThrowItemNotFoundException() {
         Long itemId = 999L;
@@ -70,32 +101,32 @@ class ItemServiceTest {
     }
 
     @Test
-    void getUserItems_WithExistingUser_ShouldReturnUserItems() {
+    void streamUserItems_WithExistingUser_ShouldReturnUserItems() {
         Long userId = 1L;
         List<Item> expectedItems = List.of(new Item(), new Item());
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(new User()));
-        when(itemRepository.findByOwnerId(userId)).thenReturn(expectedItems);
+        when(itemRepository.streamByOwnerId(userId)).thenReturn(expectedItems.stream());
 
-        List<Item> result = itemService.getUserItems(userId);
+        List<Item> result = itemService.streamUserItems(userId).toList();
 
         assertEquals(expectedItems, result);
         verify(userRepository).findById(userId);
-        verify(itemRepository).findByOwnerId(userId);
+        verify(itemRepository).streamByOwnerId(userId);
     }
 
     @Test
-    void getUserItems_WithNonExistingUser_ShouldThrowUserNotFoundException() {
+    void streamUserItems_WithNonExistingUser_ShouldThrowUserNotFoundException() {
         Long userId = 999L;
         when(userRepository.findById(userId)).thenReturn(Optional.empty());
 
         UserNotFoundException exception = assertThrows(
                 UserNotFoundException.class,
-                () -> itemService.getUserItems(userId)
+                () -> itemService.streamUserItems(userId)
         );
 
         assertEquals("User with id 999 not found", exception.getMessage());
-        verify(itemRepository, never()).findByOwnerId(anyLong());
+        verify(itemRepository, never()).streamByOwnerId(anyLong());
     }
 
     @Test
@@ -150,6 +181,8 @@ class ItemServiceTest {
         assertEquals(ownerId, itemData.getOwner().getId());
         verify(userRepository).findById(ownerId);
         verify(itemRepository).save(itemData);
+        verify(itemCounterService).createCounters(1L);
+        verify(eventPublisher).publishEvent(any(ItemAddedEvent.class));
     }
 
     @Test
@@ -166,6 +199,7 @@ class ItemServiceTest {
 
         assertEquals("User with id 999 not found", exception.getMessage());
         verify(itemRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
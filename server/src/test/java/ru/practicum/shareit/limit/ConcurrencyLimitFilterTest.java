@@ -0,0 +1,43 @@
+package ru.practicum.shareit.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(true, 10, 5, 100,
+            Duration.ofMillis(100), Duration.ofSeconds(60), 1.5, 0.2, 0.3, meterRegistry);
+
+    @Test
+    void doFilter_ShouldReleaseSlotWhenRequestReturns() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/items"), new MockHttpServletResponse(),
+                (request, response) -> assertEquals(1, readsInflight()));
+
+        assertEquals(0, readsInflight());
+    }
+
+    @Test
+    void doFilter_WithStreamedBody_ShouldHoldSlotUntilResponseIsComplete() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bookings");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        AsyncContext asyncContext = request.getAsyncContext();
+
+        assertEquals(1, readsInflight());
+        asyncContext.complete();
+        assertEquals(0, readsInflight());
+    }
+
+    private double readsInflight() {
+        return meterRegistry.get("shareit.server.concurrency.inflight").tag("class", "read").gauge().value();
+    }
+}
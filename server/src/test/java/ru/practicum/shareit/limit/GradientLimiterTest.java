@@ -0,0 +1,150 @@
+package ru.practicum.shareit.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradientLimiterTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long MIN_RTT_INTERVAL = TimeUnit.MINUTES.toNanos(1);
+
+    private long now = 1;
+
+    @Test
+    void getLimit_UntilUnloadedLatencyIsMeasured_ShouldStayAtMinimum() {
+        GradientLimiter limiter = limiter(20);
+
+        assertEquals(5, limiter.getLimit());
+        measureUnloaded(limiter, 10 * MILLIS);
+
+        assertEquals(20, limiter.getLimit());
+    }
+
+    @Test
+    void tryAcquire_WhenLimitIsReached_ShouldShedReadsButKeepWriteShare() {
+        GradientLimiter limiter = limiter(10);
+        measureUnloaded(limiter, 10 * MILLIS);
+
+        for (int i = 0; i < 7; i++) {
+            assertTrue(limiter.tryAcquire(RequestClass.READ));
+        }
+
+        assertFalse(limiter.tryAcquire(RequestClass.READ));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire(RequestClass.WRITE));
+        }
+        assertFalse(limiter.tryAcquire(RequestClass.WRITE));
+    }
+
+    @Test
+    void tryAcquire_WhenReadsAreIdle_ShouldLetWritesTakeWholeLimit() {
+        GradientLimiter limiter = limiter(10);
+        measureUnloaded(limiter, 10 * MILLIS);
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire(RequestClass.WRITE));
+        }
+
+        assertFalse(limiter.tryAcquire(RequestClass.WRITE));
+        assertFalse(limiter.tryAcquire(RequestClass.READ));
+    }
+
+    @Test
+    void tryAcquire_UnderAnyMix_ShouldNeverExceedLimit() {
+        GradientLimiter limiter = limiter(10);
+        measureUnloaded(limiter, 10 * MILLIS);
+        Random random = new Random(47);
+
+        for (int i = 0; i < 10_000; i++) {
+            RequestClass requestClass = random.nextBoolean() ? RequestClass.READ : RequestClass.WRITE;
+            if (random.nextInt(3) > 0) {
+                limiter.tryAcquire(requestClass);
+            } else if (limiter.getInflight(requestClass) > 0) {
+                limiter.release(requestClass, 0, now);
+            }
+            int total = limiter.getInflight(RequestClass.READ) + limiter.getInflight(RequestClass.WRITE);
+            assertTrue(total <= limiter.getLimit(), total + " in flight with limit " + limiter.getLimit());
+        }
+    }
+
+    @Test
+    void release_WhenLatencyRises_ShouldLowerLimit() {
+        GradientLimiter limiter = limiter(40);
+        measureUnloaded(limiter, 10 * MILLIS);
+
+        run(limiter, 40, 500, 40 * MILLIS);
+
+        assertTrue(limiter.getLimit() < 40, "limit " + limiter.getLimit());
+    }
+
+    @Test
+    void release_WhenLatencyRecovers_ShouldRaiseLimitAgain() {
+        GradientLimiter limiter = limiter(40);
+        measureUnloaded(limiter, 10 * MILLIS);
+        run(limiter, 40, 500, 40 * MILLIS);
+        int lowered = limiter.getLimit();
+
+        run(limiter, lowered, 500, 10 * MILLIS);
+
+        assertTrue(limiter.getLimit() > lowered, limiter.getLimit() + " after " + lowered);
+    }
+
+    @Test
+    void release_WhenLimitIsMostlyUnused_ShouldNotRaiseIt() {
+        GradientLimiter limiter = limiter(20);
+        measureUnloaded(limiter, 10 * MILLIS);
+
+        run(limiter, 2, 500, 10 * MILLIS);
+
+        assertEquals(20, limiter.getLimit());
+    }
+
+    @Test
+    void release_AfterMinRttInterval_ShouldMeasureUnloadedLatencyAgain() {
+        GradientLimiter limiter = limiter(20);
+        measureUnloaded(limiter, 10 * MILLIS);
+
+        now += 2 * MIN_RTT_INTERVAL;
+        run(limiter, 1, 1, 10 * MILLIS);
+        assertEquals(5, limiter.getLimit());
+
+        measureUnloaded(limiter, 20 * MILLIS);
+        assertEquals(20, limiter.getLimit());
+        run(limiter, 20, 500, 20 * MILLIS);
+        assertTrue(limiter.getLimit() >= 20, "limit " + limiter.getLimit());
+    }
+
+    // No window length, so the limit moves every ten samples
+    private static GradientLimiter limiter(int initialLimit) {
+        return new GradientLimiter(initialLimit, 5, 100, 0, MIN_RTT_INTERVAL, 1.5, 0.2, 0.3);
+    }
+
+    // Requests one at a time, each started after the previous one finished
+    private void measureUnloaded(GradientLimiter limiter, long rttNanos) {
+        for (int i = 0; i < 51 && limiter.getLimit() == 5; i++) {
+            limiter.tryAcquire(RequestClass.READ);
+            now += rttNanos;
+            limiter.release(RequestClass.READ, rttNanos, now);
+        }
+    }
+
+    // Keeps up to the given number of reads in flight, completing one with the given latency and starting the next
+    private void run(GradientLimiter limiter, int concurrency, int steps, long rttNanos) {
+        int started = 0;
+        while (started < concurrency && limiter.tryAcquire(RequestClass.READ)) {
+            started++;
+        }
+        for (int i = 0; i < steps; i++) {
+            now += MILLIS;
+            limiter.release(RequestClass.READ, rttNanos, now);
+            limiter.tryAcquire(RequestClass.READ);
+        }
+        while (limiter.getInflight(RequestClass.READ) > 0) {
+            limiter.release(RequestClass.READ, 0, now);
+        }
+    }
+}
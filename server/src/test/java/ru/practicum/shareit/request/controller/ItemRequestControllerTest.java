@@ -1,25 +1,36 @@
 package ru.practicum.shareit.request.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestVersion;
+import ru.practicum.shareit.request.model.RequestMatch;
 import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.request.stream.ItemRequestFeed;
+import ru.practicum.shareit.streaming.JsonListStreamer;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -32,6 +43,15 @@ class ItemRequestControllerTest {
     @Mock
     private ItemRequestMapper itemRequestMapper;
 
+    @Mock
+    private ItemRequestFeed itemRequestFeed;
+
+    @Spy
+    private JsonListStreamer jsonListStreamer = new JsonListStreamer(
+            mock(PlatformTransactionManager.class), mock(EntityManager.class),
+            new ObjectMapper().findAndRegisterModules(), 100
+    );
+
     @InjectMocks
     private ItemRequestController itemRequestController;
 
@@ -82,7 +102,7 @@ class ItemRequestControllerTest {
         List<ItemRequest> requests = List.of(itemRequest);
         List<ItemRequestDto> requestDtos = List.of(itemRequestDto);
 
-        when(itemRequestService.getUserItemRequests(userId)).thenReturn(requests);
+        when(itemRequestService.getUserItemRequests(userId, null, null)).thenReturn(requests);
         when(itemRequestMapper.toItemRequestDtoList(requests)).thenReturn(requestDtos);
 
         mockMvc.perform(get("/requests")
@@ -105,7 +125,7 @@ class ItemRequestControllerTest {
         List<ItemRequest> emptyRequests = List.of();
         List<ItemRequestDto> emptyDtos = List.of();
 
-        when(itemRequestService.getUserItemRequests(userId)).thenReturn(emptyRequests);
+        when(itemRequestService.getUserItemRequests(userId, null, null)).thenReturn(emptyRequests);
         when(itemRequestMapper.toItemRequestDtoList(emptyRequests)).thenReturn(emptyDtos);
 
         mockMvc.perform(get("/requests")
@@ -121,16 +141,69 @@ class ItemRequestControllerTest {
         List<ItemRequest> requests = List.of(itemRequest);
         List<ItemRequestDto> requestDtos = List.of(itemRequestDto);
 
-        when(itemRequestService.getAllRequests()).thenReturn(requests);
+        when(itemRequestService.streamAllRequests(null, null)).thenReturn(requests.stream());
         when(itemRequestMapper.toItemRequestDtoList(requests)).thenReturn(requestDtos);
 
-        mockMvc.perform(get("/requests/all")
+        MvcResult result = mockMvc.perform(get("/requests/all")
                         .header("X-Sharer-User-Id", userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].description").value("Need a drill for home repairs"));
     }
 
+    @Test
+    void getAllRequests_WithCursor_ShouldPassCursorAndSizeToService() throws Exception {
+        Long userId = 1L;
+        List<ItemRequest> requests = List.of(itemRequest);
+        List<ItemRequestDto> requestDtos = List.of(itemRequestDto);
+
+        when(itemRequestService.streamAllRequests(5L, 2)).thenReturn(requests.stream());
+        when(itemRequestMapper.toItemRequestDtoList(requests)).thenReturn(requestDtos);
+
+        MvcResult result = mockMvc.perform(get("/requests/all")
+                        .header("X-Sharer-User-Id", userId)
+                        .param("after", "5")
+                        .param("size", "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L));
+    }
+
+    @Test
+    void streamRequests_ShouldStartAsyncEventStream() throws Exception {
+        when(itemRequestFeed.subscribe()).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/requests/stream")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(itemRequestService).checkUserExists(1L);
+    }
+
+    @Test
+    void getRequestSuggestions_ShouldReturnMatchedItems() throws Exception {
+        List<RequestMatch> matches = List.of(new RequestMatch());
+        List<RequestMatchDto> matchDtos = List.of(new RequestMatchDto(5L, "Drill", "Cordless drill", 2L, 1.0));
+
+        when(itemRequestService.getRequestMatches(1L, 1L)).thenReturn(matches);
+        when(itemRequestMapper.toRequestMatchDtoList(matches)).thenReturn(matchDtos);
+
+        mockMvc.perform(get("/requests/{requestId}/suggestions", 1L)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].itemId").value(5L))
+                .andExpect(jsonPath("$[0].ownerId").value(2L))
+                .andExpect(jsonPath("$[0].score").value(1.0));
+    }
+
     @Test
     void getAllRequests_WithoutUserIdHeader_ShouldReturnBadRequest() throws Exception {
         mockMvc.perform(get("/requests/all"))
@@ -141,13 +214,15 @@ class ItemRequestControllerTest {
     void getAllRequests_WithNoRequests_ShouldReturnEmptyList() throws Exception {
         Long userId = 1L;
         List<ItemRequest> emptyRequests = List.of();
-        List<ItemRequestDto> emptyDtos = List.of();
 
-        when(itemRequestService.getAllRequests()).thenReturn(emptyRequests);
-        when(itemRequestMapper.toItemRequestDtoList(emptyRequests)).thenReturn(emptyDtos);
+        when(itemRequestService.streamAllRequests(null, null)).thenReturn(emptyRequests.stream());
 
-        mockMvc.perform(get("/requests/all")
+        MvcResult result = mockMvc.perform(get("/requests/all")
                         .header("X-Sharer-User-Id", userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$").isEmpty());
@@ -158,6 +233,7 @@ class ItemRequestControllerTest {
         Long userId = 1L;
         Long requestId = 1L;
 
+        when(itemRequestService.getItemRequestVersion(requestId)).thenReturn(new ItemRequestVersion(0L, 0L, 0L, 0L, 0L));
         when(itemRequestService.getItemRequest(requestId)).thenReturn(itemRequest);
         when(itemRequestMapper.toItemRequestDto(itemRequest)).thenReturn(itemRequestDto);
 
@@ -169,6 +245,20 @@ class ItemRequestControllerTest {
                 .andExpect(jsonPath("$.requestor.id").value(1L));
     }
 
+    @Test
+    void getItemRequest_WithMatchingETag_ShouldReturnNotModifiedWithoutMapping() throws Exception {
+        when(itemRequestService.getItemRequestVersion(1L)).thenReturn(new ItemRequestVersion(1L, 0L, 2L, 1L, 7L));
+
+        mockMvc.perform(get("/requests/{requestId}", 1L)
+                        .header("X-Sharer-User-Id", 1L)
+                        .header("If-None-Match", "\"1.0.2.1.7-1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1.0.2.1.7-1\""));
+
+        verify(itemRequestService, never()).getItemRequest(any());
+        verifyNoInteractions(itemRequestMapper);
+    }
+
     @Test
     void getItemRequest_WithoutUserIdHeader_ShouldReturnBadRequest() throws Exception {
         Long requestId = 1L;
@@ -199,6 +289,7 @@ class ItemRequestControllerTest {
         specificRequest.setId(2L);
         specificRequest.setDescription("Need a hammer");
 
+        when(itemRequestService.getItemRequestVersion(requestId)).thenReturn(new ItemRequestVersion(0L, 0L, 0L, 0L, 0L));
         when(itemRequestService.getItemRequest(requestId)).thenReturn(specificRequest);
         when(itemRequestMapper.toItemRequestDto(specificRequest)).thenReturn(specificRequestDto);
 
@@ -231,7 +322,7 @@ class ItemRequestControllerTest {
         List<ItemRequest> requests = List.of(request1, request2);
         List<ItemRequestDto> requestDtos = List.of(requestDto1, requestDto2);
 
-        when(itemRequestService.getUserItemRequests(userId)).thenReturn(requests);
+        when(itemRequestService.getUserItemRequests(userId, null, null)).thenReturn(requests);
         when(itemRequestMapper.toItemRequestDtoList(requests)).thenReturn(requestDtos);
 
         mockMvc.perform(get("/requests")
@@ -6,12 +6,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.exception.UserNotFoundException;
-import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemAnswerDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestMatch;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -21,6 +23,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -133,23 +136,20 @@ class ItemRequestMapperTest {
         itemRequest.setRequestor(requestor);
         itemRequest.setCreated(LocalDateTime.now().minusDays(1));
 
-        Item item1 = new Item();
-        item1.setId(1L);
-        Item item2 = new Item();
-        item2.setId(2L);
-        List<Item> items = List.of(item1, item2);
+        Item item1 = createAnswer(1L, itemRequest);
+        Item item2 = createAnswer(2L, itemRequest);
 
-        ItemDto itemDto1 = new ItemDto(1L, "Drill", "Powerful drill", true, 2L, null, null, null, null);
-        ItemDto itemDto2 = new ItemDto(2L, "Hammer", "Heavy hammer", true, 2L, null, null, null, null);
-        List<ItemDto> itemDtos = List.of(itemDto1, itemDto2);
+        ItemAnswerDto answerDto1 = new ItemAnswerDto(1L, "Drill", null, true, 2L, null);
+        ItemAnswerDto answerDto2 = new ItemAnswerDto(2L, "Hammer", null, true, 2L, null);
 
         ru.practicum.shareit.user.dto.UserDto userDto = new ru.practicum.shareit.user.dto.UserDto();
         userDto.setId(userId);
         userDto.setName("Requestor");
         userDto.setEmail("requestor@example.com");
 
-        when(itemRepository.findByRequest_Id(requestId)).thenReturn(items);
-        when(itemMapper.toItemDtoList(items, userId)).thenReturn(itemDtos);
+        when(itemRepository.findByRequest_IdIn(List.of(requestId))).thenReturn(List.of(item1, item2));
+        when(itemMapper.toItemAnswerDto(item1)).thenReturn(answerDto1);
+        when(itemMapper.toItemAnswerDto(item2)).thenReturn(answerDto2);
         when(userMapper.toUserDto(requestor)).thenReturn(userDto);
 
         ItemRequestDto result = itemRequestMapper.toItemRequestDto(itemRequest);
@@ -159,7 +159,7 @@ class ItemRequestMapperTest {
         assertEquals("Need a drill", result.getDescription());
         assertEquals(userDto, result.getRequestor());
         assertEquals(itemRequest.getCreated(), result.getCreated());
-        assertEquals(itemDtos, result.getItems());
+        assertEquals(List.of(answerDto1, answerDto2), result.getItems());
         assertEquals(2, result.getItems().size());
     }
 
@@ -180,8 +180,7 @@ class ItemRequestMapperTest {
         ru.practicum.shareit.user.dto.UserDto userDto = new ru.practicum.shareit.user.dto.UserDto();
         userDto.setId(userId);
 
-        when(itemRepository.findByRequest_Id(requestId)).thenReturn(List.of());
-        when(itemMapper.toItemDtoList(List.of(), userId)).thenReturn(List.of());
+        when(itemRepository.findByRequest_IdIn(List.of(requestId))).thenReturn(List.of());
         when(userMapper.toUserDto(requestor)).thenReturn(userDto);
 
         ItemRequestDto result = itemRequestMapper.toItemRequestDto(itemRequest);
@@ -199,31 +198,28 @@ class ItemRequestMapperTest {
     }
 
     @Test
-    void toItemRequestDto_ShouldUseRequestorIdForItemMapping() {
+    void toItemRequestDto_ShouldNotMapAnswersAsFullItems() {
         Long requestId = 1L;
-        Long requestorId = 5L;
 
         User requestor = new User();
-        requestor.setId(requestorId);
+        requestor.setId(5L);
 
         ItemRequest itemRequest = new ItemRequest();
         itemRequest.setId(requestId);
         itemRequest.setRequestor(requestor);
         itemRequest.setCreated(LocalDateTime.now());
 
-        List<Item> items = List.of(new Item());
-        List<ItemDto> itemDtos = List.of(new ItemDto());
+        Item item = createAnswer(1L, itemRequest);
 
-        ru.practicum.shareit.user.dto.UserDto userDto = new ru.practicum.shareit.user.dto.UserDto();
-
-        when(itemRepository.findByRequest_Id(requestId)).thenReturn(items);
-        when(itemMapper.toItemDtoList(items, requestorId)).thenReturn(itemDtos);
-        when(userMapper.toUserDto(requestor)).thenReturn(userDto);
+        when(itemRepository.findByRequest_IdIn(List.of(requestId))).thenReturn(List.of(item));
+        when(itemMapper.toItemAnswerDto(item)).thenReturn(new ItemAnswerDto());
+        when(userMapper.toUserDto(requestor)).thenReturn(new ru.practicum.shareit.user.dto.UserDto());
 
-        ItemRequestDto result = itemRequestMapper.toItemRequestDto(itemRequest);
+        itemRequestMapper.toItemRequestDto(itemRequest);
 
-        assertNotNull(result);
-        verify(itemMapper).toItemDtoList(items, requestorId);
+        verify(itemMapper).toItemAnswerDto(item);
+        verify(itemMapper, never()).toItemDtoList(any(), any());
+        verify(itemMapper, never()).toItemDto(any(), any());
     }
 
     @Test
@@ -247,13 +243,7 @@ class ItemRequestMapperTest {
 
         List<ItemRequest> requests = List.of(request1, request2);
 
-        ItemRequestDto dto1 = new ItemRequestDto(1L, "First request", null, request1.getCreated(), List.of());
-        ItemRequestDto dto2 = new ItemRequestDto(2L, "Second request", null, request2.getCreated(), List.of());
-
-        when(itemRepository.findByRequest_Id(1L)).thenReturn(List.of());
-        when(itemRepository.findByRequest_Id(2L)).thenReturn(List.of());
-        when(itemMapper.toItemDtoList(List.of(), 1L)).thenReturn(List.of());
-        when(itemMapper.toItemDtoList(List.of(), 2L)).thenReturn(List.of());
+        when(itemRepository.findByRequest_IdIn(List.of(1L, 2L))).thenReturn(List.of());
         when(userMapper.toUserDto(requestor1)).thenReturn(new ru.practicum.shareit.user.dto.UserDto());
         when(userMapper.toUserDto(requestor2)).thenReturn(new ru.practicum.shareit.user.dto.UserDto());
 
@@ -267,6 +257,43 @@ class ItemRequestMapperTest {
         assertEquals("Second request", result.get(1).getDescription());
     }
 
+    @Test
+    void toItemRequestDto_List_ShouldLoadAnswersWithSingleQueryAndGroupByRequest() {
+        User requestor = new User();
+        requestor.setId(1L);
+
+        ItemRequest request1 = new ItemRequest();
+        request1.setId(1L);
+        request1.setRequestor(requestor);
+        ItemRequest request2 = new ItemRequest();
+        request2.setId(2L);
+        request2.setRequestor(requestor);
+        ItemRequest request3 = new ItemRequest();
+        request3.setId(3L);
+        request3.setRequestor(requestor);
+
+        Item answer1 = createAnswer(10L, request1);
+        Item answer2 = createAnswer(11L, request2);
+        Item answer3 = createAnswer(12L, request2);
+        ItemAnswerDto answerDto1 = new ItemAnswerDto(10L, "First", null, true, 2L, null);
+        ItemAnswerDto answerDto2 = new ItemAnswerDto(11L, "Second", null, true, 2L, null);
+        ItemAnswerDto answerDto3 = new ItemAnswerDto(12L, "Third", null, true, 3L, null);
+
+        when(itemRepository.findByRequest_IdIn(List.of(1L, 2L, 3L))).thenReturn(List.of(answer1, answer2, answer3));
+        when(itemMapper.toItemAnswerDto(answer1)).thenReturn(answerDto1);
+        when(itemMapper.toItemAnswerDto(answer2)).thenReturn(answerDto2);
+        when(itemMapper.toItemAnswerDto(answer3)).thenReturn(answerDto3);
+        when(userMapper.toUserDto(requestor)).thenReturn(new ru.practicum.shareit.user.dto.UserDto());
+
+        List<ItemRequestDto> result = itemRequestMapper.toItemRequestDtoList(List.of(request1, request2, request3));
+
+        assertEquals(List.of(answerDto1), result.get(0).getItems());
+        assertEquals(List.of(answerDto2, answerDto3), result.get(1).getItems());
+        assertTrue(result.get(2).getItems().isEmpty());
+        verify(itemRepository, times(1)).findByRequest_IdIn(any());
+        verify(itemRepository, never()).findByRequest_Id(any());
+    }
+
     @Test
     void toItemRequestDto_List_WithEmptyList_ShouldReturnEmptyList() {
         List<ItemRequest> emptyRequests = List.of();
@@ -275,6 +302,7 @@ class ItemRequestMapperTest {
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
+        verify(itemRepository, never()).findByRequest_IdIn(any());
     }
 
     @Test
@@ -282,44 +310,6 @@ class ItemRequestMapperTest {
         assertThrows(NullPointerException.class, () -> itemRequestMapper.toItemRequestDtoList((List<ItemRequest>) null));
     }
 
-    @Test
-    void toItemRequestDto_WithItemsFromDifferentOwners_ShouldMapCorrectly() {
-        Long requestId = 1L;
-        Long requestorId = 1L;
-        Long itemOwnerId = 2L;
-
-        User requestor = new User();
-        requestor.setId(requestorId);
-
-        User itemOwner = new User();
-        itemOwner.setId(itemOwnerId);
-
-        ItemRequest itemRequest = new ItemRequest();
-        itemRequest.setId(requestId);
-        itemRequest.setRequestor(requestor);
-        itemRequest.setCreated(LocalDateTime.now());
-
-        Item item = new Item();
-        item.setId(1L);
-        item.setOwner(itemOwner);
-        List<Item> items = List.of(item);
-
-        ItemDto itemDto = new ItemDto(1L, "Drill", "Description", true, itemOwnerId, null, null, null, null);
-        List<ItemDto> itemDtos = List.of(itemDto);
-
-        ru.practicum.shareit.user.dto.UserDto userDto = new ru.practicum.shareit.user.dto.UserDto();
-
-        when(itemRepository.findByRequest_Id(requestId)).thenReturn(items);
-        when(itemMapper.toItemDtoList(items, requestorId)).thenReturn(itemDtos);
-        when(userMapper.toUserDto(requestor)).thenReturn(userDto);
-
-        ItemRequestDto result = itemRequestMapper.toItemRequestDto(itemRequest);
-
-        assertNotNull(result);
-        assertEquals(1, result.getItems().size());
-        assertEquals(itemDto, result.getItems().get(0));
-    }
-
     @Test
     void toEntity_ShouldSetCurrentTimestamp() {
         Long userId = 1L;
@@ -358,8 +348,7 @@ class ItemRequestMapperTest {
         userDto.setId(userId);
         userDto.setName("John Doe");
 
-        when(itemRepository.findByRequest_Id(requestId)).thenReturn(List.of());
-        when(itemMapper.toItemDtoList(List.of(), userId)).thenReturn(List.of());
+        when(itemRepository.findByRequest_IdIn(List.of(requestId))).thenReturn(List.of());
         when(userMapper.toUserDto(requestor)).thenReturn(userDto);
 
         ItemRequestDto result = itemRequestMapper.toItemRequestDto(itemRequest);
@@ -370,4 +359,28 @@ class ItemRequestMapperTest {
         assertEquals(created, result.getCreated());
         assertTrue(result.getItems().isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void toRequestMatchDto_ShouldMapMatchedItemAndScore() {
+        User owner = new User();
+        owner.setId(2L);
+
+        Item item = new Item(5L, "Drill", "Cordless drill", true, owner, null);
+        RequestMatch requestMatch = new RequestMatch(1L, new ItemRequest(), item, 0.75, LocalDateTime.now());
+
+        RequestMatchDto result = itemRequestMapper.toRequestMatchDto(requestMatch);
+
+        assertEquals(5L, result.getItemId());
+        assertEquals("Drill", result.getName());
+        assertEquals("Cordless drill", result.getDescription());
+        assertEquals(2L, result.getOwnerId());
+        assertEquals(0.75, result.getScore());
+    }
+
+    private Item createAnswer(Long id, ItemRequest request) {
+        Item item = new Item();
+        item.setId(id);
+        item.setRequest(request);
+        return item;
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.request.matching;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.event.ItemAddedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestMatch;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.repository.RequestMatchRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RequestMatcherTest {
+
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+
+    @Mock
+    private RequestMatchRepository requestMatchRepository;
+
+    private RequestMatcher requestMatcher;
+
+    @BeforeEach
+    void setUp() {
+        requestMatcher = new RequestMatcher(itemRequestRepository, requestMatchRepository, 0.5, 20);
+    }
+
+    @Test
+    void onItemAdded_ShouldStoreMatchesForIndexedRequests() {
+        ItemRequest request = createItemRequest(1L, "Need a cordless drill", 10L);
+        when(itemRequestRepository.findAllOpenIndexed())
+                .thenReturn(List.of(new IndexedRequest(1L, 10L, "Need a cordless drill")));
+        when(itemRequestRepository.findAllById(List.of(1L))).thenReturn(List.of(request));
+
+        requestMatcher.loadIndex();
+        Item item = createItem(5L, "Drill", "Cordless drill, need charging", 20L);
+        requestMatcher.onItemAdded(new ItemAddedEvent(item));
+
+        ArgumentCaptor<List<RequestMatch>> captor = ArgumentCaptor.captor();
+        verify(requestMatchRepository).saveAll(captor.capture());
+        List<RequestMatch> matches = captor.getValue();
+        assertEquals(1, matches.size());
+        assertEquals(request, matches.getFirst().getRequest());
+        assertEquals(item, matches.getFirst().getItem());
+        assertEquals(1.0, matches.getFirst().getScore());
+        assertNotNull(matches.getFirst().getCreated());
+    }
+
+    @Test
+    void onItemAdded_WithoutCandidates_ShouldNotTouchDatabase() {
+        requestMatcher.onItemRequestCreated(new ItemRequestCreatedEvent(createItemRequest(1L, "garden hose", 10L)));
+
+        requestMatcher.onItemAdded(new ItemAddedEvent(createItem(5L, "Drill", null, 20L)));
+
+        verifyNoInteractions(itemRequestRepository, requestMatchRepository);
+    }
+
+    @Test
+    void onItemAdded_WithDeletedRequest_ShouldSkipAndForgetIt() {
+        requestMatcher.onItemRequestCreated(new ItemRequestCreatedEvent(createItemRequest(1L, "cordless drill", 10L)));
+        when(itemRequestRepository.findAllById(List.of(1L))).thenReturn(List.of());
+
+        requestMatcher.onItemAdded(new ItemAddedEvent(createItem(5L, "Cordless drill", null, 20L)));
+        requestMatcher.onItemAdded(new ItemAddedEvent(createItem(6L, "Cordless drill", null, 20L)));
+
+        verify(itemRequestRepository, times(1)).findAllById(any());
+        verifyNoInteractions(requestMatchRepository);
+    }
+
+    @Test
+    void onItemAdded_AnsweringRequest_ShouldStopMatchingIt() {
+        ItemRequest request = createItemRequest(1L, "cordless drill", 10L);
+        requestMatcher.onItemRequestCreated(new ItemRequestCreatedEvent(request));
+        Item answer = createItem(5L, "Hammer", null, 20L);
+        answer.setRequest(request);
+
+        requestMatcher.onItemAdded(new ItemAddedEvent(answer));
+        requestMatcher.onItemAdded(new ItemAddedEvent(createItem(6L, "Cordless drill", null, 20L)));
+
+        verifyNoInteractions(itemRequestRepository, requestMatchRepository);
+    }
+
+    @Test
+    void loadIndex_ShouldDropRequestsNoLongerOpen() {
+        requestMatcher.onItemRequestCreated(new ItemRequestCreatedEvent(createItemRequest(1L, "cordless drill", 10L)));
+        when(itemRequestRepository.findAllOpenIndexed()).thenReturn(List.of());
+
+        requestMatcher.loadIndex();
+        requestMatcher.onItemAdded(new ItemAddedEvent(createItem(5L, "Cordless drill", null, 20L)));
+
+        verify(itemRequestRepository, never()).findAllById(any());
+        verifyNoInteractions(requestMatchRepository);
+    }
+
+    @Test
+    void addToIndex_ShouldMatchAddedRequests() {
+        ItemRequest request = createItemRequest(1L, "cordless drill", 10L);
+        when(itemRequestRepository.findAllById(List.of(1L))).thenReturn(List.of(request));
+
+        requestMatcher.addToIndex(List.of(new IndexedRequest(1L, 10L, "cordless drill")));
+        requestMatcher.onItemAdded(new ItemAddedEvent(createItem(5L, "Cordless drill", null, 20L)));
+
+        verify(requestMatchRepository).saveAll(any());
+    }
+
+    private ItemRequest createItemRequest(Long id, String description, Long requestorId) {
+        User requestor = new User();
+        requestor.setId(requestorId);
+        return new ItemRequest(id, description, requestor, LocalDateTime.now());
+    }
+
+    private Item createItem(Long id, String name, String description, Long ownerId) {
+        User owner = new User();
+        owner.setId(ownerId);
+        return new Item(id, name, description, true, owner, null);
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.request.matching;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestTokenIndexTest {
+
+    private final RequestTokenIndex index = new RequestTokenIndex();
+
+    @Test
+    void tokenize_ShouldLowercaseSplitAndDropShortTokens() {
+        assertEquals(Set.of("need", "cordless", "drill", "дрель"),
+                RequestTokenIndex.tokenize("Need a cordless DRILL, or a дрель!"));
+    }
+
+    @Test
+    void match_ShouldScoreByShareOfRequestTokensFound() {
+        index.add(new IndexedRequest(1L, 10L, "cordless drill"));
+        index.add(new IndexedRequest(2L, 10L, "drill press stand"));
+        index.add(new IndexedRequest(3L, 10L, "garden hose"));
+
+        List<RequestCandidate> result = index.match(20L, "Cordless drill with two batteries", 0.0, 10);
+
+        assertEquals(List.of(new RequestCandidate(1L, 1.0), new RequestCandidate(2L, 1.0 / 3)), result);
+    }
+
+    @Test
+    void match_ShouldSkipRequestsBelowMinScore() {
+        index.add(new IndexedRequest(1L, 10L, "drill press stand"));
+
+        assertTrue(index.match(20L, "drill", 0.5, 10).isEmpty());
+    }
+
+    @Test
+    void match_ShouldSkipOwnersOwnRequests() {
+        index.add(new IndexedRequest(1L, 20L, "cordless drill"));
+
+        assertTrue(index.match(20L, "cordless drill", 0.0, 10).isEmpty());
+    }
+
+    @Test
+    void match_ShouldReturnAtMostLimitBestCandidates() {
+        index.add(new IndexedRequest(1L, 10L, "drill"));
+        index.add(new IndexedRequest(2L, 10L, "drill bits"));
+        index.add(new IndexedRequest(3L, 10L, "drill"));
+
+        List<RequestCandidate> result = index.match(20L, "drill", 0.0, 2);
+
+        assertEquals(List.of(new RequestCandidate(1L, 1.0), new RequestCandidate(3L, 1.0)), result);
+    }
+
+    @Test
+    void remove_ShouldDropRequestFromResults() {
+        index.add(new IndexedRequest(1L, 10L, "cordless drill"));
+
+        index.remove(1L);
+
+        assertTrue(index.match(20L, "cordless drill", 0.0, 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void add_WithoutUsableTokens_ShouldNotIndexRequest() {
+        index.add(new IndexedRequest(1L, 10L, "a b"));
+        index.add(new IndexedRequest(2L, 10L, null));
+
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void match_WithTenThousandOpenRequests_ShouldOnlyReturnRelevantOnes() {
+        for (long id = 1; id <= 10_000; id++) {
+            index.add(new IndexedRequest(id, id % 100, "request number" + id + " for tool" + (id % 500)));
+        }
+        index.add(new IndexedRequest(10_001L, 7L, "cordless drill"));
+
+        List<RequestCandidate> result = index.match(20L, "Cordless drill", 0.5, 20);
+
+        assertEquals(10_001, index.size());
+        assertEquals(List.of(new RequestCandidate(10_001L, 1.0)), result);
+    }
+}
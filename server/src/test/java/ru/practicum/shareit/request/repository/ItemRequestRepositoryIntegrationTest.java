@@ -6,11 +6,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.request.matching.IndexedRequest;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.ItemRequestVersion;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -279,6 +283,73 @@ class ItemRequestRepositoryIntegrationTest {
         assertEquals(user1.getEmail(), result.get(0).getRequestor().getEmail());
     }
 
+    @Test
+    void findAllOpenIndexed_ShouldReturnIdRequestorAndDescriptionOfUnansweredRequests() {
+        ItemRequest request1 = createItemRequest("Need a drill for home repairs", user1);
+        ItemRequest request2 = createItemRequest("Need a hammer", user2);
+        ItemRequest answered = createItemRequest("Need a ladder", user2);
+
+        entityManager.persist(request1);
+        entityManager.persist(request2);
+        entityManager.persist(answered);
+        entityManager.persist(new Item(null, "Ladder", "Folding ladder", true, user3, answered));
+        entityManager.flush();
+
+        List<IndexedRequest> result = itemRequestRepository.findAllOpenIndexed();
+
+        assertEquals(2, result.size());
+        assertTrue(result.contains(new IndexedRequest(request1.getId(), user1.getId(), "Need a drill for home repairs")));
+        assertTrue(result.contains(new IndexedRequest(request2.getId(), user2.getId(), "Need a hammer")));
+    }
+
+    @Test
+    void findCreatedAfter_ShouldReturnOnlyRecentRequests() {
+        LocalDateTime now = LocalDateTime.now();
+        ItemRequest old = createItemRequest("Need a drill", user1, now.minusMinutes(5));
+        ItemRequest recent = createItemRequest("Need a hammer", user2, now.minusSeconds(5));
+        ItemRequest answered = createItemRequest("Need a ladder", user2, now.minusSeconds(1));
+
+        entityManager.persist(old);
+        entityManager.persist(recent);
+        entityManager.persist(answered);
+        entityManager.persist(new Item(null, "Ladder", "Folding ladder", true, user3, answered));
+        entityManager.flush();
+
+        assertEquals(List.of(recent, answered),
+                itemRequestRepository.findByCreatedAfterOrderByCreatedAscIdAsc(now.minusSeconds(30)));
+        assertEquals(List.of(new IndexedRequest(recent.getId(), user2.getId(), "Need a hammer")),
+                itemRequestRepository.findOpenIndexedCreatedAfter(now.minusSeconds(30)));
+    }
+
+    @Test
+    void findVersionById_ShouldTrackRequestRequestorAndAnswers() {
+        ItemRequest request = createItemRequest("Need a drill", user1);
+        entityManager.persist(request);
+        entityManager.flush();
+
+        assertEquals(Optional.of(new ItemRequestVersion(0L, 0L, 0L, 0L, 0L)),
+                itemRequestRepository.findVersionById(request.getId()));
+
+        Item answer = new Item(null, "Drill", "Cordless drill", true, user2, request);
+        entityManager.persist(answer);
+        user1.setName("Renamed");
+        entityManager.flush();
+
+        assertEquals(Optional.of(new ItemRequestVersion(0L, 1L, 1L, 0L, answer.getId())),
+                itemRequestRepository.findVersionById(request.getId()));
+
+        answer.setName("Hammer drill");
+        entityManager.flush();
+
+        assertEquals(Optional.of(new ItemRequestVersion(0L, 1L, 1L, 1L, answer.getId())),
+                itemRequestRepository.findVersionById(request.getId()));
+    }
+
+    @Test
+    void findVersionById_WithNonExistingRequest_ShouldReturnEmpty() {
+        assertTrue(itemRequestRepository.findVersionById(999L).isEmpty());
+    }
+
     private User createUser(String email, String name) {
         User user = new User();
         user.setEmail(email);
@@ -76,7 +76,7 @@ class ItemRequestServiceIntegrationTest {
         itemRequestRepository.save(request3);
         itemRequestRepository.save(otherUserRequest);
 
-        List<ItemRequest> result = itemRequestService.getUserItemRequests(user1.getId());
+        List<ItemRequest> result = itemRequestService.getUserItemRequests(user1.getId(), null, 20);
 
         assertEquals(3, result.size());
         // Проверяем сортировку по убыванию даты (новые первыми)
@@ -90,13 +90,27 @@ class ItemRequestServiceIntegrationTest {
 
     @Test
     void getUserItemRequests_WithNoRequests_ShouldReturnEmptyList() {
-        List<ItemRequest> result = itemRequestService.getUserItemRequests(user1.getId());
+        List<ItemRequest> result = itemRequestService.getUserItemRequests(user1.getId(), null, 20);
 
         assertTrue(result.isEmpty());
     }
 
     @Test
-    void getAllRequests_ShouldReturnAllRequestsSortedByDateDesc() {
+    void getUserItemRequests_WithoutSize_ShouldReturnWholeList() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 25; i++) {
+            itemRequestRepository.save(createItemRequest("Request " + i, user1, now.minusMinutes(i)));
+        }
+
+        List<ItemRequest> result = itemRequestService.getUserItemRequests(user1.getId(), null, null);
+
+        assertEquals(25, result.size());
+        assertEquals("Request 0", result.get(0).getDescription());
+        assertEquals("Request 24", result.get(24).getDescription());
+    }
+
+    @Test
+    void streamAllRequests_ShouldReturnAllRequestsSortedByDateDesc() {
         LocalDateTime now = LocalDateTime.now();
 
         ItemRequest request1 = createItemRequest("User1 old request", user1, now.minusDays(3));
@@ -109,7 +123,7 @@ class ItemRequestServiceIntegrationTest {
         itemRequestRepository.save(request3);
         itemRequestRepository.save(request4);
 
-        List<ItemRequest> result = itemRequestService.getAllRequests();
+        List<ItemRequest> result = itemRequestService.streamAllRequests(null, 20).toList();
 
         assertEquals(4, result.size());
         // Проверяем сортировку по убыванию даты (новые первыми)
@@ -120,12 +134,54 @@ class ItemRequestServiceIntegrationTest {
     }
 
     @Test
-    void getAllRequests_WithNoRequests_ShouldReturnEmptyList() {
-        List<ItemRequest> result = itemRequestService.getAllRequests();
+    void streamAllRequests_WithNoRequests_ShouldReturnEmptyList() {
+        List<ItemRequest> result = itemRequestService.streamAllRequests(null, 20).toList();
 
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void streamAllRequests_WithCursor_ShouldReturnNextPageInOrder() {
+        LocalDateTime now = LocalDateTime.now();
+
+        ItemRequest request1 = itemRequestRepository.save(createItemRequest("Oldest", user1, now.minusDays(3)));
+        ItemRequest request2 = itemRequestRepository.save(createItemRequest("Same time A", user2, now.minusDays(1)));
+        ItemRequest request3 = itemRequestRepository.save(createItemRequest("Same time B", user3, now.minusDays(1)));
+        ItemRequest request4 = itemRequestRepository.save(createItemRequest("Newest", user1, now));
+
+        List<ItemRequest> firstPage = itemRequestService.streamAllRequests(null, 2).toList();
+        List<ItemRequest> secondPage = itemRequestService.streamAllRequests(firstPage.getLast().getId(), 2).toList();
+        List<ItemRequest> thirdPage = itemRequestService.streamAllRequests(secondPage.getLast().getId(), 2).toList();
+
+        assertEquals(List.of(request4.getId(), request3.getId()), firstPage.stream().map(ItemRequest::getId).toList());
+        assertEquals(List.of(request2.getId(), request1.getId()), secondPage.stream().map(ItemRequest::getId).toList());
+        assertTrue(thirdPage.isEmpty());
+    }
+
+    @Test
+    void getUserItemRequests_WithCursor_ShouldPageOnlyUserRequests() {
+        LocalDateTime now = LocalDateTime.now();
+
+        ItemRequest request1 = itemRequestRepository.save(createItemRequest("Old", user1, now.minusDays(2)));
+        itemRequestRepository.save(createItemRequest("Other user", user2, now.minusDays(1)));
+        ItemRequest request3 = itemRequestRepository.save(createItemRequest("New", user1, now));
+
+        List<ItemRequest> firstPage = itemRequestService.getUserItemRequests(user1.getId(), null, 1);
+        List<ItemRequest> secondPage = itemRequestService.getUserItemRequests(user1.getId(), request3.getId(), 1);
+
+        assertEquals(1, firstPage.size());
+        assertEquals(request3.getId(), firstPage.getFirst().getId());
+        assertEquals(1, secondPage.size());
+        assertEquals(request1.getId(), secondPage.getFirst().getId());
+    }
+
+    @Test
+    void streamAllRequests_WithUnknownCursor_ShouldReturnEmptyList() {
+        itemRequestRepository.save(createItemRequest("Request", user1));
+
+        assertTrue(itemRequestService.streamAllRequests(999L, 20).toList().isEmpty());
+    }
+
     @Test
     void getItemRequest_WithExistingId_ShouldReturnRequest() {
         ItemRequest request = createItemRequest("Test request", user1);
@@ -169,9 +225,9 @@ class ItemRequestServiceIntegrationTest {
         itemRequestRepository.save(user2Request1);
         itemRequestRepository.save(user3Request1);
 
-        List<ItemRequest> user1Results = itemRequestService.getUserItemRequests(user1.getId());
-        List<ItemRequest> user2Results = itemRequestService.getUserItemRequests(user2.getId());
-        List<ItemRequest> user3Results = itemRequestService.getUserItemRequests(user3.getId());
+        List<ItemRequest> user1Results = itemRequestService.getUserItemRequests(user1.getId(), null, 20);
+        List<ItemRequest> user2Results = itemRequestService.getUserItemRequests(user2.getId(), null, 20);
+        List<ItemRequest> user3Results = itemRequestService.getUserItemRequests(user3.getId(), null, 20);
 
         assertEquals(2, user1Results.size());
         assertEquals(1, user2Results.size());
@@ -183,7 +239,7 @@ class ItemRequestServiceIntegrationTest {
     }
 
     @Test
-    void getAllRequests_ShouldIncludeRequestsFromAllUsers() {
+    void streamAllRequests_ShouldIncludeRequestsFromAllUsers() {
         ItemRequest user1Request = createItemRequest("User1 request", user1);
         ItemRequest user2Request = createItemRequest("User2 request", user2);
         ItemRequest user3Request = createItemRequest("User3 request", user3);
@@ -192,7 +248,7 @@ class ItemRequestServiceIntegrationTest {
         itemRequestRepository.save(user2Request);
         itemRequestRepository.save(user3Request);
 
-        List<ItemRequest> result = itemRequestService.getAllRequests();
+        List<ItemRequest> result = itemRequestService.streamAllRequests(null, 20).toList();
 
         assertEquals(3, result.size());
         assertTrue(result.stream().anyMatch(req -> req.getRequestor().getId().equals(user1.getId())));
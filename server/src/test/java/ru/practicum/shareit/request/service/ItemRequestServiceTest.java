@@ -5,15 +5,28 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.exception.InternalValidationException;
 import ru.practicum.shareit.exception.RequestNotFoundException;
+import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.model.RequestMatch;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.repository.RequestMatchRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,6 +35,15 @@ class ItemRequestServiceTest {
     @Mock
     private ItemRequestRepository itemRequestRepository;
 
+    @Mock
+    private RequestMatchRepository requestMatchRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private UserRepository userRepository;
+
     @InjectMocks
     private ItemRequestServiceImpl itemRequestService;
 
@@ -45,106 +67,134 @@ class ItemRequestServiceTest {
     }
 
     @Test
-    void getUserItemRequests_WithExistingRequests_ShouldReturnSortedRequests() {
+    void addItemRequest_ShouldPublishCreatedEventWithSavedRequest() {
+        ItemRequest request = new ItemRequest();
+        ItemRequest savedRequest = createItemRequest(1L, "Need a drill", LocalDateTime.now());
+
+        when(itemRequestRepository.save(request)).thenReturn(savedRequest);
+
+        itemRequestService.addItemRequest(request);
+
+        verify(eventPublisher).publishEvent(argThat((Object event) ->
+                event instanceof ItemRequestCreatedEvent created && created.getItemRequest() == savedRequest));
+    }
+
+    @Test
+    void getUserItemRequests_WithoutCursor_ShouldReturnNewestPageInRepositoryOrder() {
         Long userId = 1L;
 
-        ItemRequest request1 = createItemRequest(1L, "First request", LocalDateTime.now().minusDays(2));
+        ItemRequest request1 = createItemRequest(3L, "Third request", LocalDateTime.now());
         ItemRequest request2 = createItemRequest(2L, "Second request", LocalDateTime.now().minusDays(1));
-        ItemRequest request3 = createItemRequest(3L, "Third request", LocalDateTime.now());
 
-        List<ItemRequest> requests = List.of(request1, request2, request3);
+        when(itemRequestRepository.findNewestByRequestorId(userId, PageRequest.ofSize(2)))
+                .thenReturn(List.of(request1, request2));
 
-        when(itemRequestRepository.findByRequestor_Id(userId)).thenReturn(requests);
+        List<ItemRequest> result = itemRequestService.getUserItemRequests(userId, null, 2);
 
-        List<ItemRequest> result = itemRequestService.getUserItemRequests(userId);
-
-        assertNotNull(result);
-        assertEquals(3, result.size());
-        // Проверяем сортировку по убыванию даты создания (новые первыми)
-        assertEquals(3L, result.get(0).getId());
-        assertEquals(2L, result.get(1).getId());
-        assertEquals(1L, result.get(2).getId());
-        verify(itemRequestRepository).findByRequestor_Id(userId);
+        assertEquals(List.of(request1, request2), result);
+        verify(itemRequestRepository, never()).findByRequestor_Id(any());
     }
 
     @Test
     void getUserItemRequests_WithNoRequests_ShouldReturnEmptyList() {
         Long userId = 1L;
 
-        when(itemRequestRepository.findByRequestor_Id(userId)).thenReturn(List.of());
+        when(itemRequestRepository.findNewestByRequestorId(userId, PageRequest.ofSize(20))).thenReturn(List.of());
 
-        List<ItemRequest> result = itemRequestService.getUserItemRequests(userId);
+        List<ItemRequest> result = itemRequestService.getUserItemRequests(userId, null, 20);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(itemRequestRepository).findByRequestor_Id(userId);
     }
 
     @Test
-    void getUserItemRequests_WithSingleRequest_ShouldReturnSingleItemList() {
+    void getUserItemRequests_WithoutSize_ShouldQueryUnpaged() {
         Long userId = 1L;
+        ItemRequest request = createItemRequest(3L, "Third request", LocalDateTime.now());
 
-        ItemRequest request = createItemRequest(1L, "Single request", LocalDateTime.now());
-        when(itemRequestRepository.findByRequestor_Id(userId)).thenReturn(List.of(request));
+        when(itemRequestRepository.findNewestByRequestorId(userId, Pageable.unpaged())).thenReturn(List.of(request));
 
-        List<ItemRequest> result = itemRequestService.getUserItemRequests(userId);
+        List<ItemRequest> result = itemRequestService.getUserItemRequests(userId, null, null);
 
-        assertEquals(1, result.size());
-        assertEquals(1L, result.get(0).getId());
-        assertEquals("Single request", result.get(0).getDescription());
+        assertEquals(List.of(request), result);
     }
 
     @Test
-    void getAllRequests_WithExistingRequests_ShouldReturnAllSortedRequests() {
-        ItemRequest request1 = createItemRequest(1L, "Old request", LocalDateTime.now().minusDays(3));
-        ItemRequest request2 = createItemRequest(2L, "Middle request", LocalDateTime.now().minusDays(1));
-        ItemRequest request3 = createItemRequest(3L, "New request", LocalDateTime.now());
+    void getUserItemRequests_WithCursor_ShouldContinueBelowCursorPosition() {
+        Long userId = 1L;
+        LocalDateTime cursorCreated = LocalDateTime.now();
+        ItemRequest older = createItemRequest(2L, "Older request", cursorCreated.minusDays(1));
 
-        List<ItemRequest> requests = List.of(request1, request2, request3);
+        when(itemRequestRepository.findCreatedById(3L)).thenReturn(Optional.of(cursorCreated));
+        when(itemRequestRepository.findOlderThanByRequestorId(userId, cursorCreated, 3L, PageRequest.ofSize(10)))
+                .thenReturn(List.of(older));
 
-        when(itemRequestRepository.findAll()).thenReturn(requests);
+        List<ItemRequest> result = itemRequestService.getUserItemRequests(userId, 3L, 10);
 
-        List<ItemRequest> result = itemRequestService.getAllRequests();
+        assertEquals(List.of(older), result);
+    }
+
+    @Test
+    void streamAllRequests_WithoutCursor_ShouldReturnNewestPageInRepositoryOrder() {
+        ItemRequest request1 = createItemRequest(3L, "New request", LocalDateTime.now());
+        ItemRequest request2 = createItemRequest(2L, "Middle request", LocalDateTime.now().minusDays(1));
+        ItemRequest request3 = createItemRequest(1L, "Old request", LocalDateTime.now().minusDays(3));
+
+        when(itemRequestRepository.streamNewest(PageRequest.ofSize(20))).thenReturn(Stream.of(request1, request2, request3));
+
+        List<ItemRequest> result = itemRequestService.streamAllRequests(null, 20).toList();
 
-        assertNotNull(result);
         assertEquals(3, result.size());
-        // Проверяем сортировку по убыванию даты создания (новые первыми)
         assertEquals(3L, result.get(0).getId());
         assertEquals(2L, result.get(1).getId());
         assertEquals(1L, result.get(2).getId());
-        verify(itemRequestRepository).findAll();
+        verify(itemRequestRepository, never()).findAll();
     }
 
     @Test
-    void getAllRequests_WithNoRequests_ShouldReturnEmptyList() {
-        when(itemRequestRepository.findAll()).thenReturn(List.of());
+    void streamAllRequests_WithNoRequests_ShouldReturnEmptyList() {
+        when(itemRequestRepository.streamNewest(PageRequest.ofSize(20))).thenReturn(Stream.empty());
 
-        List<ItemRequest> result = itemRequestService.getAllRequests();
+        List<ItemRequest> result = itemRequestService.streamAllRequests(null, 20).toList();
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(itemRequestRepository).findAll();
     }
 
     @Test
-    void getAllRequests_WithSameCreationDate_ShouldMaintainOrder() {
-        LocalDateTime sameTime = LocalDateTime.now();
+    void streamAllRequests_WithCursor_ShouldContinueBelowCursorPosition() {
+        LocalDateTime cursorCreated = LocalDateTime.now();
+        ItemRequest older = createItemRequest(4L, "Older request", cursorCreated.minusHours(1));
 
-        ItemRequest request1 = createItemRequest(1L, "Request 1", sameTime);
-        ItemRequest request2 = createItemRequest(2L, "Request 2", sameTime);
-        ItemRequest request3 = createItemRequest(3L, "Request 3", sameTime);
+        when(itemRequestRepository.findCreatedById(5L)).thenReturn(Optional.of(cursorCreated));
+        when(itemRequestRepository.streamOlderThan(cursorCreated, 5L, PageRequest.ofSize(1)))
+                .thenReturn(Stream.of(older));
 
-        List<ItemRequest> requests = List.of(request1, request2, request3);
+        List<ItemRequest> result = itemRequestService.streamAllRequests(5L, 1).toList();
 
-        when(itemRequestRepository.findAll()).thenReturn(requests);
+        assertEquals(List.of(older), result);
+        verify(itemRequestRepository, never()).findById(any());
+    }
 
-        List<ItemRequest> result = itemRequestService.getAllRequests();
+    @Test
+    void streamAllRequests_WithUnknownCursor_ShouldReturnEmptyWithoutQueryingPage() {
+        when(itemRequestRepository.findCreatedById(999L)).thenReturn(Optional.empty());
 
-        assertEquals(3, result.size());
-        // При одинаковом времени порядок может быть любым, но все должны присутствовать
-        assertTrue(result.stream().anyMatch(r -> r.getId().equals(1L)));
-        assertTrue(result.stream().anyMatch(r -> r.getId().equals(2L)));
-        assertTrue(result.stream().anyMatch(r -> r.getId().equals(3L)));
+        List<ItemRequest> result = itemRequestService.streamAllRequests(999L, 20).toList();
+
+        assertTrue(result.isEmpty());
+        verify(itemRequestRepository, never()).streamOlderThan(any(), any(), any());
+    }
+
+    @Test
+    void streamAllRequests_WithNonPositiveSize_ShouldThrowInternalValidationException() {
+        InternalValidationException exception = assertThrows(
+                InternalValidationException.class,
+                () -> itemRequestService.streamAllRequests(null, 0)
+        );
+
+        assertEquals("Page size must be positive", exception.getMessage());
+        verifyNoInteractions(itemRequestRepository);
     }
 
     @Test
@@ -177,6 +227,19 @@ class ItemRequestServiceTest {
         verify(itemRequestRepository).findById(requestId);
     }
 
+    @Test
+    void getItemRequestVersion_WithNonExistingId_ShouldThrowRequestNotFoundException() {
+        when(itemRequestRepository.findVersionById(999L)).thenReturn(Optional.empty());
+
+        RequestNotFoundException exception = assertThrows(
+                RequestNotFoundException.class,
+                () -> itemRequestService.getItemRequestVersion(999L)
+        );
+
+        assertEquals("Request with id 999 not found", exception.getMessage());
+        verify(itemRequestRepository, never()).findById(any());
+    }
+
     @Test
     void getItemRequest_WithNullId_ShouldThrowRequestNotFoundException() {
         when(itemRequestRepository.findById(null)).thenReturn(Optional.empty());
@@ -190,40 +253,53 @@ class ItemRequestServiceTest {
     }
 
     @Test
-    void getUserItemRequests_ShouldReturnOnlyUserRequests() {
-        Long userId = 1L;
-        Long otherUserId = 2L;
+    void getRequestMatches_WithExistingRequest_ShouldReturnMatchesByScore() {
+        Long requestId = 1L;
+        ItemRequest request = createItemRequest(requestId, "Need a drill", LocalDateTime.now());
+        request.setRequestor(createUser(1L));
+        List<RequestMatch> matches = List.of(new RequestMatch(), new RequestMatch());
+
+        when(itemRequestRepository.findById(requestId)).thenReturn(Optional.of(request));
+        when(requestMatchRepository.findByRequest_IdOrderByScoreDescIdAsc(requestId)).thenReturn(matches);
+
+        List<RequestMatch> result = itemRequestService.getRequestMatches(1L, requestId);
+
+        assertEquals(matches, result);
+    }
+
+    @Test
+    void getRequestMatches_ByOtherUser_ShouldThrowInternalValidationException() {
+        Long requestId = 1L;
+        ItemRequest request = createItemRequest(requestId, "Need a drill", LocalDateTime.now());
+        request.setRequestor(createUser(1L));
 
-        ItemRequest userRequest1 = createItemRequest(1L, "User request 1", LocalDateTime.now().minusDays(2));
-        ItemRequest userRequest2 = createItemRequest(2L, "User request 2", LocalDateTime.now().minusDays(1));
-        ItemRequest otherUserRequest = createItemRequest(3L, "Other user request", LocalDateTime.now());
+        when(itemRequestRepository.findById(requestId)).thenReturn(Optional.of(request));
 
-        // Репозиторий возвращает только запросы указанного пользователя
-        when(itemRequestRepository.findByRequestor_Id(userId)).thenReturn(List.of(userRequest1, userRequest2));
+        assertThrows(InternalValidationException.class,
+                () -> itemRequestService.getRequestMatches(2L, requestId));
+        verifyNoInteractions(requestMatchRepository);
+    }
 
-        List<ItemRequest> result = itemRequestService.getUserItemRequests(userId);
+    @Test
+    void getRequestMatches_WithNonExistingRequest_ShouldThrowRequestNotFoundException() {
+        when(itemRequestRepository.findById(999L)).thenReturn(Optional.empty());
 
-        assertEquals(2, result.size());
-        assertTrue(result.stream().allMatch(request ->
-                request.getDescription().startsWith("User request")));
-        assertTrue(result.stream().noneMatch(request ->
-                request.getDescription().equals("Other user request")));
+        assertThrows(RequestNotFoundException.class, () -> itemRequestService.getRequestMatches(1L, 999L));
+        verifyNoInteractions(requestMatchRepository);
     }
 
     @Test
-    void getAllRequests_ShouldReturnRequestsFromAllUsers() {
-        ItemRequest request1 = createItemRequest(1L, "User1 request", LocalDateTime.now().minusDays(2));
-        ItemRequest request2 = createItemRequest(2L, "User2 request", LocalDateTime.now().minusDays(1));
-        ItemRequest request3 = createItemRequest(3L, "User3 request", LocalDateTime.now());
+    void checkUserExists_WithExistingUser_ShouldPass() {
+        when(userRepository.existsById(1L)).thenReturn(true);
 
-        when(itemRequestRepository.findAll()).thenReturn(List.of(request1, request2, request3));
+        assertDoesNotThrow(() -> itemRequestService.checkUserExists(1L));
+    }
 
-        List<ItemRequest> result = itemRequestService.getAllRequests();
+    @Test
+    void checkUserExists_WithNonExistingUser_ShouldThrowUserNotFoundException() {
+        when(userRepository.existsById(999L)).thenReturn(false);
 
-        assertEquals(3, result.size());
-        assertTrue(result.stream().anyMatch(r -> r.getDescription().equals("User1 request")));
-        assertTrue(result.stream().anyMatch(r -> r.getDescription().equals("User2 request")));
-        assertTrue(result.stream().anyMatch(r -> r.getDescription().equals("User3 request")));
+        assertThrows(UserNotFoundException.class, () -> itemRequestService.checkUserExists(999L));
     }
 
     private ItemRequest createItemRequest(Long id, String description, LocalDateTime created) {
@@ -233,4 +309,10 @@ class ItemRequestServiceTest {
         request.setCreated(created);
         return request;
     }
+
+    private User createUser(Long id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,134 @@
+package ru.practicum.shareit.request.stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.event.ItemRequestCreatedEvent;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemRequestFeedTest {
+
+    @Mock
+    private ItemRequestMapper itemRequestMapper;
+
+    private ItemRequestFeed itemRequestFeed;
+
+    @BeforeEach
+    void setUp() {
+        itemRequestFeed = new ItemRequestFeed(itemRequestMapper, Duration.ofMinutes(1), 2, Duration.ofMinutes(1), false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRequestFeed.shutdown();
+    }
+
+    @Test
+    void onItemRequestCreated_ShouldPushRequestToSubscriber() throws Exception {
+        SseEmitter emitter = mock(SseEmitter.class);
+        ItemRequest itemRequest = createItemRequest(1L);
+        CountDownLatch sent = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sent.countDown();
+            return null;
+        }).when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+
+        when(itemRequestMapper.toItemRequestDto(itemRequest)).thenReturn(createItemRequestDto(1L));
+
+        itemRequestFeed.register(emitter);
+        itemRequestFeed.onItemRequestCreated(new ItemRequestCreatedEvent(itemRequest));
+
+        assertTrue(sent.await(5, TimeUnit.SECONDS));
+        assertEquals(1, itemRequestFeed.getSubscriberCount());
+    }
+
+    @Test
+    void onItemRequestCreated_WithoutSubscribers_ShouldNotMapRequest() {
+        itemRequestFeed.onItemRequestCreated(new ItemRequestCreatedEvent(createItemRequest(1L)));
+
+        verifyNoInteractions(itemRequestMapper);
+    }
+
+    @Test
+    void onItemRequestCreated_WithSlowSubscriber_ShouldDropItOnceBufferIsFull() throws Exception {
+        SseEmitter slowEmitter = mock(SseEmitter.class);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sending.countDown();
+            release.await();
+            return null;
+        }).when(slowEmitter).send(any(SseEmitter.SseEventBuilder.class));
+        doAnswer(invocation -> {
+            completed.countDown();
+            return null;
+        }).when(slowEmitter).complete();
+
+        when(itemRequestMapper.toItemRequestDto(any())).thenAnswer(invocation ->
+                createItemRequestDto(invocation.<ItemRequest>getArgument(0).getId()));
+
+        itemRequestFeed.register(slowEmitter);
+        itemRequestFeed.onItemRequestCreated(new ItemRequestCreatedEvent(createItemRequest(1L)));
+        sending.await();
+
+        // the first event is stuck in send(), the buffer of two takes the next ones and then overflows
+        for (long id = 2; id <= 4; id++) {
+            itemRequestFeed.onItemRequestCreated(new ItemRequestCreatedEvent(createItemRequest(id)));
+        }
+
+        // the publisher only drops the subscriber, completing the emitter is left to its drainer
+        assertEquals(0, itemRequestFeed.getSubscriberCount());
+        release.countDown();
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void register_WhenSendFails_ShouldRemoveSubscriber() throws Exception {
+        SseEmitter emitter = mock(SseEmitter.class);
+        CountDownLatch failed = new CountDownLatch(1);
+        doThrow(new IOException("Broken pipe")).when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+        doAnswer(invocation -> {
+            failed.countDown();
+            return null;
+        }).when(emitter).completeWithError(any(IOException.class));
+
+        when(itemRequestMapper.toItemRequestDto(any())).thenReturn(createItemRequestDto(1L));
+
+        itemRequestFeed.register(emitter);
+        itemRequestFeed.onItemRequestCreated(new ItemRequestCreatedEvent(createItemRequest(1L)));
+
+        // emitter methods are synchronized, so wait on a latch rather than verify(timeout) holding the monitor
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        assertEquals(0, itemRequestFeed.getSubscriberCount());
+    }
+
+    private ItemRequest createItemRequest(Long id) {
+        ItemRequest itemRequest = new ItemRequest();
+        itemRequest.setId(id);
+        itemRequest.setCreated(LocalDateTime.now());
+        return itemRequest;
+    }
+
+    private ItemRequestDto createItemRequestDto(Long id) {
+        return new ItemRequestDto(id, "Need a drill", null, LocalDateTime.now(), List.of());
+    }
+}
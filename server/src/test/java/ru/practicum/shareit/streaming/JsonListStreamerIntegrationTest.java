@@ -0,0 +1,188 @@
+package ru.practicum.shareit.streaming;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCategory;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.comment.model.Comment;
+import ru.practicum.shareit.item.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Sql(scripts = {"/test-schema.sql"})
+class JsonListStreamerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingMapper bookingMapper;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private ItemRequestMapper itemRequestMapper;
+
+    @Test
+    void getUserBookings_WithMoreBookingsThanOneChunk_ShouldWriteTheSameListAsMappedAtOnce() throws Exception {
+        User owner = userRepository.save(createUser("owner@example.com", "Owner"));
+        User booker = userRepository.save(createUser("booker@example.com", "Booker"));
+        Item item = itemRepository.save(createItem(owner, null));
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            bookings.add(new Booking(null, LocalDateTime.of(2030, 1, 1, 0, 0).plusHours(i),
+                    LocalDateTime.of(2030, 1, 1, 1, 0).plusHours(i), item, booker, BookingStatus.WAITING));
+        }
+        bookingRepository.saveAll(bookings);
+
+        JsonNode streamed = streamed("/bookings", booker.getId());
+
+        JsonNode collected = objectMapper.readTree(objectMapper.writeValueAsBytes(transactionTemplate.execute(status ->
+                bookingMapper.toBookingDtoOutList(bookingService.streamUserBookings(booker.getId(), BookingCategory.ALL).toList())
+        )));
+        assertEquals(250, streamed.size());
+        assertEquals("2030-01-11T09:00:00", streamed.get(0).get("start").asText());
+        assertEquals(collected, streamed);
+    }
+
+    @Test
+    void getUserItems_WithMoreItemsThanOneChunk_ShouldInlineEachItemsOwnBookingAndComments() throws Exception {
+        User owner = userRepository.save(createUser("owner@example.com", "Owner"));
+        User booker = userRepository.save(createUser("booker@example.com", "Booker"));
+        List<Item> items = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>();
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            Item item = itemRepository.save(createItem(owner, null));
+            items.add(item);
+            bookings.add(new Booking(null, LocalDateTime.of(2020, 1, 1, 0, 0).plusHours(i),
+                    LocalDateTime.of(2020, 1, 1, 1, 0).plusHours(i), item, booker, BookingStatus.APPROVED));
+            comments.add(new Comment(null, "Comment " + i, item, booker, LocalDateTime.of(2020, 2, 1, 0, 0)));
+        }
+        bookingRepository.saveAll(bookings);
+        commentRepository.saveAll(comments);
+
+        JsonNode streamed = streamed("/items", owner.getId());
+
+        assertEquals(150, streamed.size());
+        for (JsonNode item : streamed) {
+            int i = items.stream().map(Item::getId).toList().indexOf(item.get("id").asLong());
+            assertEquals(bookings.get(i).getId(), item.get("lastBooking").get("id").asLong());
+            assertEquals(1, item.get("comments").size());
+            assertEquals("Comment " + i, item.get("comments").get(0).get("text").asText());
+        }
+    }
+
+    @Test
+    void getUserBookings_ForUnknownUser_ShouldAnswerNotFound() throws Exception {
+        MvcResult result = mockMvc.perform(get("/bookings").header("X-Sharer-User-Id", 42L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getAllRequests_ShouldWriteThePageWithItsAnswers() throws Exception {
+        User requestor = userRepository.save(createUser("requestor@example.com", "Requestor"));
+        User owner = userRepository.save(createUser("owner@example.com", "Owner"));
+        List<ItemRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            requests.add(new ItemRequest(null, "Need a drill " + i, requestor,
+                    LocalDateTime.of(2030, 1, 1, 0, 0).plusMinutes(i)));
+        }
+        itemRequestRepository.saveAll(requests);
+        itemRepository.save(createItem(owner, requests.get(100)));
+
+        JsonNode streamed = streamed("/requests/all?size=120", owner.getId());
+
+        JsonNode collected = objectMapper.readTree(objectMapper.writeValueAsBytes(transactionTemplate.execute(status ->
+                itemRequestMapper.toItemRequestDtoList(itemRequestService.streamAllRequests(null, 120).toList())
+        )));
+        assertEquals(120, streamed.size());
+        assertEquals(1, streamed.get(149 - 100).get("items").size());
+        assertEquals(collected, streamed);
+    }
+
+    private JsonNode streamed(String path, Long userId) throws Exception {
+        MvcResult result = mockMvc.perform(get(path).header("X-Sharer-User-Id", userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return objectMapper.readTree(mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray());
+    }
+
+    private static User createUser(String email, String name) {
+        User user = new User();
+        user.setEmail(email);
+        user.setName(name);
+        return user;
+    }
+
+    private static Item createItem(User owner, ItemRequest request) {
+        Item item = new Item();
+        item.setName("Drill");
+        item.setDescription("Cordless drill");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item.setRequest(request);
+        return item;
+    }
+}
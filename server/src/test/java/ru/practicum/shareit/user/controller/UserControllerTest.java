@@ -1,6 +1,7 @@
 package ru.practicum.shareit.user.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -8,8 +9,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.deadline.DeadlineMetrics;
+import ru.practicum.shareit.exception.handler.GlobalExceptionHandler;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -17,7 +21,8 @@ import ru.practicum.shareit.user.service.UserService;
 
 import java.util.List;
 
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -88,16 +93,32 @@ class UserControllerTest {
     void getUserById_WithExistingUser_ShouldReturnUser() throws Exception {
         Long userId = 1L;
 
+        when(userService.getUserVersion(userId)).thenReturn(0L);
         when(userService.getUserById(userId)).thenReturn(user);
         when(userMapper.toUserDto(user)).thenReturn(userDto);
 
-        mockMvc.perform(get("/users/{userId}", userId))
+        mockMvc.perform(get("/users/{userId}", userId)
+                        .header("X-Sharer-User-Id", 2L))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0-2\""))
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.name").value("John Doe"))
                 .andExpect(jsonPath("$.email").value("john.doe@example.com"));
     }
 
+    @Test
+    void getUserById_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        when(userService.getUserVersion(1L)).thenReturn(4L);
+
+        mockMvc.perform(get("/users/{userId}", 1L)
+                        .header("X-Sharer-User-Id", 1L)
+                        .header("If-None-Match", "\"4-1\""))
+                .andExpect(status().isNotModified());
+
+        verify(userService, never()).getUserById(any());
+        verifyNoInteractions(userMapper);
+    }
+
     @Test
     void addUser_WithValidData_ShouldReturnCreatedUser() throws Exception {
         UserDto requestDto = new UserDto();
@@ -165,6 +186,26 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.email").value("updated@example.com"));
     }
 
+    @Test
+    void updateUser_WhenUpdatedConcurrently_ShouldReturnConflict() throws Exception {
+        MockMvc adviced = MockMvcBuilders.standaloneSetup(userController)
+                .setControllerAdvice(new GlobalExceptionHandler(new DeadlineMetrics(new SimpleMeterRegistry())))
+                .build();
+        UserDto updateDto = new UserDto();
+        updateDto.setName("Updated Name");
+        User userToUpdate = new User();
+        userToUpdate.setName("Updated Name");
+
+        when(userMapper.toEntity(updateDto)).thenReturn(userToUpdate);
+        when(userService.updateUser(1L, userToUpdate))
+                .thenThrow(new ObjectOptimisticLockingFailureException(User.class, 1L));
+
+        adviced.perform(patch("/users/{userId}", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void updateUser_WithPartialData_ShouldReturnUpdatedUser() throws Exception {
         Long userId = 1L;
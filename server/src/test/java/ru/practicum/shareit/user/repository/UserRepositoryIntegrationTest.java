@@ -125,6 +125,20 @@ class UserRepositoryIntegrationTest {
         assertEquals("updated@example.com", fromDb.getEmail());
     }
 
+    @Test
+    void findVersionById_ShouldIncreaseOnUpdate() {
+        entityManager.persist(user1);
+        entityManager.flush();
+
+        assertEquals(Optional.of(0L), userRepository.findVersionById(user1.getId()));
+
+        user1.setName("Updated Name");
+        entityManager.flush();
+
+        assertEquals(Optional.of(1L), userRepository.findVersionById(user1.getId()));
+        assertTrue(userRepository.findVersionById(999L).isEmpty());
+    }
+
     @Test
     void save_WithDuplicateEmail_ShouldThrowException() {
         User user1 = createUser("duplicate@example.com", "First User");
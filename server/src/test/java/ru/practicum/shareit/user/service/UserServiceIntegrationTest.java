@@ -4,6 +4,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.UserNotFoundException;
@@ -24,6 +26,9 @@ class UserServiceIntegrationTest {
     @Autowired
     private ru.practicum.shareit.user.repository.UserRepository userRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private User user1;
     private User user2;
 
@@ -106,6 +111,20 @@ class UserServiceIntegrationTest {
         assertEquals("updated@example.com", fromDb.getEmail());
     }
 
+    @Test
+    void updateUser_WhenRowChangedConcurrently_ShouldFailWithOptimisticLock() {
+        User savedUser = userRepository.saveAndFlush(user1);
+        jdbcTemplate.update("UPDATE users SET version = version + 1 WHERE id = ?", savedUser.getId());
+
+        User updateData = new User();
+        updateData.setName("Updated Name");
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> {
+            userService.updateUser(savedUser.getId(), updateData);
+            userRepository.flush();
+        });
+    }
+
     @Test
     void updateUser_WithPartialData_ShouldUpdateOnlyProvidedFields() {
         User savedUser = userRepository.save(user1);
@@ -1,11 +1,15 @@
 package ru.practicum.shareit.user.service;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -22,6 +26,12 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache cache;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -78,6 +88,19 @@ class UserServiceTest {
         verify(userRepository).findById(userId);
     }
 
+    @Test
+    void getUserVersion_WithNonExistingUser_ShouldThrowUserNotFoundException() {
+        when(userRepository.findVersionById(999L)).thenReturn(Optional.empty());
+
+        UserNotFoundException exception = assertThrows(
+                UserNotFoundException.class,
+                () -> userService.getUserVersion(999L)
+        );
+
+        assertEquals("User with id 999 not found", exception.getMessage());
+        verify(userRepository, never()).findById(any());
+    }
+
     @Test
     void getUserById_WithNullId_ShouldThrowUserNotFoundException() {
         when(userRepository.findById(null)).thenReturn(Optional.empty());
@@ -207,6 +230,8 @@ class UserServiceTest {
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(userToDelete));
         doNothing().when(userRepository).deleteById(userId);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        when(cache.unwrap(Cache.class)).thenReturn(cache);
 
         User result = userService.deleteUser(userId);
 
@@ -215,6 +240,22 @@ class UserServiceTest {
         verify(userRepository).deleteById(userId);
     }
 
+    @Test
+    void deleteUser_ShouldEvictCachedItemsAndRequestsRemovedByCascade() {
+        Long userId = 1L;
+        User userToDelete = createUser(userId, "User to delete", "delete@example.com");
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(userToDelete));
+        when(entityManagerFactory.getCache()).thenReturn(cache);
+        when(cache.unwrap(Cache.class)).thenReturn(cache);
+
+        userService.deleteUser(userId);
+
+        verify(cache).evictEntityData(Item.class);
+        verify(cache).evictEntityData(ItemRequest.class);
+        verify(cache).evictQueryRegions();
+    }
+
     @Test
     void deleteUser_WithNonExistingUser_ShouldThrowUserNotFoundException() {
         Long userId = 999L;